@@ -4,9 +4,11 @@
 
 package frc.robot;
 
+import com.revrobotics.REVPhysicsSim;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
@@ -18,15 +20,26 @@ import frc.robot.commands.AutonomousFollowPathCommand;
 import frc.robot.commands.DefaultDriveCommand;
 import frc.robot.config.Config;
 import frc.robot.log.*;
+import frc.robot.profiling.CommandProfiler;
+import frc.robot.profiling.JvmMetrics;
+import frc.robot.profiling.LoopProfiler;
+import frc.robot.profiling.LoopTimer;
+import frc.robot.profiling.StackSampler;
 import frc.robot.simulator.CTREPhysicsSim;
+import frc.robot.simulator.HeadlessSimulation;
 import frc.robot.simulator.SetModeTestSubsystem;
+import frc.robot.simulator.SimulationWorld;
 import frc.robot.simulator.SimulatorTestSubsystem;
 import frc.robot.subsystem.*;
 import frc.robot.utils.AutonomousPath;
+import frc.robot.utils.DashboardKey;
 import frc.robot.utils.MathUtils;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The VM is configured to automatically run this class, and to call the
@@ -42,6 +55,15 @@ public class Robot extends TimedRobot {
 
   private final Loggable<String> info = BucketLog.loggable(Put.STRING, "general/info");
 
+  // the whole scheduler run, the subsystems time themselves under timing/<subsystem name>
+  private final LoopTimer schedulerTimer = new LoopTimer("timing/CommandScheduler");
+
+  // splits every loop into subsystems and commands, reports the biggest ones on an overrun
+  private final LoopProfiler loopProfiler = LoopProfiler.get();
+  private final CommandProfiler commandProfiler = new CommandProfiler(loopProfiler);
+  private StackSampler stackSampler;
+  private JvmMetrics jvmMetrics;
+
   private Buttons buttons;
   private Config config;
 
@@ -56,6 +78,29 @@ public class Robot extends TimedRobot {
   private ClimberSubsystem climberSubsystem;
 
   private SendableChooser<AutonomousPath> autonomousPathChooser = new SendableChooser<>();
+  // set by simulations instead of the chooser
+  private volatile AutonomousPath autonomousPathOverride;
+  private volatile Command autonomousCommand;
+  // counted down when robotInit returns, simulations wait for it before stepping time
+  private final CountDownLatch initialized = new CountDownLatch(1);
+  // built while disabled, null until then
+  private AutonomousPath preparedAutonomousPath;
+  private Command preparedAutonomousCommand;
+
+  private final DoubleLoggable autonomousBuildMillis = BucketLog.doubleLoggable(DashboardKey.AUTO_STATE, "auto/buildMs");
+  private final DoubleLoggable autonomousInitMillis = BucketLog.doubleLoggable(DashboardKey.AUTO_STATE, "auto/initMs");
+  private final BooleanLoggable autonomousPrebuilt = BucketLog.booleanLoggable(DashboardKey.AUTO_STATE, "auto/prebuilt");
+
+  public Robot() {
+    this(null);
+  }
+
+  /**
+   * @param config config to run with instead of the default one, e.g. in simulations
+   */
+  public Robot(Config config) {
+    this.config = config;
+  }
 
   /**
    * This function is run when the robot is first started up and should be used
@@ -64,10 +109,49 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotInit() {
-    this.config = new Config();
+    if (this.config == null) {
+      this.config = new Config();
+    }
     this.buttons = new Buttons();
     this.field = new Field2d();
 
+    BucketLog.useTelemetryProfile(config.log.telemetryProfile, config.log.dashboardConfig);
+    BucketLog.setLogLevel(config.log.logLevel);
+    BucketLog.setOverflowPolicy(config.log.overflowPolicy);
+    if (config.log.publishRingStats) {
+      BucketLog.publishRingStats();
+    }
+
+    commandProfiler.bind(CommandScheduler.getInstance());
+
+    if (config.log.enableJvmMetrics) {
+      jvmMetrics = new JvmMetrics(Thread.currentThread());
+    }
+
+    if (config.log.enableStackSampler) {
+      stackSampler = new StackSampler(
+        Thread.currentThread(),
+        loopProfiler,
+        config.log.stackSamplerPeriodMs,
+        config.log.stackSamplerMinPercent
+      );
+      stackSampler.start();
+    }
+
+    if (config.log.enableRecorder && (isReal() || config.log.recordInSimulation)) {
+      File usbDirectory = new File(config.log.recorderUsbDirectory);
+      File directory = usbDirectory.getParentFile().isDirectory()
+        ? usbDirectory
+        : new File(Filesystem.getOperatingDirectory(), config.log.recorderFallbackDirectory);
+
+      BucketLog.startRecording(
+        directory,
+        config.log.recorderSegmentBytes,
+        config.log.recorderSegmentCount,
+        config.log.recorderBlockBytes
+      );
+    }
+
     this.autonomousPathChooser.addOption("Nothing", AutonomousPath.NOTHING);
     this.autonomousPathChooser.addOption("Test Path (1m Forward)", AutonomousPath.TEST_PATH_1M_FORWARD);
     this.autonomousPathChooser.addOption("Test Path (1m Forward, 1m Up)", AutonomousPath.TEST_PATH_1M_FORWARD_1M_UP);
@@ -84,6 +168,16 @@ public class Robot extends TimedRobot {
 
     SmartDashboard.putData("Autonomous Path Chooser", this.autonomousPathChooser);
 
+    if (isSimulation()) {
+      // subsystems add their mechanisms in init
+      SimulationWorld.getInstance().clear();
+      SimulationWorld.getInstance().configure(config.simulationStepSeconds, config.simulationMaxStepsPerLoop);
+      SimulationWorld.getInstance()
+        .add("ctre", CTREPhysicsSim.getInstance()::run)
+        // keeps its own clock, so only the call counts
+        .add("rev", dt -> REVPhysicsSim.getInstance().run());
+    }
+
     // Add Subsystems Here
     if (config.enableAutonomousSubsystem) {
       this.robotSubsystems.add(autonomousSubsystem = new AutonomousSubsystem(this.config));
@@ -111,7 +205,7 @@ public class Robot extends TimedRobot {
     this.configureButtonBindings();
 
     // Subsystem Initialize Loop
-    if (System.getenv().containsKey("CI")) {
+    if (System.getenv().containsKey("CI") && !HeadlessSimulation.isRunning()) {
       this.robotSubsystems.add(new LogTestSubsystem(this.config));
       this.robotSubsystems.add(new SimulatorTestSubsystem(this.config));
     }
@@ -121,6 +215,31 @@ public class Robot extends TimedRobot {
     // Subsystem Initialize Loop
 
     this.robotSubsystems.forEach(BitBucketsSubsystem::init);
+
+    this.initialized.countDown();
+  }
+
+  /**
+   * Wait for robotInit to return on the robot thread.
+   *
+   * @return false if it didn't within the timeout
+   */
+  public boolean awaitInit(long timeout, TimeUnit unit) throws InterruptedException {
+    return this.initialized.await(timeout, unit);
+  }
+
+  /**
+   * Profiles the whole loop: mode periodic, robotPeriodic, dashboard updates and simulationPeriodic.
+   * Overruns with a garbage collection in them are counted apart under timing/gcOverruns.
+   */
+  @Override
+  protected void loopFunc() {
+    loopProfiler.beginLoop();
+    if (jvmMetrics != null) jvmMetrics.beginLoop();
+
+    super.loopFunc();
+
+    loopProfiler.endLoop(jvmMetrics != null && jvmMetrics.endLoop());
   }
 
   /**
@@ -136,7 +255,17 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotPeriodic() {
+    // everything since the start of the loop was the mode specific periodic function
+    loopProfiler.mark("Robot.modePeriodic");
+
+    long start = schedulerTimer.start();
     CommandScheduler.getInstance().run();
+    schedulerTimer.stop(start);
+
+    loopProfiler.mark("CommandScheduler");
+
+    BucketLog.flush();
+    loopProfiler.mark("BucketLog.flush");
     //this.robotSubsystems.forEach(BitBucketsSubsystem::periodic);
   }
 
@@ -159,195 +288,258 @@ public class Robot extends TimedRobot {
   @Override
   public void autonomousInit() {
     if (config.enableDriveSubsystem && config.enableAutonomousSubsystem) {
+      long start = System.nanoTime();
       this.info.log(LogLevel.GENERAL, "auton started");
 
-      Command command;
-      switch (this.autonomousPathChooser.getSelected()) {
-        case NOTHING:
-          command =
-            new AutonomousFollowPathCommand(
-              this.autonomousSubsystem.buildPath(config.auto.nothingPath),
-              this.autonomousSubsystem,
-              this.drivetrainSubsystem,
-              this.rgbSubsystem
-            );
-          break;
-        case TEST_PATH_1M_FORWARD:
-          command = new AutonomousCommand(autonomousSubsystem, drivetrainSubsystem, intakeSubsystem, shooterSubsystem, rgbSubsystem)
-                  .executeDrivePath("Test Path (1m Forward)")
-                  .complete();
-          break;
-        case TEST_PATH_1M_FORWARD_1M_UP:
-          command = new AutonomousCommand(autonomousSubsystem, drivetrainSubsystem, intakeSubsystem, shooterSubsystem, rgbSubsystem)
-                  .executeDrivePath("Test Path (1m Forward, 1m Up)")
-                  .complete();
-          break;
-        case PATH_PLANNER_DRIVE_BACKWARDS:
-          command =
-            new AutonomousFollowPathCommand(
-              this.autonomousSubsystem.buildPath(config.auto.driveBackwardsPath),
-              this.autonomousSubsystem,
-              this.drivetrainSubsystem,
-              this.rgbSubsystem
-            );
-          break;
-        case HARDCODED_SHOOT_DRIVE_BACK:
-          command =
-            new AutonomousCommand(
-              this.autonomousSubsystem,
-              this.drivetrainSubsystem,
-              this.intakeSubsystem,
-              this.shooterSubsystem,
-              this.rgbSubsystem
-            )
-              .shootPreload(true) //Shoot Preload
-              .executeAction((d, i, s) -> {
-                i.forceIntaking();
-                i.spinForward();
-                s.antiFeed(); // Run the feeder in reverse so that ball stays inside bms
-              })
-              .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(1.5, 0.0, 0)), 1) //Drive out of the tarmac
-              .executeAction((d, i, s) -> d.stop(), 2.0) //Drive out of the tarmac pt 2
-              .complete();
-          break;
-
-        case HARDCODED_SHOOT_DRIVE_BACK_AND_SHOOT_LOW:
-          drivetrainSubsystem.resetGyroWithOffset(Rotation2d.fromDegrees(-150));
-          command =
-                  new AutonomousCommand(
-                          this.autonomousSubsystem,
-                          this.drivetrainSubsystem,
-                          this.intakeSubsystem,
-                          this.shooterSubsystem,
-                          this.rgbSubsystem
-                  )
-                          .shootPreload(true) //Shoot Preload
-                          .executeAction((d, i, s) -> {
-                            i.forceIntaking();
-                            i.spinForward();
-                            s.antiFeed(); // Run the feeder in reverse so that ball stays inside bms
-                          })
-                          .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(1.5, 0.0, 0)), 1) //Drive out of the tarmac
-                          .executeAction((d, i, s) -> d.stop(), 2.0) //Drive out of the tarmac pt 2
-                          .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(-1.5, 0.0, 0)), 2) //Drive back to the hub
-                          .executeAction((d, i, s) -> d.stop(), 2.5) //Drive back to the hub pt 2
-                          .executeAction((d, i, s) -> d.stop(), .5) //Drive back to the hub pt 2
-                          .shootPreload(false)
-                          .complete();
-          break;
-        case HARDCODED_SHOOT_DRIVE_BACK_AND_SHOOT_HIGH:
-          drivetrainSubsystem.resetGyroWithOffset(Rotation2d.fromDegrees(-150));
-          command =
-            new AutonomousCommand(
-              this.autonomousSubsystem,
-              this.drivetrainSubsystem,
-              this.intakeSubsystem,
-              this.shooterSubsystem,
-              this.rgbSubsystem
-            )
-              .shootPreload(true) //Shoot Preload
-              .executeAction((d, i, s) -> {
-                i.forceIntaking();
-                i.spinForward();
-                s.antiFeed(); // Run the feeder in reverse so that ball stays inside bms
-              })
-              .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(1.5, 0.0, 0)), 1) //Drive out of the tarmac
-              .executeAction((d, i, s) -> d.stop(), 2.0) //Drive out of the tarmac pt 2
-              .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(-1.5, 0.0, 0)), 2) //Drive back to the hub
-              .executeAction((d, i, s) -> d.stop(), 2.5) //Drive back to the hub pt 2
-              .executeAction((d, i, s) -> d.stop(), .5) //Drive back to the hub pt 2
-              .shootPreload(true)
-              .complete();
-          break;
-        case PATH_PLANNER_SHOOT_AND_DRIVE_BACKWARDS:
-          command =
-           new AutonomousCommand(
-             this.autonomousSubsystem,
-             this.drivetrainSubsystem,
-             this.intakeSubsystem,
-             this.shooterSubsystem,
-             this.rgbSubsystem
-           )
-             .shootPreload(true)
-             .executeAction((d, i, s) -> i.spinForward())
-             .executeDrivePath("Drive Backwards Single Ball", 1)
-             .executeAction((d, i, s) -> i.stopSpin(), 2)
-             .complete();
-          break;
-        case PATH_PLANNER_SHOOT_INTAKE_TWO_BALLS:
-          command =
-           new AutonomousCommand(
-             this.autonomousSubsystem,
-             this.drivetrainSubsystem,
-             this.intakeSubsystem,
-             this.shooterSubsystem,
-             this.rgbSubsystem
-           )
-             .shootPreload(true)
-             .executeDrivePath("Drive Backwards Double Ball P1")
-             .executeAction((d, i, s) -> i.spinForward())
-             .executeDrivePath("Drive Backwards Double Ball P2", 2)
-             .executeAction((d, i, s) -> i.stopSpin(), 2)
-             .complete();
-          break;
-        case MAIN_NO_TERMINAL:
-          command =
-            new AutonomousCommand(
-              this.autonomousSubsystem,
-              this.drivetrainSubsystem,
-              this.intakeSubsystem,
-              this.shooterSubsystem,
-              this.rgbSubsystem
-            )
-              .shootPreload(true) //Shoot Preload
-              .executeDrivePath("Main P1") //Drive to the first ball
-              .executeAction((d, i, s) -> i.spinForward()) //Activate intake
-              .executeDrivePath("Main P2 Ball", 2.0) //Skip terminal, go straight to the second ball
-              .executeAction((d, i, s) -> i.spinBackward(), 2.0) //Turn off the intake after getting the ball
-              .executeDrivePath("Main P3") //Drive to the base of the hub
-              .executeAction((d, i, s) -> s.spinUpTop()) //Shoot - Spin up Top
-              .executeAction((d, i, s) -> {
-                s.turnOnFeeders(); //Activate feeders
-                i.ballManagementForward(); //Activate BMS in case a ball doesn't get pulled by the feeders
-              }, 2) //Wait 2 seconds for the shooter to spin up
-              .complete();
-          break;
-        case MAIN_WITH_TERMINAL:
-          command =
-            new AutonomousCommand(
-              this.autonomousSubsystem,
-              this.drivetrainSubsystem,
-              this.intakeSubsystem,
-              this.shooterSubsystem,
-              this.rgbSubsystem
-            )
-              .shootPreload(true) //Shoot Preload
-              .executeDrivePath("Main P1") //Drive to the first ball
-              .executeAction((d, i, s) -> i.spinForward()) //Activate intake
-              .executeDrivePath("Main P2 Terminal", 2.0) //Head to the Terminal ball and push it in
-              .executeDrivePath("Main P2.5 Terminal") //Head to the second ball
-              .executeAction((d, i, s) -> i.spinBackward(), 2.0) //Turn off the intake after getting the ball
-              .executeDrivePath("Main P3") //Drive to the base of the hub
-              .executeAction((d, i, s) -> s.spinUpTop()) //Shoot - Spin up Top
-              .executeAction((d, i, s) -> {
-                s.turnOnFeeders(); //Activate feeders
-                i.ballManagementForward(); //Activate BMS in case a ball doesn't get pulled by the feeders
-              }, 2) //Wait 2 seconds for the shooter to spin up
-              .complete();
-          break;
-        default:
-          info.log(
-            LogLevel.CRITICAL,
-            "Invalid Autonomous Path! (SendableChooser Output: " + this.autonomousPathChooser.getSelected() + ")"
-          );
+      // built while disabled unless the path changed since the last disabled loop
+      boolean prebuilt = !prepareAutonomousCommand();
+      Command command = this.preparedAutonomousCommand;
+      // a routine only runs once, build the next one on the next disable
+      this.preparedAutonomousPath = null;
+      this.preparedAutonomousCommand = null;
 
-          return;
-      }
+      if (command == null) return;
 
+      this.autonomousCommand = command;
       command.schedule();
+
+      this.autonomousInitMillis.log(LogLevel.GENERAL, (System.nanoTime() - start) / 1e6);
+      this.autonomousPrebuilt.log(LogLevel.GENERAL, prebuilt);
     }
   }
 
+  /**
+   * Build the routine for the selected path if it isn't built yet. Called every disabled loop, so
+   * it's rebuilt when the chooser changes and autonomousInit only has to schedule it.
+   *
+   * @return whether it had to be built
+   */
+  private boolean prepareAutonomousCommand() {
+    if (!config.enableDriveSubsystem || !config.enableAutonomousSubsystem) return false;
+
+    AutonomousPath path = this.autonomousPathOverride != null ? this.autonomousPathOverride : this.autonomousPathChooser.getSelected();
+    if (path == this.preparedAutonomousPath) return false;
+
+    long start = System.nanoTime();
+    this.preparedAutonomousCommand = buildAutonomousCommand(path);
+    this.preparedAutonomousPath = path;
+    this.autonomousBuildMillis.log(LogLevel.GENERAL, (System.nanoTime() - start) / 1e6);
+    return true;
+  }
+
+  /**
+   * @return the routine for a path, null if the path is invalid
+   */
+  private Command buildAutonomousCommand(AutonomousPath path) {
+    Command command;
+    switch (path) {
+      case NOTHING:
+        command =
+          new AutonomousFollowPathCommand(
+            this.autonomousSubsystem.buildPath(config.auto.nothingPath),
+            this.autonomousSubsystem,
+            this.drivetrainSubsystem,
+            this.rgbSubsystem
+          );
+        break;
+      case TEST_PATH_1M_FORWARD:
+        command = new AutonomousCommand(autonomousSubsystem, drivetrainSubsystem, intakeSubsystem, shooterSubsystem, rgbSubsystem)
+                .executeDrivePath("Test Path (1m Forward)")
+                .complete();
+        break;
+      case TEST_PATH_1M_FORWARD_1M_UP:
+        command = new AutonomousCommand(autonomousSubsystem, drivetrainSubsystem, intakeSubsystem, shooterSubsystem, rgbSubsystem)
+                .executeDrivePath("Test Path (1m Forward, 1m Up)")
+                .complete();
+        break;
+      case PATH_PLANNER_DRIVE_BACKWARDS:
+        command =
+          new AutonomousFollowPathCommand(
+            this.autonomousSubsystem.buildPath(config.auto.driveBackwardsPath),
+            this.autonomousSubsystem,
+            this.drivetrainSubsystem,
+            this.rgbSubsystem
+          );
+        break;
+      case HARDCODED_SHOOT_DRIVE_BACK:
+        command =
+          new AutonomousCommand(
+            this.autonomousSubsystem,
+            this.drivetrainSubsystem,
+            this.intakeSubsystem,
+            this.shooterSubsystem,
+            this.rgbSubsystem
+          )
+            .shootPreload(true) //Shoot Preload
+            .executeAction((d, i, s) -> {
+              i.forceIntaking();
+              i.spinForward();
+              s.antiFeed(); // Run the feeder in reverse so that ball stays inside bms
+            })
+            .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(1.5, 0.0, 0)), 1) //Drive out of the tarmac
+            .executeAction((d, i, s) -> d.stop(), 2.0) //Drive out of the tarmac pt 2
+            .complete();
+        break;
+
+      case HARDCODED_SHOOT_DRIVE_BACK_AND_SHOOT_LOW:
+        command =
+                new AutonomousCommand(
+                        this.autonomousSubsystem,
+                        this.drivetrainSubsystem,
+                        this.intakeSubsystem,
+                        this.shooterSubsystem,
+                        this.rgbSubsystem
+                )
+                        .withInitialHeading(Rotation2d.fromDegrees(config.auto.hardcodedStartHeading_degrees))
+                        .shootPreload(true) //Shoot Preload
+                        .executeAction((d, i, s) -> {
+                          i.forceIntaking();
+                          i.spinForward();
+                          s.antiFeed(); // Run the feeder in reverse so that ball stays inside bms
+                        })
+                        .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(1.5, 0.0, 0)), 1) //Drive out of the tarmac
+                        .executeAction((d, i, s) -> d.stop(), 2.0) //Drive out of the tarmac pt 2
+                        .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(-1.5, 0.0, 0)), 2) //Drive back to the hub
+                        .executeAction((d, i, s) -> d.stop(), 2.5) //Drive back to the hub pt 2
+                        .executeAction((d, i, s) -> d.stop(), .5) //Drive back to the hub pt 2
+                        .shootPreload(false)
+                        .complete();
+        break;
+      case HARDCODED_SHOOT_DRIVE_BACK_AND_SHOOT_HIGH:
+        command =
+          new AutonomousCommand(
+            this.autonomousSubsystem,
+            this.drivetrainSubsystem,
+            this.intakeSubsystem,
+            this.shooterSubsystem,
+            this.rgbSubsystem
+          )
+            .withInitialHeading(Rotation2d.fromDegrees(config.auto.hardcodedStartHeading_degrees))
+            .shootPreload(true) //Shoot Preload
+            .executeAction((d, i, s) -> {
+              i.forceIntaking();
+              i.spinForward();
+              s.antiFeed(); // Run the feeder in reverse so that ball stays inside bms
+            })
+            .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(1.5, 0.0, 0)), 1) //Drive out of the tarmac
+            .executeAction((d, i, s) -> d.stop(), 2.0) //Drive out of the tarmac pt 2
+            .executeAction((d, i, s) -> d.drive(new ChassisSpeeds(-1.5, 0.0, 0)), 2) //Drive back to the hub
+            .executeAction((d, i, s) -> d.stop(), 2.5) //Drive back to the hub pt 2
+            .executeAction((d, i, s) -> d.stop(), .5) //Drive back to the hub pt 2
+            .shootPreload(true)
+            .complete();
+        break;
+      case PATH_PLANNER_SHOOT_AND_DRIVE_BACKWARDS:
+        command =
+         new AutonomousCommand(
+           this.autonomousSubsystem,
+           this.drivetrainSubsystem,
+           this.intakeSubsystem,
+           this.shooterSubsystem,
+           this.rgbSubsystem
+         )
+           .shootPreload(true)
+           .executeAction((d, i, s) -> i.spinForward())
+           .executeDrivePath("Drive Backwards Single Ball", 1)
+           .executeAction((d, i, s) -> i.stopSpin(), 2)
+           .complete();
+        break;
+      case PATH_PLANNER_SHOOT_INTAKE_TWO_BALLS:
+        command =
+         new AutonomousCommand(
+           this.autonomousSubsystem,
+           this.drivetrainSubsystem,
+           this.intakeSubsystem,
+           this.shooterSubsystem,
+           this.rgbSubsystem
+         )
+           .shootPreload(true)
+           .executeDrivePath("Drive Backwards Double Ball P1")
+           .executeAction((d, i, s) -> i.spinForward())
+           .executeDrivePath("Drive Backwards Double Ball P2", 2)
+           .executeAction((d, i, s) -> i.stopSpin(), 2)
+           .complete();
+        break;
+      case MAIN_NO_TERMINAL:
+        command =
+          new AutonomousCommand(
+            this.autonomousSubsystem,
+            this.drivetrainSubsystem,
+            this.intakeSubsystem,
+            this.shooterSubsystem,
+            this.rgbSubsystem
+          )
+            .shootPreload(true) //Shoot Preload
+            .executeDrivePath("Main P1") //Drive to the first ball
+            .executeAction((d, i, s) -> i.spinForward()) //Activate intake
+            .executeDrivePath("Main P2 Ball", 2.0) //Skip terminal, go straight to the second ball
+            .executeAction((d, i, s) -> i.spinBackward(), 2.0) //Turn off the intake after getting the ball
+            .executeDrivePath("Main P3") //Drive to the base of the hub
+            .executeAction((d, i, s) -> s.spinUpTop()) //Shoot - Spin up Top
+            .executeAction((d, i, s) -> {
+              s.turnOnFeeders(); //Activate feeders
+              i.ballManagementForward(); //Activate BMS in case a ball doesn't get pulled by the feeders
+            }, 2) //Wait 2 seconds for the shooter to spin up
+            .complete();
+        break;
+      case MAIN_WITH_TERMINAL:
+        command =
+          new AutonomousCommand(
+            this.autonomousSubsystem,
+            this.drivetrainSubsystem,
+            this.intakeSubsystem,
+            this.shooterSubsystem,
+            this.rgbSubsystem
+          )
+            .shootPreload(true) //Shoot Preload
+            .executeDrivePath("Main P1") //Drive to the first ball
+            .executeAction((d, i, s) -> i.spinForward()) //Activate intake
+            .executeDrivePath("Main P2 Terminal", 2.0) //Head to the Terminal ball and push it in
+            .executeDrivePath("Main P2.5 Terminal") //Head to the second ball
+            .executeAction((d, i, s) -> i.spinBackward(), 2.0) //Turn off the intake after getting the ball
+            .executeDrivePath("Main P3") //Drive to the base of the hub
+            .executeAction((d, i, s) -> s.spinUpTop()) //Shoot - Spin up Top
+            .executeAction((d, i, s) -> {
+              s.turnOnFeeders(); //Activate feeders
+              i.ballManagementForward(); //Activate BMS in case a ball doesn't get pulled by the feeders
+            }, 2) //Wait 2 seconds for the shooter to spin up
+            .complete();
+        break;
+      default:
+        info.log(
+          LogLevel.CRITICAL,
+          "Invalid Autonomous Path! (SendableChooser Output: " + this.autonomousPathChooser.getSelected() + ")"
+        );
+
+        return null;
+    }
+
+    return command;
+  }
+
+  /**
+   * Run this path in the next autonomous instead of the one picked on the dashboard.
+   *
+   * @param path the path, null to go back to the chooser
+   */
+  public void setAutonomousPath(AutonomousPath path) {
+    this.autonomousPathOverride = path;
+  }
+
+  /**
+   * @return the command started by the last autonomousInit, null before the first one
+   */
+  public Command getAutonomousCommand() {
+    return this.autonomousCommand;
+  }
+
+  /**
+   * @return the drivetrain, null if it is disabled in the config
+   */
+  public DrivetrainSubsystem getDrivetrainSubsystem() {
+    return this.drivetrainSubsystem;
+  }
+
   /** This function is called periodically during autonomous. */
   @Override
   public void autonomousPeriodic() {
@@ -384,11 +576,19 @@ public class Robot extends TimedRobot {
   @Override
   public void disabledInit() {
     this.robotSubsystems.forEach(BitBucketsSubsystem::disable);
+
+    if (stackSampler != null) {
+      stackSampler.dump();
+      BucketLog.flush();
+    }
+    BucketLog.syncRecording();
   }
 
   /** This function is called periodically when disabled. */
   @Override
-  public void disabledPeriodic() {}
+  public void disabledPeriodic() {
+    prepareAutonomousCommand();
+  }
 
   /** This function is called once when test mode is enabled. */
   @Override
@@ -400,7 +600,7 @@ public class Robot extends TimedRobot {
 
   @Override
   public void simulationPeriodic() {
-    CTREPhysicsSim.getInstance().run();
+    SimulationWorld.getInstance().update();
   }
 
   /**
@@ -1,6 +1,6 @@
 package frc.robot.commands;
 
-import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -12,6 +12,8 @@ import frc.robot.log.LogLevel;
 import frc.robot.log.Loggable;
 import frc.robot.log.Put;
 import frc.robot.subsystem.*;
+import frc.robot.utils.DashboardKey;
+import frc.robot.utils.PathTrajectory;
 
 import java.util.Optional;
 
@@ -23,9 +25,12 @@ public class AutonomousCommand extends SequentialCommandGroup
     private ShooterSubsystem shooter;
     private RGBSubsystem rgb;
 
-    private final Loggable<String> state = BucketLog.loggable(Put.STRING, "auto/commandState");
+    private final Loggable<String> state = BucketLog.loggable(DashboardKey.AUTO_STATE, Put.STRING, "auto/commandState");
 
     private Optional<Pose2d> initialPosition;
+    private Optional<Pose2d> finalPosition;
+    // gyro heading the routine starts at, overrides the one of the first path
+    private Optional<Rotation2d> initialHeading;
 
     public AutonomousCommand(AutonomousSubsystem auto, DrivetrainSubsystem drive, IntakeSubsystem intake, ShooterSubsystem shooter, RGBSubsystem rgb)
     {
@@ -36,6 +41,18 @@ public class AutonomousCommand extends SequentialCommandGroup
         this.rgb = rgb;
 
         this.initialPosition = Optional.empty();
+        this.finalPosition = Optional.empty();
+        this.initialHeading = Optional.empty();
+    }
+
+    /**
+     * Reset the gyro to this heading when the routine starts, e.g. for routines without paths
+     * that start at an angle to the field.
+     */
+    public AutonomousCommand withInitialHeading(Rotation2d heading)
+    {
+        this.initialHeading = Optional.of(heading);
+        return this;
     }
 
     public AutonomousCommand shootPreload(boolean top)
@@ -58,20 +75,22 @@ public class AutonomousCommand extends SequentialCommandGroup
 
     public AutonomousCommand executeDrivePath(String pathPlanner)
     {
-        PathPlannerTrajectory t = this.auto.buildPath(pathPlanner);
+        PathTrajectory t = this.auto.buildPath(pathPlanner);
         this.addCommands(new AutonomousFollowPathCommand(t, this.auto, this.drive, this.rgb));
 
         if(this.initialPosition.isEmpty()) this.setInitialPosition(t);
+        this.finalPosition = Optional.of(AutonomousFollowPathCommand.endPose(t));
         return this;
     }
 
     public AutonomousCommand executeDrivePath(String pathPlanner, double delayBeforeStart)
     {
-        PathPlannerTrajectory t = this.auto.buildPath(pathPlanner);
+        PathTrajectory t = this.auto.buildPath(pathPlanner);
         this.addCommands(new WaitCommand(delayBeforeStart)
                 .andThen(new AutonomousFollowPathCommand(t, this.auto, this.drive, this.rgb)));
 
         if(this.initialPosition.isEmpty()) this.setInitialPosition(t);
+        this.finalPosition = Optional.of(AutonomousFollowPathCommand.endPose(t));
         return this;
     }
 
@@ -88,9 +107,9 @@ public class AutonomousCommand extends SequentialCommandGroup
         return this;
     }
 
-    private void setInitialPosition(PathPlannerTrajectory trajectory)
+    private void setInitialPosition(PathTrajectory trajectory)
     {
-        PathPlannerTrajectory.PathPlannerState state = trajectory.getInitialState();
+        PathPlannerState state = trajectory.getInitialState();
 
         this.initialPosition = Optional.of(new Pose2d(
                 state.poseMeters.getTranslation(),
@@ -98,6 +117,14 @@ public class AutonomousCommand extends SequentialCommandGroup
         ));
     }
 
+    /**
+     * @return where the last drive path ends, empty if the routine doesn't follow any paths
+     */
+    public Optional<Pose2d> getFinalPosition()
+    {
+        return this.finalPosition;
+    }
+
     public AutonomousCommand complete()
     {
         this.addCommands(this.actionToCommand((d, i, s) -> {
@@ -106,13 +133,22 @@ public class AutonomousCommand extends SequentialCommandGroup
             s.disable();
         }));
 
+        return this;
+    }
+
+    /**
+     * Routines are built ahead of time while disabled, so the odometry is only set once this one starts.
+     */
+    @Override
+    public void initialize()
+    {
         //Set Odometry
         Pose2d zeroPos = new Pose2d(0, 0, new Rotation2d(0));
-        SmartDashboard.putString("/drivetrain/initial_path_position", this.initialPosition.get().toString());
-        this.drive.resetGyroWithOffset(this.initialPosition.orElse(zeroPos).getRotation());
+        SmartDashboard.putString("/drivetrain/initial_path_position", this.initialPosition.orElse(zeroPos).toString());
+        this.drive.resetGyroWithOffset(this.initialHeading.orElse(this.initialPosition.orElse(zeroPos).getRotation()));
         this.drive.setOdometry(this.initialPosition.orElse(zeroPos));
 
-        return this;
+        super.initialize();
     }
 
     private InstantCommand actionToCommand(SubsystemAction action)
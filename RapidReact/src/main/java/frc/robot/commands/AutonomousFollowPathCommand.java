@@ -1,6 +1,7 @@
 package frc.robot.commands;
 
-import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.controller.ProfiledPIDController;
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
@@ -14,20 +15,22 @@ import frc.robot.log.Put;
 import frc.robot.subsystem.AutonomousSubsystem;
 import frc.robot.subsystem.DrivetrainSubsystem;
 import frc.robot.subsystem.RGBSubsystem;
+import frc.robot.utils.DashboardKey;
+import frc.robot.utils.PathTrajectory;
 
 public class AutonomousFollowPathCommand extends SequentialCommandGroup
 {
-    private final PathPlannerTrajectory trajectory;
+    private final PathTrajectory trajectory;
     private AutonomousSubsystem auto;
     private DrivetrainSubsystem drive;
     private RGBSubsystem rgb;
     private Config.AutonomousConfig autoConfig;
 
-    private final Loggable<String> state = BucketLog.loggable(Put.STRING, "auto/followPathState");
+    private final Loggable<String> state = BucketLog.loggable(DashboardKey.AUTO_STATE, Put.STRING, "auto/followPathState");
 
-    public AutonomousFollowPathCommand(PathPlannerTrajectory trajectory, AutonomousSubsystem auto, DrivetrainSubsystem drive, RGBSubsystem rgb)
+    public AutonomousFollowPathCommand(PathTrajectory trajectory, AutonomousSubsystem auto, DrivetrainSubsystem drive, RGBSubsystem rgb)
     {
-        this.autoConfig = new Config().auto;
+        this.autoConfig = auto.getConfig().auto;
 
         this.trajectory = trajectory;
         this.auto = auto;
@@ -37,6 +40,20 @@ public class AutonomousFollowPathCommand extends SequentialCommandGroup
         this.addCommands(this.setup(), this.createTrajectoryFollowerCommand(), this.setDown());
     }
 
+    public PathTrajectory getTrajectory()
+    {
+        return this.trajectory;
+    }
+
+    /**
+     * Where the robot should be at the end of a trajectory, facing its holonomic rotation.
+     */
+    public static Pose2d endPose(PathTrajectory trajectory)
+    {
+        PathPlannerState state = trajectory.getEndState();
+        return new Pose2d(state.poseMeters.getTranslation(), state.holonomicRotation);
+    }
+
     private CustomPPSwerveControllerCommand createTrajectoryFollowerCommand()
     {
         PIDController xController = new PIDController(this.autoConfig.pathXYPID.getKP(), this.autoConfig.pathXYPID.getKI(), this.autoConfig.pathXYPID.getKD());
@@ -1,6 +1,6 @@
 package frc.robot.commands;
 
-import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
 import edu.wpi.first.math.controller.HolonomicDriveController;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.controller.ProfiledPIDController;
@@ -11,6 +11,7 @@ import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.utils.PathTrajectory;
 
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -18,11 +19,13 @@ import java.util.function.Supplier;
 public class CustomPPSwerveControllerCommand extends CommandBase
 {
     private final Timer m_timer = new Timer();
-    private final PathPlannerTrajectory m_trajectory;
+    private final PathTrajectory m_trajectory;
     private final Supplier<Pose2d> m_pose;
     private final SwerveDriveKinematics m_kinematics;
     private final HolonomicDriveController m_controller;
     private final Consumer<SwerveModuleState[]> m_outputModuleStates;
+    // sampled into every loop
+    private final PathPlannerState m_desiredState = new PathPlannerState();
 
     /**
      * Constructs a new PPSwerveControllerCommand that when executed will follow the
@@ -54,7 +57,7 @@ public class CustomPPSwerveControllerCommand extends CommandBase
      */
     @SuppressWarnings("ParameterName")
     public CustomPPSwerveControllerCommand(
-            PathPlannerTrajectory trajectory,
+            PathTrajectory trajectory,
             Supplier<Pose2d> pose,
             SwerveDriveKinematics kinematics,
             PIDController xController,
@@ -86,10 +89,9 @@ public class CustomPPSwerveControllerCommand extends CommandBase
     @SuppressWarnings("LocalVariableName")
     public void execute() {
         double curTime = m_timer.get();
-        var desiredState = (PathPlannerTrajectory.PathPlannerState) m_trajectory.sample(curTime);
+        var desiredState = m_trajectory.sample(curTime, m_desiredState);
 
-        var targetChassisSpeeds = m_controller.calculate(m_pose.get(), desiredState, desiredState.holonomicRotation);
-        var targetModuleStates = m_kinematics.toSwerveModuleStates(targetChassisSpeeds);
+        var targetModuleStates = calculate(desiredState);
 
         SmartDashboard.putString("/drivetrain/desiredState", desiredState.toString());
         System.out.println("Desired State: " + desiredState.toString());
@@ -101,6 +103,21 @@ public class CustomPPSwerveControllerCommand extends CommandBase
         m_outputModuleStates.accept(targetModuleStates);
     }
 
+    /**
+     * Module states that follow the trajectory at a time, without running the command or
+     * publishing anything. For simulations that keep their own time.
+     *
+     * @param timeSeconds time since the start of the trajectory
+     */
+    public SwerveModuleState[] calculate(double timeSeconds) {
+        return calculate(m_trajectory.sample(timeSeconds, m_desiredState));
+    }
+
+    private SwerveModuleState[] calculate(PathPlannerState desiredState) {
+        var targetChassisSpeeds = m_controller.calculate(m_pose.get(), desiredState, desiredState.holonomicRotation);
+        return m_kinematics.toSwerveModuleStates(targetChassisSpeeds);
+    }
+
     @Override
     public void end(boolean interrupted) {
         m_timer.stop();
@@ -1,7 +1,6 @@
 package frc.robot.commands;
 
 import edu.wpi.first.math.filter.SlewRateLimiter;
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandBase;
@@ -10,12 +9,13 @@ import frc.robot.log.LogLevel;
 import frc.robot.log.Loggable;
 import frc.robot.log.Put;
 import frc.robot.subsystem.DrivetrainSubsystem;
+import frc.robot.utils.DashboardKey;
 import java.util.function.DoubleSupplier;
 
 public class DefaultDriveCommand extends CommandBase {
 
   private static final SendableChooser<String> orientationChooser = new SendableChooser<>();
-  private final Loggable<String> xWheelLoggable = BucketLog.loggable(Put.STRING, "drivetrain/xWheel");
+  private final Loggable<String> xWheelLoggable = BucketLog.loggable(DashboardKey.DRIVE_INPUT, Put.STRING, "drivetrain/xWheel");
 
   private final DrivetrainSubsystem driveSubsystem;
 
@@ -45,7 +45,7 @@ public class DefaultDriveCommand extends CommandBase {
 
   @Override
   public void execute() {
-    // You can use `new ChassisSpeeds(...)` for robot-oriented movement instead of field-oriented movement
+    // Runs every teleop loop, so nothing in here allocates
 
     double xOutput = limiterX.calculate(translationXSupplier.getAsDouble()) * driveSubsystem.getMaxVelocity();
     double yOutput = limiterY.calculate(translationYSupplier.getAsDouble()) * driveSubsystem.getMaxVelocity();
@@ -57,9 +57,7 @@ public class DefaultDriveCommand extends CommandBase {
           driveSubsystem.stopSticky();
           xWheelLoggable.log(LogLevel.DEBUG, "xWheel active.");
         } else {
-          driveSubsystem.drive(
-            ChassisSpeeds.fromFieldRelativeSpeeds(xOutput, yOutput, rotationOutput, driveSubsystem.getGyroAngle())
-          );
+          driveSubsystem.driveFieldRelative(xOutput, yOutput, rotationOutput);
           xWheelLoggable.log(LogLevel.DEBUG, "xWheel inactive.");
         }
         break;
@@ -68,9 +66,8 @@ public class DefaultDriveCommand extends CommandBase {
           driveSubsystem.stopSticky();
           xWheelLoggable.log(LogLevel.DEBUG, "xWheel active.");
         } else {
-          ChassisSpeeds robotOrient = new ChassisSpeeds(xOutput, yOutput, rotationOutput);
           xWheelLoggable.log(LogLevel.DEBUG, "xWheel inactive.");
-          driveSubsystem.drive(robotOrient);
+          driveSubsystem.drive(xOutput, yOutput, rotationOutput);
         }
         break;
     }
@@ -78,6 +75,6 @@ public class DefaultDriveCommand extends CommandBase {
 
   @Override
   public void end(boolean interrupted) {
-    driveSubsystem.drive(new ChassisSpeeds(0.0, 0.0, 0.0));
+    driveSubsystem.stop();
   }
 }
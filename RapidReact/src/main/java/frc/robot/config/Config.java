@@ -2,6 +2,10 @@ package frc.robot.config;
 
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import frc.robot.config.MotorConfig.EncoderType;
+import frc.robot.log.LogLevel;
+import frc.robot.log.OverflowPolicy;
+import frc.robot.log.TelemetryProfile;
+import frc.robot.utils.DashboardConfig;
 
 public class Config {
 
@@ -29,6 +33,10 @@ public class Config {
   // General Stuff
   public int maxVoltage = 12;
 
+  // Simulation, see SimulationWorld
+  public double simulationStepSeconds = 0.02; // every model advances by this, in sub-steps if it asks for them
+  public int simulationMaxStepsPerLoop = 5; // a loop further behind than this drops the time instead of catching up
+
   // Motor & Pneumatic IDs
 
   // Autonomous Subsystem
@@ -84,6 +92,50 @@ public class Config {
   public ShooterConfig shooter = new ShooterConfig();
   public VisionConfig vision = new VisionConfig();
   public ClimberConfig climber = new ClimberConfig();
+  public LogConfig log = new LogConfig();
+
+  // Log Config
+  public class LogConfig {
+
+    // Binary recording of every published value, see LogRecorder.
+    // A record is ~19 bytes, so ~60 keys at 50 Hz for a 150 s match is ~8.6 MB.
+    // The whole ring is recorderSegmentBytes * recorderSegmentCount = 32 MB, about three matches.
+    public boolean enableRecorder = true;
+    // Simulations, tests and parallel evaluation workers would all write the same 32 MB of files
+    public boolean recordInSimulation = false;
+    public int recorderSegmentBytes = 4 * 1024 * 1024;
+    public int recorderSegmentCount = 8;
+    public int recorderBlockBytes = 64 * 1024;
+
+    // The USB stick on the roboRIO, falls back to the deploy user's home directory
+    public String recorderUsbDirectory = "/u/bucketlog";
+    public String recorderFallbackDirectory = "bucketlog";
+
+    // Dashboard publish rates, see DashboardKey for the rate of every group in every profile.
+    // Use DEBUG in the pits, COMPETITION keeps the field network traffic down.
+    public TelemetryProfile telemetryProfile = TelemetryProfile.COMPETITION;
+    public DashboardConfig dashboardConfig = new DashboardConfig();
+
+    // Lowest level logged at startup, change it at runtime with log/baseLevel in the dashboard,
+    // or per subsystem with log/levels/<subsystem>
+    public LogLevel logLevel = LogLevel.GENERAL;
+
+    // What to lose when loggers outrun the publishing thread, counters are under log/ring/
+    public OverflowPolicy overflowPolicy = OverflowPolicy.DROP_BY_PRIORITY;
+    public boolean publishRingStats = true;
+
+    // Samples the robot thread's stack while a loop runs over 20 ms, the call tree is logged
+    // under profiling/stalls when the robot is disabled. Frames under stackSamplerMinPercent
+    // of the samples are left out.
+    public boolean enableStackSampler = true;
+    public int stackSamplerPeriodMs = 2;
+    public double stackSamplerMinPercent = 2;
+
+    // Heap, per loop allocation and GC pause telemetry under jvm/
+    public boolean enableJvmMetrics = true;
+
+    public LogConfig() {}
+  }
 
   // Autonomous Config
   public class AutonomousConfig {
@@ -95,6 +147,12 @@ public class Config {
     public double maxPathFollowVelocity = 1;
     public double maxPathFollowAcceleration = 1;
 
+    // gyro heading the hardcoded shoot and drive back routines start at, facing the hub
+    public double hardcodedStartHeading_degrees = -150;
+
+    public boolean preloadPaths = true; // load every path at robotInit so autonomousInit doesn't touch files
+    public int pathPreloadThreads = 2; // the roboRIO has two cores
+
     public PID pathXYPID = new PID(2.2956, 0, 0);
     public PID pathThetaPID = new PID(3, 0, 0.02);
     public TrapezoidProfile.Constraints pathTrapezoidProfileConstraints = new TrapezoidProfile.Constraints(this.maxPathFollowVelocity, this.maxPathFollowAcceleration);
@@ -134,6 +192,18 @@ public class Config {
 
     public double backRightModuleSteerOffset = -Math.toRadians(70.66+180); // set back right steer offset
 
+    // Drive motor feed forward from characterization, volts per m/s and m/s^2
+    public double driveKS = 0.12817;
+    public double driveKV = 2.3423;
+    public double driveKA = 0.53114;
+
+    // Simulated drivetrain
+    public double simStepSeconds = 0.001; // physics sub-step, the steering loop needs a few per robot loop
+    public double simSteerKP = 10; // volts per radian of steering error
+    public double simSteerMOI = 0.004; // kg m^2 the steer motor turns
+    public double simTreadStaticFriction = 1.1;
+    public double simTreadKineticFriction = 0.8;
+
     public DriveConfig() {}
   }
 
@@ -0,0 +1,17 @@
+package frc.robot.log;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A {@link Changeable} for booleans, read it with {@link #getAsBoolean()} to avoid boxing.
+ *
+ * dashboard -> code
+ */
+public interface BooleanChangeable extends Changeable<Boolean>, BooleanSupplier {
+
+    @Override
+    default Boolean currentValue() {
+        return getAsBoolean();
+    }
+
+}
@@ -0,0 +1,29 @@
+package frc.robot.log;
+
+/**
+ * A {@link Loggable} for booleans that never boxes on the primitive methods.
+ *
+ * code -> dashboard
+ */
+public interface BooleanLoggable extends Loggable<Boolean> {
+
+    void log(boolean value);
+    void log(LogLevel level, boolean value);
+
+    @Override
+    BooleanLoggable onChange();
+
+    @Override
+    BooleanLoggable heartbeat(double seconds);
+
+    @Override
+    default void log(Boolean object) {
+        log(object.booleanValue());
+    }
+
+    @Override
+    default void log(LogLevel level, Boolean object) {
+        log(level, object.booleanValue());
+    }
+
+}
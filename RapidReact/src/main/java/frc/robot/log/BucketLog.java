@@ -1,19 +1,65 @@
 package frc.robot.log;
 
 import edu.wpi.first.networktables.EntryListenerFlags;
+import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.log.impl.CoalescingPublisher;
+import frc.robot.log.impl.DefaultBooleanChangeable;
+import frc.robot.log.impl.DefaultBooleanLoggable;
 import frc.robot.log.impl.DefaultChangeable;
+import frc.robot.log.impl.DefaultDoubleChangeable;
+import frc.robot.log.impl.DefaultDoubleLoggable;
 import frc.robot.log.impl.DefaultLoggable;
+import frc.robot.log.impl.LevelFilter;
+import frc.robot.log.impl.SampleRing;
+import frc.robot.log.recorder.LogRecorder;
+import frc.robot.utils.DashboardConfig;
+import frc.robot.utils.DashboardKey;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class BucketLog {
 
-    private final static LogLevel baseLogLevel = LogLevel.DEBUG;
-    private final static LogLevel defaultLogLevel = LogLevel.DEBUG;
+    // level of loggables made without one, published at the GENERAL base level the robot starts with
+    final static LogLevel defaultLogLevel = LogLevel.GENERAL;
 
-    private final static Executor executor = Executors.newSingleThreadExecutor();
+    // changeable from the dashboard, see setLogLevel
+    private final static String levelPath = "log/baseLevel";
+    private final static String subsystemLevelPath = "log/levels/";
+    private final static LevelFilter baseLogLevel = listen(levelPath, new LevelFilter(LogLevel.DEBUG), LogLevel.DEBUG.name());
+    private final static Map<String, LevelFilter> subsystemLogLevels = new ConcurrentHashMap<>();
+
+    // samples queued between two flushes, about 60 keys are logged per loop
+    private final static int ringCapacity = 4096;
+
+    // one publishing thread with a small preallocated queue, flushes are coalesced so it only ever
+    // holds one flush plus the occasional recorder task. A full queue rejects the task, the
+    // publisher then queues its flush again on the next call
+    private final static Executor executor = new ThreadPoolExecutor(
+            1, 1,
+            0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16),
+            runnable -> {
+                Thread thread = new Thread(runnable, "BucketLog");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+    );
+    private final static CoalescingPublisher publisher = new CoalescingPublisher(
+            executor,
+            RobotController::getFPGATime,
+            new SampleRing(ringCapacity, OverflowPolicy.DROP_BY_PRIORITY)
+    );
+    private final static TelemetryRegistry telemetry = new TelemetryRegistry();
 
     /**
      * Make a loggable
@@ -23,7 +69,7 @@ public class BucketLog {
      * @return a new loggable
      */
     public static <T> Loggable<T> loggable(Put<T> put, String path) {
-        return loggable(defaultLogLevel, put, path);
+        return loggable(DashboardKey.GENERAL, defaultLogLevel, put, path);
     }
 
     /**
@@ -35,7 +81,243 @@ public class BucketLog {
      * @return a new loggable
      */
     public static <T> Loggable<T> loggable(LogLevel level, Put<T> put, String path) {
-        return new DefaultLoggable<>(executor, path, put, level, baseLogLevel);
+        return loggable(DashboardKey.GENERAL, level, put, path);
+    }
+
+    /**
+     * Make a loggable that is published at the rate of a DashboardKey
+     * @param key the group of the data
+     * @param put type of data to put
+     * @param path the path of the data
+     * @param <T> type
+     * @return a new loggable
+     */
+    public static <T> Loggable<T> loggable(DashboardKey key, Put<T> put, String path) {
+        return loggable(key, defaultLogLevel, put, path);
+    }
+
+    /**
+     * Make a loggable with default level that is published at the rate of a DashboardKey.
+     * Doubles and booleans are backed by the unboxed {@link DoubleLoggable} and
+     * {@link BooleanLoggable}.
+     *
+     * @param key the group of the data
+     * @param level the default level
+     * @param put the data to put
+     * @param path the path of the data
+     * @param <T> type
+     * @return a new loggable
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Loggable<T> loggable(DashboardKey key, LogLevel level, Put<T> put, String path) {
+        if (put == Put.DOUBLE) return (Loggable<T>) doubleLoggable(key, level, path);
+        if (put == Put.BOOL) return (Loggable<T>) booleanLoggable(key, level, path);
+
+        CoalescingPublisher.ObjectSlot<T> slot = publisher.slot(path, put);
+        telemetry.register(key, slot);
+
+        return new DefaultLoggable<>(slot, level, levelFilter(path));
+    }
+
+    /**
+     * Make a loggable for doubles that does not box
+     * @param path the path of the data
+     * @return a new loggable
+     */
+    public static DoubleLoggable doubleLoggable(String path) {
+        return doubleLoggable(DashboardKey.GENERAL, defaultLogLevel, path);
+    }
+
+    /**
+     * Make a loggable for doubles that does not box, with default level
+     * @param level the default level
+     * @param path the path of the data
+     * @return a new loggable
+     */
+    public static DoubleLoggable doubleLoggable(LogLevel level, String path) {
+        return doubleLoggable(DashboardKey.GENERAL, level, path);
+    }
+
+    /**
+     * Make a loggable for doubles that does not box, published at the rate of a DashboardKey
+     * @param key the group of the data
+     * @param path the path of the data
+     * @return a new loggable
+     */
+    public static DoubleLoggable doubleLoggable(DashboardKey key, String path) {
+        return doubleLoggable(key, defaultLogLevel, path);
+    }
+
+    /**
+     * Make a loggable for doubles that does not box, with default level, published at the rate
+     * of a DashboardKey
+     * @param key the group of the data
+     * @param level the default level
+     * @param path the path of the data
+     * @return a new loggable
+     */
+    public static DoubleLoggable doubleLoggable(DashboardKey key, LogLevel level, String path) {
+        CoalescingPublisher.DoubleSlot slot = publisher.doubleSlot(path);
+        telemetry.register(key, slot);
+
+        return new DefaultDoubleLoggable(slot, level, levelFilter(path));
+    }
+
+    /**
+     * Make a loggable for booleans that does not box
+     * @param path the path of the data
+     * @return a new loggable
+     */
+    public static BooleanLoggable booleanLoggable(String path) {
+        return booleanLoggable(DashboardKey.GENERAL, defaultLogLevel, path);
+    }
+
+    /**
+     * Make a loggable for booleans that does not box, with default level
+     * @param level the default level
+     * @param path the path of the data
+     * @return a new loggable
+     */
+    public static BooleanLoggable booleanLoggable(LogLevel level, String path) {
+        return booleanLoggable(DashboardKey.GENERAL, level, path);
+    }
+
+    /**
+     * Make a loggable for booleans that does not box, published at the rate of a DashboardKey
+     * @param key the group of the data
+     * @param path the path of the data
+     * @return a new loggable
+     */
+    public static BooleanLoggable booleanLoggable(DashboardKey key, String path) {
+        return booleanLoggable(key, defaultLogLevel, path);
+    }
+
+    /**
+     * Make a loggable for booleans that does not box, with default level, published at the rate
+     * of a DashboardKey
+     * @param key the group of the data
+     * @param level the default level
+     * @param path the path of the data
+     * @return a new loggable
+     */
+    public static BooleanLoggable booleanLoggable(DashboardKey key, LogLevel level, String path) {
+        CoalescingPublisher.BooleanSlot slot = publisher.booleanSlot(path);
+        telemetry.register(key, slot);
+
+        return new DefaultBooleanLoggable(slot, level, levelFilter(path));
+    }
+
+    /**
+     * Set the lowest level that is logged. Can also be changed at runtime with the
+     * {@code log/baseLevel} dashboard entry.
+     *
+     * @param level the lowest level that is logged
+     */
+    public static void setLogLevel(LogLevel level) {
+        baseLogLevel.setLevel(level);
+        SmartDashboard.putString(levelPath, level.name());
+    }
+
+    /**
+     * Set the lowest level that is logged for the paths of one subsystem, i.e. every path that
+     * starts with {@code subsystem/}. Can also be changed at runtime with the
+     * {@code log/levels/<subsystem>} dashboard entry.
+     *
+     * @param subsystem the first part of the paths, e.g. climber
+     * @param level the lowest level that is logged, null to follow the base level
+     */
+    public static void setLogLevel(String subsystem, LogLevel level) {
+        levelFilter(subsystem + "/").setLevel(level);
+        SmartDashboard.putString(subsystemLevelPath + subsystem, level == null ? LevelFilter.INHERIT : level.name());
+    }
+
+    /**
+     * Get the level filter of the subsystem a path belongs to, creating it the first time.
+     */
+    private static LevelFilter levelFilter(String path) {
+        int end = path.indexOf('/');
+        if (end <= 0) return baseLogLevel;
+
+        return subsystemLogLevels.computeIfAbsent(
+                path.substring(0, end),
+                subsystem -> listen(subsystemLevelPath + subsystem, new LevelFilter(baseLogLevel), LevelFilter.INHERIT)
+        );
+    }
+
+    private static LevelFilter listen(String path, LevelFilter filter, String defaultValue) {
+        SmartDashboard.putString(path, defaultValue);
+        return listen(path, filter);
+    }
+
+    /**
+     * Choose the telemetry profile, call this once at startup. Loggables made before the call
+     * are switched over too.
+     *
+     * @param profile the profile to use
+     * @param dashboardConfig which DashboardKeys are enabled at all
+     */
+    public static void useTelemetryProfile(TelemetryProfile profile, DashboardConfig dashboardConfig) {
+        telemetry.use(profile, dashboardConfig);
+    }
+
+    /**
+     * Publish the latest value of every loggable that changed since the last flush.
+     * Call this once per robot loop, values logged in between are coalesced.
+     */
+    public static void flush() {
+        publisher.flush();
+    }
+
+    /**
+     * Choose what is lost when more samples are logged between two flushes than the ring holds.
+     *
+     * @param policy the overflow policy
+     */
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        publisher.getRing().setPolicy(policy);
+    }
+
+    /**
+     * Publish how many samples were queued and dropped, and the deepest the ring has been,
+     * under {@code log/ring/}.
+     */
+    public static void publishRingStats() {
+        publisher.publishRingStats("log/ring/");
+    }
+
+    /**
+     * Start writing every logged value to binary segment files on disk, so the data survives
+     * the field network dropping. Uses exactly segmentBytes * segmentCount bytes of disk.
+     *
+     * @param directory where the segment files live
+     * @param segmentBytes size of every segment file
+     * @param segmentCount number of segment files in the ring
+     * @param blockBytes size of a block, the unit a reader can skip
+     */
+    public static void startRecording(File directory, int segmentBytes, int segmentCount, int blockBytes) {
+        try {
+            LogRecorder recorder = new LogRecorder(directory, segmentBytes, segmentCount, blockBytes);
+            // the recorder is only ever touched from the publishing thread
+            executor.execute(() -> publisher.setRecorder(recorder));
+        } catch (IOException | RejectedExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Ask the OS to write everything recorded so far to disk. Does not block the caller.
+     * Robot calls it when the robot is disabled.
+     */
+    public static void syncRecording() {
+        try {
+            executor.execute(() -> {
+                LogRecorder recorder = publisher.getRecorder();
+                if (recorder != null) recorder.sync();
+            });
+        } catch (RejectedExecutionException e) {
+            // the queue is full, the next disable syncs
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -48,11 +330,46 @@ public class BucketLog {
      * @param <T> type
      * @return a changeable
      */
+    @SuppressWarnings("unchecked")
     public static <T> Changeable<T> changeable(Put<T> put, String path, T defaultValue) {
+        if (put == Put.DOUBLE) return (Changeable<T>) doubleChangeable(path, (Double) defaultValue);
+        if (put == Put.BOOL) return (Changeable<T>) booleanChangeable(path, (Boolean) defaultValue);
 
         Changeable<T> changeable = new DefaultChangeable<>(put, defaultValue);
         put.put(path, defaultValue);
 
+        return listen(path, changeable);
+    }
+
+    /**
+     * Make a changeable for doubles that can be read without boxing.
+     *
+     * @param path the path of the object
+     * @param defaultValue initial data to put
+     * @return a changeable
+     */
+    public static DoubleChangeable doubleChangeable(String path, double defaultValue) {
+        DoubleChangeable changeable = new DefaultDoubleChangeable(defaultValue);
+        SmartDashboard.putNumber(path, defaultValue);
+
+        return listen(path, changeable);
+    }
+
+    /**
+     * Make a changeable for booleans that can be read without boxing.
+     *
+     * @param path the path of the object
+     * @param defaultValue initial data to put
+     * @return a changeable
+     */
+    public static BooleanChangeable booleanChangeable(String path, boolean defaultValue) {
+        BooleanChangeable changeable = new DefaultBooleanChangeable(defaultValue);
+        SmartDashboard.putBoolean(path, defaultValue);
+
+        return listen(path, changeable);
+    }
+
+    private static <C extends Changeable<?>> C listen(String path, C changeable) {
         SmartDashboard
                 .getEntry(path)
                 .addListener(changeable, EntryListenerFlags.kUpdate);
@@ -0,0 +1,17 @@
+package frc.robot.log;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A {@link Changeable} for doubles, read it with {@link #getAsDouble()} to avoid boxing.
+ *
+ * dashboard -> code
+ */
+public interface DoubleChangeable extends Changeable<Double>, DoubleSupplier {
+
+    @Override
+    default Double currentValue() {
+        return getAsDouble();
+    }
+
+}
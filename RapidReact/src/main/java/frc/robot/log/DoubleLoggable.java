@@ -0,0 +1,38 @@
+package frc.robot.log;
+
+/**
+ * A {@link Loggable} for doubles that never boxes on the primitive methods.
+ *
+ * code -> dashboard
+ */
+public interface DoubleLoggable extends Loggable<Double> {
+
+    void log(double value);
+    void log(LogLevel level, double value);
+
+    /**
+     * Only publish values that moved more than the deadband away from the last published one,
+     * e.g. to hide encoder noise while the mechanism is idle.
+     *
+     * @param deadband the smallest change worth publishing
+     * @return this loggable, for chaining
+     */
+    DoubleLoggable deadband(double deadband);
+
+    @Override
+    DoubleLoggable onChange();
+
+    @Override
+    DoubleLoggable heartbeat(double seconds);
+
+    @Override
+    default void log(Double object) {
+        log(object.doubleValue());
+    }
+
+    @Override
+    default void log(LogLevel level, Double object) {
+        log(level, object.doubleValue());
+    }
+
+}
@@ -2,6 +2,7 @@ package frc.robot.log;
 
 import frc.robot.config.Config;
 import frc.robot.subsystem.BitBucketsSubsystem;
+import frc.robot.utils.DashboardKey;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -9,8 +10,8 @@ public class LogTestSubsystem extends BitBucketsSubsystem {
 
   private final AtomicInteger counter = new AtomicInteger();
 
-  private final Loggable<Boolean> logBool = BucketLog.loggable(Put.BOOL, "test/isReady");
-  private final Loggable<Double> logNum = BucketLog.loggable(Put.DOUBLE, "test/periodic");
+  private final BooleanLoggable logBool = BucketLog.booleanLoggable(DashboardKey.TEST, "test/isReady");
+  private final DoubleLoggable logNum = BucketLog.doubleLoggable(DashboardKey.TEST, "test/periodic");
 
 
   public LogTestSubsystem(Config config) {
@@ -24,7 +25,7 @@ public class LogTestSubsystem extends BitBucketsSubsystem {
   }
 
   @Override
-  public void periodic() {
+  public void subsystemPeriodic() {
     logNum.log(LogLevel.GENERAL, (double) counter.incrementAndGet());
   }
 
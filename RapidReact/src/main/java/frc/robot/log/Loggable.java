@@ -1,5 +1,7 @@
 package frc.robot.log;
 
+import java.util.function.Supplier;
+
 /**
  * Something that can put data in the dashboard (without reading it afterwards).
  *
@@ -12,4 +14,54 @@ public interface Loggable<T> {
     void log(T object);
     void log(LogLevel level, T object);
 
+    /**
+     * Log a value that is only built if the level is logged, e.g. a string concatenation.
+     *
+     * @param level the level of the message
+     * @param supplier makes the value
+     */
+    default void log(LogLevel level, Supplier<T> supplier) {
+        if (isEnabled(level)) {
+            log(level, supplier.get());
+        }
+    }
+
+    /**
+     * @param level the level of a message
+     * @return true if a message of that level would be published right now
+     */
+    boolean isEnabled(LogLevel level);
+
+    /**
+     * Only publish values that differ from the last published one. Applies to every loggable
+     * of the same path.
+     *
+     * @return this loggable, for chaining
+     */
+    Loggable<T> onChange();
+
+    /**
+     * Publish at least this often even if the value did not change. Without {@link #onChange()}
+     * only the heartbeat is published.
+     *
+     * @param seconds time between heartbeats
+     * @return this loggable, for chaining
+     */
+    Loggable<T> heartbeat(double seconds);
+
+    /**
+     * @return how many values of this path were handed to the dashboard
+     */
+    long getSentCount();
+
+    /**
+     * @return how many values of this path were dropped by the filters
+     */
+    long getSuppressedCount();
+
+    /**
+     * @return how many values of this path were lost because the log queue was full
+     */
+    long getDroppedCount();
+
 }
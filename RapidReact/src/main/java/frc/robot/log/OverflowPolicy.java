@@ -0,0 +1,14 @@
+package frc.robot.log;
+
+/**
+ * What to do with a sample when the BucketLog ring is full.
+ */
+public enum OverflowPolicy {
+  // make room by throwing away the oldest queued sample
+  DROP_OLDEST,
+  // throw away the new sample
+  DROP_NEWEST,
+  // lower levels are dropped first: DEBUG may only fill half the ring, GENERAL three quarters,
+  // CRITICAL all of it
+  DROP_BY_PRIORITY
+}
@@ -0,0 +1,25 @@
+package frc.robot.log;
+
+/**
+ * How often a key is sent to the dashboard, counted in robot loops (20 ms).
+ */
+public enum PublishRate {
+  EVERY_LOOP(1),
+  TEN_HZ(5),
+  ONE_HZ(50),
+  // never published, but still recorded while the robot is recording
+  OFF(0);
+
+  private final int loopsPerPublish;
+
+  PublishRate(int loopsPerPublish) {
+    this.loopsPerPublish = loopsPerPublish;
+  }
+
+  /**
+   * @return publish once every this many loops, 0 if the key is never published
+   */
+  public int getLoopsPerPublish() {
+    return loopsPerPublish;
+  }
+}
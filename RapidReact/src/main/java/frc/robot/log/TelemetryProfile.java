@@ -0,0 +1,16 @@
+package frc.robot.log;
+
+/**
+ * A named set of publish rates, chosen once at startup with
+ * {@link BucketLog#useTelemetryProfile}.
+ *
+ * @see frc.robot.utils.DashboardKey
+ */
+public enum TelemetryProfile {
+  // lean, only what the drive team needs, safe for the field bandwidth limit
+  COMPETITION,
+  // most keys at a reduced rate
+  PRACTICE,
+  // everything every loop, for the pits
+  DEBUG
+}
@@ -0,0 +1,76 @@
+package frc.robot.log;
+
+import frc.robot.log.impl.CoalescingPublisher;
+import frc.robot.utils.DashboardConfig;
+import frc.robot.utils.DashboardKey;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ties every loggable key to a {@link DashboardKey} and applies the publish rate of the active
+ * {@link TelemetryProfile} to it.
+ *
+ * Keys can be registered before the profile is chosen (loggables are usually fields), choosing
+ * a profile re-applies the rates to everything registered so far.
+ */
+public class TelemetryRegistry {
+
+  // a set, every loggable of a path registers the same slot again
+  private final Map<DashboardKey, Set<CoalescingPublisher.Slot>> slotsByKey = new EnumMap<>(DashboardKey.class);
+
+  private TelemetryProfile profile = TelemetryProfile.DEBUG;
+  private DashboardConfig dashboardConfig = new DashboardConfig();
+
+  /**
+   * Tie a slot to a DashboardKey and give it the rate of the active profile.
+   *
+   * @param key the group of the slot
+   * @param slot the slot
+   */
+  public synchronized void register(DashboardKey key, CoalescingPublisher.Slot slot) {
+    slotsByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(slot);
+    slot.setRate(rate(key));
+  }
+
+  /**
+   * Switch to a profile and re-apply the rates of every registered slot.
+   *
+   * @param profile the profile to use
+   * @param dashboardConfig which DashboardKeys are enabled at all
+   */
+  public synchronized void use(TelemetryProfile profile, DashboardConfig dashboardConfig) {
+    this.profile = profile;
+    this.dashboardConfig = dashboardConfig;
+
+    for (Map.Entry<DashboardKey, Set<CoalescingPublisher.Slot>> entry : slotsByKey.entrySet()) {
+      PublishRate rate = rate(entry.getKey());
+      for (CoalescingPublisher.Slot slot : entry.getValue()) {
+        slot.setRate(rate);
+      }
+    }
+  }
+
+  /**
+   * @param key the DashboardKey
+   * @return how often keys of the group are published with the current profile and config
+   */
+  public synchronized PublishRate rate(DashboardKey key) {
+    return dashboardConfig.isEnabled(key) ? key.rate(profile) : PublishRate.OFF;
+  }
+
+  public synchronized TelemetryProfile getProfile() {
+    return profile;
+  }
+
+  /**
+   * @param key the DashboardKey
+   * @return the number of slots registered under it
+   */
+  synchronized int size(DashboardKey key) {
+    Set<CoalescingPublisher.Slot> slots = slotsByKey.get(key);
+    return slots == null ? 0 : slots.size();
+  }
+}
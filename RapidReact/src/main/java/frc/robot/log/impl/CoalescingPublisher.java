@@ -0,0 +1,560 @@
+package frc.robot.log.impl;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.log.LogLevel;
+import frc.robot.log.OverflowPolicy;
+import frc.robot.log.PublishRate;
+import frc.robot.log.Put;
+import frc.robot.log.recorder.LogRecorder;
+import frc.robot.log.recorder.RecordFormat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the latest value logged to every path and publishes them all at once.
+ *
+ * Logging puts a sample in a preallocated {@link SampleRing}, from any thread and without locks.
+ * A flush drains the ring on the publishing thread into one {@link Slot} per path, so a path
+ * that is logged ten times between flushes is only published once, with the newest value.
+ * Memory is bounded by the ring capacity and the number of paths, not by how often they are
+ * logged.
+ *
+ * If a {@link LogRecorder} is attached, every drained sample is also written to it, stamped
+ * with the time it was logged.
+ *
+ * A slot can also filter what it is given before it ever reaches the publishing thread, see
+ * {@link Slot#onChange()} and {@link Slot#heartbeat(double)}, and be published at a lower
+ * {@link PublishRate} than every flush.
+ */
+public class CoalescingPublisher {
+
+    public static final int DEFAULT_RING_CAPACITY = 1024;
+
+    private final Executor executor;
+    private final LongSupplier clockMicros;
+    private final SampleRing ring;
+
+    private volatile LogRecorder recorder;
+
+    private final Map<String, Slot> slotsByPath = new ConcurrentHashMap<>();
+    private volatile Slot[] slots = new Slot[0];
+
+    // only one flush may be queued on the executor at a time
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final Runnable flushTask = this::publishAll;
+
+    // only used by the publishing thread
+    private long publishCount;
+    private LogRecorder drainRecorder;
+    private final SampleRing.Sink applySink = this::apply;
+    private String statsPrefix;
+
+    public CoalescingPublisher(Executor executor) {
+        this(executor, () -> System.nanoTime() / 1000);
+    }
+
+    public CoalescingPublisher(Executor executor, LongSupplier clockMicros) {
+        this(executor, clockMicros, new SampleRing(DEFAULT_RING_CAPACITY, OverflowPolicy.DROP_BY_PRIORITY));
+    }
+
+    public CoalescingPublisher(Executor executor, LongSupplier clockMicros, SampleRing ring) {
+        this.executor = executor;
+        this.clockMicros = clockMicros;
+        this.ring = ring;
+    }
+
+    public SampleRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Publish the ring counters under a path on every flush.
+     *
+     * @param prefix e.g. {@code log/ring/}, or null to stop
+     */
+    public void publishRingStats(String prefix) {
+        executor.execute(() -> statsPrefix = prefix);
+    }
+
+    /**
+     * Also write every logged value to a recorder, including the values of slots that are not
+     * published. The recorder is only touched from the publishing thread.
+     *
+     * @param recorder the recorder, or null to stop recording
+     */
+    public synchronized void setRecorder(LogRecorder recorder) {
+        this.recorder = recorder;
+        for (Slot slot : slots) {
+            slot.recorded = recorder != null;
+        }
+    }
+
+    public LogRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Get the slot for a path, creating it the first time the path is seen.
+     *
+     * @param path the path of the data
+     * @param put how to put the data in the dashboard
+     * @param <T> type
+     * @return the slot shared by every loggable of this path
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ObjectSlot<T> slot(String path, Put<T> put) {
+        return (ObjectSlot<T>) slot(path, p -> new ObjectSlot<>(p, clockMicros, ring, put));
+    }
+
+    /**
+     * Get the unboxed slot for a double path.
+     *
+     * @param path the path of the data
+     * @return the slot shared by every loggable of this path
+     */
+    public DoubleSlot doubleSlot(String path) {
+        return (DoubleSlot) slot(path, p -> new DoubleSlot(p, clockMicros, ring));
+    }
+
+    /**
+     * Get the unboxed slot for a boolean path.
+     *
+     * @param path the path of the data
+     * @return the slot shared by every loggable of this path
+     */
+    public BooleanSlot booleanSlot(String path) {
+        return (BooleanSlot) slot(path, p -> new BooleanSlot(p, clockMicros, ring));
+    }
+
+    private Slot slot(String path, Function<String, Slot> factory) {
+        return slotsByPath.computeIfAbsent(path, p -> register(factory.apply(p)));
+    }
+
+    private synchronized Slot register(Slot slot) {
+        slot.recorded = recorder != null;
+
+        Slot[] grown = new Slot[slots.length + 1];
+        System.arraycopy(slots, 0, grown, 0, slots.length);
+        grown[slots.length] = slot;
+        slots = grown;
+
+        return slot;
+    }
+
+    /**
+     * Queue a publish of every slot that changed since the last flush. If the previous flush
+     * has not run yet (e.g. NetworkTables is slow) this does nothing, the pending flush will
+     * pick up the newest values anyway.
+     */
+    public void flush() {
+        if (flushQueued.compareAndSet(false, true)) {
+            try {
+                executor.execute(flushTask);
+            } catch (RejectedExecutionException e) {
+                // never ran, so the next flush has to queue it again
+                flushQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Drain the ring and publish every changed slot on the calling thread.
+     */
+    public void publishAll() {
+        flushQueued.set(false);
+
+        drainRecorder = recorder;
+        ring.drain(applySink);
+
+        long publish = publishCount++;
+        for (Slot slot : slots) {
+            // a slot that is not due keeps its newest value until it is
+            if (slot.isDue(publish)) {
+                slot.publish();
+            }
+        }
+
+        if (statsPrefix != null) {
+            SmartDashboard.putNumber(statsPrefix + "enqueued", ring.getEnqueued());
+            SmartDashboard.putNumber(statsPrefix + "dropped", ring.getDropped());
+            SmartDashboard.putNumber(statsPrefix + "maxDepth", ring.getMaxDepth());
+        }
+    }
+
+    private void apply(Slot slot, long timeMicros, double number, Object object) {
+        slot.apply(timeMicros, number, object, drainRecorder);
+    }
+
+    /**
+     * @return the number of paths that have a slot
+     */
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * The latest not yet published value of a single path.
+     */
+    public abstract static class Slot {
+
+        protected final String path;
+        protected final LongSupplier clockMicros;
+        protected final SampleRing ring;
+
+        // only used by the publishing thread
+        protected boolean dirty;
+        private int keyId = -1;
+
+        // set once at startup by the TelemetryRegistry, a disabled slot is never published
+        protected boolean enabled = true;
+        // set while the publisher has a recorder, a disabled slot still queues values for it
+        volatile boolean recorded;
+        private volatile int loopsPerPublish = 1;
+
+        // filter state, only used by the logging thread
+        private boolean changesOnly;
+        private long heartbeatMicros;
+        private boolean sentAny;
+        private long lastSentMicros;
+
+        // set by a producer that evicted a sample of this slot to make room in the ring
+        private volatile boolean resend;
+
+        private volatile long sentCount;
+        private volatile long suppressedCount;
+        private volatile long droppedCount;
+
+        Slot(String path, LongSupplier clockMicros, SampleRing ring) {
+            this.path = path;
+            this.clockMicros = clockMicros;
+            this.ring = ring;
+        }
+
+        /**
+         * Take a sample drained from the ring and record it.
+         */
+        abstract void apply(long timeMicros, double number, Object object, LogRecorder recorder);
+
+        /**
+         * Put the newest value in the dashboard if there is one.
+         */
+        abstract void publish();
+
+        /**
+         * Set how often this slot is published. With {@link PublishRate#OFF} values are only
+         * recorded, and every {@code set} returns right away while nothing is recording.
+         *
+         * @param rate the publish rate
+         */
+        public void setRate(PublishRate rate) {
+            enabled = rate != PublishRate.OFF;
+            loopsPerPublish = rate.getLoopsPerPublish();
+        }
+
+        /**
+         * @return true if values of this slot are published or recorded
+         */
+        public boolean isEnabled() {
+            return enabled || recorded;
+        }
+
+        boolean isDue(long publish) {
+            int loops = loopsPerPublish;
+            return loops != 0 && publish % loops == 0;
+        }
+
+        /**
+         * Only accept values that differ from the last accepted one.
+         */
+        public void onChange() {
+            changesOnly = true;
+        }
+
+        /**
+         * Accept a value at least this often even if it did not change. Without
+         * {@link #onChange()} the slot accepts nothing but the heartbeat.
+         *
+         * @param seconds time between heartbeats, 0 to turn the heartbeat off
+         */
+        public void heartbeat(double seconds) {
+            heartbeatMicros = (long) (seconds * 1_000_000);
+        }
+
+        /**
+         * Decide whether a new value is accepted, counting it if it is not. Filtering happens on
+         * the logging thread, so a suppressed value costs a compare and never reaches the
+         * publisher.
+         *
+         * @param nowMicros the time of the value
+         * @param changed whether the value differs from the last queued one
+         * @return true if the value should be queued
+         */
+        protected boolean accept(long nowMicros, boolean changed) {
+            boolean send = resend
+                    || !sentAny
+                    || (!changesOnly && heartbeatMicros == 0)
+                    || (changesOnly && changed)
+                    || (heartbeatMicros > 0 && nowMicros - lastSentMicros >= heartbeatMicros);
+
+            if (send) {
+                resend = false;
+            } else {
+                suppressedCount++;
+            }
+
+            return send;
+        }
+
+        /**
+         * Roll the filter forward if an accepted value made it into the ring. A value the ring
+         * dropped leaves the filter as it was, so the next value is accepted even if it is the
+         * same.
+         *
+         * @param nowMicros the time of the value
+         * @param queued what the ring's offer returned
+         * @return queued
+         */
+        protected boolean queued(long nowMicros, boolean queued) {
+            if (queued) {
+                sentAny = true;
+                lastSentMicros = nowMicros;
+                sentCount++;
+            } else {
+                resend = true;
+                droppedCount++;
+            }
+
+            return queued;
+        }
+
+        /**
+         * A queued value of this slot was thrown away to make room, so the next one is accepted
+         * even if it did not change. Called by the producer that evicted it.
+         */
+        void evicted() {
+            resend = true;
+        }
+
+        /**
+         * @return the number of values accepted for publishing
+         */
+        public long getSentCount() {
+            return sentCount;
+        }
+
+        /**
+         * @return the number of values dropped by the change, deadband or heartbeat filter
+         */
+        public long getSuppressedCount() {
+            return suppressedCount;
+        }
+
+        /**
+         * @return the number of accepted values the ring had no room for
+         */
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        protected int keyId(LogRecorder recorder, byte type) {
+            if (keyId < 0) {
+                keyId = recorder.key(path, type);
+            }
+            return keyId;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * Slot for any type that has a {@link Put}.
+     *
+     * @param <T> type
+     */
+    public static final class ObjectSlot<T> extends Slot {
+
+        private final Put<T> put;
+
+        // only used by the logging thread
+        private T lastSent;
+
+        // only used by the publishing thread
+        private T value;
+
+        ObjectSlot(String path, LongSupplier clockMicros, SampleRing ring, Put<T> put) {
+            super(path, clockMicros, ring);
+            this.put = put;
+        }
+
+        public void set(T value) {
+            set(LogLevel.GENERAL, value);
+        }
+
+        /**
+         * Queue a value, the newest one queued before a flush is published.
+         *
+         * @param level the level it was logged at, decides what is dropped if the ring is full
+         * @param value the value
+         */
+        public void set(LogLevel level, T value) {
+            if (!isEnabled() || value == null) return;
+
+            long now = clockMicros.getAsLong();
+            if (!accept(now, !value.equals(lastSent))) return;
+
+            if (queued(now, ring.offer(this, level, now, 0, value))) {
+                lastSent = value;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void apply(long timeMicros, double number, Object object, LogRecorder recorder) {
+            value = (T) object;
+            dirty = true;
+
+            if (recorder != null) {
+                recorder.recordString(keyId(recorder, RecordFormat.TYPE_STRING), timeMicros, object.toString());
+            }
+        }
+
+        @Override
+        void publish() {
+            if (dirty) {
+                dirty = false;
+                put.put(path, value);
+                value = null;
+            }
+        }
+    }
+
+    /**
+     * Slot that stores a double without boxing it.
+     */
+    public static final class DoubleSlot extends Slot {
+
+        // only used by the logging thread
+        private double lastSent;
+        private double deadband;
+
+        // only used by the publishing thread
+        private double value;
+
+        DoubleSlot(String path, LongSupplier clockMicros, SampleRing ring) {
+            super(path, clockMicros, ring);
+        }
+
+        /**
+         * Only accept values that moved more than the deadband away from the last accepted one.
+         *
+         * @param deadband the smallest change worth publishing
+         */
+        public void deadband(double deadband) {
+            this.deadband = deadband;
+            onChange();
+        }
+
+        public void set(double value) {
+            set(LogLevel.GENERAL, value);
+        }
+
+        /**
+         * Queue a value, the newest one queued before a flush is published.
+         *
+         * @param level the level it was logged at, decides what is dropped if the ring is full
+         * @param value the value
+         */
+        public void set(LogLevel level, double value) {
+            if (!isEnabled()) return;
+
+            long now = clockMicros.getAsLong();
+            // written so that NaN always counts as a change
+            if (!accept(now, !(Math.abs(value - lastSent) <= deadband))) return;
+
+            if (queued(now, ring.offer(this, level, now, value, null))) {
+                lastSent = value;
+            }
+        }
+
+        @Override
+        void apply(long timeMicros, double number, Object object, LogRecorder recorder) {
+            value = number;
+            dirty = true;
+
+            if (recorder != null) {
+                recorder.recordDouble(keyId(recorder, RecordFormat.TYPE_DOUBLE), timeMicros, number);
+            }
+        }
+
+        @Override
+        void publish() {
+            if (dirty) {
+                dirty = false;
+                SmartDashboard.putNumber(path, value);
+            }
+        }
+    }
+
+    /**
+     * Slot that stores a boolean without boxing it.
+     */
+    public static final class BooleanSlot extends Slot {
+
+        // only used by the logging thread
+        private boolean lastSent;
+
+        // only used by the publishing thread
+        private boolean value;
+
+        BooleanSlot(String path, LongSupplier clockMicros, SampleRing ring) {
+            super(path, clockMicros, ring);
+        }
+
+        public void set(boolean value) {
+            set(LogLevel.GENERAL, value);
+        }
+
+        /**
+         * Queue a value, the newest one queued before a flush is published.
+         *
+         * @param level the level it was logged at, decides what is dropped if the ring is full
+         * @param value the value
+         */
+        public void set(LogLevel level, boolean value) {
+            if (!isEnabled()) return;
+
+            long now = clockMicros.getAsLong();
+            if (!accept(now, value != lastSent)) return;
+
+            if (queued(now, ring.offer(this, level, now, value ? 1 : 0, null))) {
+                lastSent = value;
+            }
+        }
+
+        @Override
+        void apply(long timeMicros, double number, Object object, LogRecorder recorder) {
+            value = number != 0;
+            dirty = true;
+
+            if (recorder != null) {
+                recorder.recordBoolean(keyId(recorder, RecordFormat.TYPE_BOOLEAN), timeMicros, value);
+            }
+        }
+
+        @Override
+        void publish() {
+            if (dirty) {
+                dirty = false;
+                SmartDashboard.putBoolean(path, value);
+            }
+        }
+    }
+}
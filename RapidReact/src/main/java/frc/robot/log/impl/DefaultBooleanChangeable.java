@@ -0,0 +1,25 @@
+package frc.robot.log.impl;
+
+import edu.wpi.first.networktables.EntryNotification;
+import frc.robot.log.BooleanChangeable;
+
+public class DefaultBooleanChangeable implements BooleanChangeable {
+
+    private volatile boolean value;
+
+    public DefaultBooleanChangeable(boolean value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        return value;
+    }
+
+    @Override
+    public void accept(EntryNotification entryNotification) {
+        if (!entryNotification.value.isBoolean()) throw new IllegalArgumentException("Not a bool!");
+
+        value = entryNotification.value.getBoolean();
+    }
+}
@@ -0,0 +1,61 @@
+package frc.robot.log.impl;
+
+import frc.robot.log.BooleanLoggable;
+import frc.robot.log.LogLevel;
+
+public class DefaultBooleanLoggable implements BooleanLoggable {
+
+    private final CoalescingPublisher.BooleanSlot slot;
+    private final LogLevel defaultLevel;
+    private final LevelFilter levelFilter;
+
+    public DefaultBooleanLoggable(CoalescingPublisher.BooleanSlot slot, LogLevel defaultLevel, LevelFilter levelFilter) {
+        this.slot = slot;
+        this.defaultLevel = defaultLevel;
+        this.levelFilter = levelFilter;
+    }
+
+    @Override
+    public void log(boolean value) {
+        log(defaultLevel, value);
+    }
+
+    @Override
+    public void log(LogLevel level, boolean value) {
+        if (levelFilter.shouldLog(level)) {
+            slot.set(level, value);
+        }
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return slot.isEnabled() && levelFilter.shouldLog(level);
+    }
+
+    @Override
+    public BooleanLoggable onChange() {
+        slot.onChange();
+        return this;
+    }
+
+    @Override
+    public BooleanLoggable heartbeat(double seconds) {
+        slot.heartbeat(seconds);
+        return this;
+    }
+
+    @Override
+    public long getSentCount() {
+        return slot.getSentCount();
+    }
+
+    @Override
+    public long getSuppressedCount() {
+        return slot.getSuppressedCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return slot.getDroppedCount();
+    }
+}
@@ -0,0 +1,25 @@
+package frc.robot.log.impl;
+
+import edu.wpi.first.networktables.EntryNotification;
+import frc.robot.log.DoubleChangeable;
+
+public class DefaultDoubleChangeable implements DoubleChangeable {
+
+    private volatile double value;
+
+    public DefaultDoubleChangeable(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public double getAsDouble() {
+        return value;
+    }
+
+    @Override
+    public void accept(EntryNotification entryNotification) {
+        if (!entryNotification.value.isDouble()) throw new IllegalArgumentException("Not a double!");
+
+        value = entryNotification.value.getDouble();
+    }
+}
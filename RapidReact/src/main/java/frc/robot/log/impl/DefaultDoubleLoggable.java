@@ -0,0 +1,67 @@
+package frc.robot.log.impl;
+
+import frc.robot.log.DoubleLoggable;
+import frc.robot.log.LogLevel;
+
+public class DefaultDoubleLoggable implements DoubleLoggable {
+
+    private final CoalescingPublisher.DoubleSlot slot;
+    private final LogLevel defaultLevel;
+    private final LevelFilter levelFilter;
+
+    public DefaultDoubleLoggable(CoalescingPublisher.DoubleSlot slot, LogLevel defaultLevel, LevelFilter levelFilter) {
+        this.slot = slot;
+        this.defaultLevel = defaultLevel;
+        this.levelFilter = levelFilter;
+    }
+
+    @Override
+    public void log(double value) {
+        log(defaultLevel, value);
+    }
+
+    @Override
+    public void log(LogLevel level, double value) {
+        if (levelFilter.shouldLog(level)) {
+            slot.set(level, value);
+        }
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return slot.isEnabled() && levelFilter.shouldLog(level);
+    }
+
+    @Override
+    public DoubleLoggable deadband(double deadband) {
+        slot.deadband(deadband);
+        return this;
+    }
+
+    @Override
+    public DoubleLoggable onChange() {
+        slot.onChange();
+        return this;
+    }
+
+    @Override
+    public DoubleLoggable heartbeat(double seconds) {
+        slot.heartbeat(seconds);
+        return this;
+    }
+
+    @Override
+    public long getSentCount() {
+        return slot.getSentCount();
+    }
+
+    @Override
+    public long getSuppressedCount() {
+        return slot.getSuppressedCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return slot.getDroppedCount();
+    }
+}
@@ -2,25 +2,17 @@ package frc.robot.log.impl;
 
 import frc.robot.log.LogLevel;
 import frc.robot.log.Loggable;
-import frc.robot.log.Put;
-
-import java.util.concurrent.Executor;
 
 public class DefaultLoggable<T> implements Loggable<T> {
 
-    private final Executor executor;
-
-    private final String path;
-    private final Put<T> put;
+    private final CoalescingPublisher.ObjectSlot<T> slot;
     private final LogLevel defaultLevel;
-    private final LogLevel baseLevel;
+    private final LevelFilter levelFilter;
 
-    public DefaultLoggable(Executor executor, String path, Put<T> put, LogLevel defaultLevel, LogLevel baseLevel) {
-        this.executor = executor;
-        this.path = path;
-        this.put = put;
+    public DefaultLoggable(CoalescingPublisher.ObjectSlot<T> slot, LogLevel defaultLevel, LevelFilter levelFilter) {
+        this.slot = slot;
         this.defaultLevel = defaultLevel;
-        this.baseLevel = baseLevel;
+        this.levelFilter = levelFilter;
     }
 
     @Override
@@ -30,10 +22,40 @@ public class DefaultLoggable<T> implements Loggable<T> {
 
     @Override
     public void log(LogLevel level, T object) {
-        if (baseLevel.shouldLog(level)) {
-            executor.execute(() -> {
-                put.put(path, object);
-            });
+        if (levelFilter.shouldLog(level)) {
+            slot.set(level, object);
         }
     }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return slot.isEnabled() && levelFilter.shouldLog(level);
+    }
+
+    @Override
+    public Loggable<T> onChange() {
+        slot.onChange();
+        return this;
+    }
+
+    @Override
+    public Loggable<T> heartbeat(double seconds) {
+        slot.heartbeat(seconds);
+        return this;
+    }
+
+    @Override
+    public long getSentCount() {
+        return slot.getSentCount();
+    }
+
+    @Override
+    public long getSuppressedCount() {
+        return slot.getSuppressedCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return slot.getDroppedCount();
+    }
 }
@@ -0,0 +1,119 @@
+package frc.robot.log.impl;
+
+import edu.wpi.first.networktables.EntryNotification;
+import frc.robot.log.Changeable;
+import frc.robot.log.LogLevel;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The lowest level that is logged, changeable from the dashboard.
+ *
+ * Filters form a tree: the base filter of BucketLog and one child per subsystem. A child
+ * without a level of its own follows its parent. The effective level is worked out whenever a
+ * level changes, so checking a message is a single field read.
+ */
+public class LevelFilter implements Changeable<LogLevel> {
+
+    /**
+     * Dashboard value that makes a child follow its parent again.
+     */
+    public static final String INHERIT = "INHERIT";
+
+    private final LevelFilter parent;
+    private final List<LevelFilter> children = new CopyOnWriteArrayList<>();
+
+    private volatile LogLevel level;
+    private volatile LogLevel effective;
+
+    /**
+     * Make a base filter.
+     *
+     * @param level the lowest level that is logged
+     */
+    public LevelFilter(LogLevel level) {
+        this.parent = null;
+        this.level = level;
+        this.effective = level;
+    }
+
+    /**
+     * Make a filter that follows its parent until it gets a level of its own.
+     *
+     * @param parent the filter to follow
+     */
+    public LevelFilter(LevelFilter parent) {
+        this.parent = parent;
+        this.effective = parent.effective;
+
+        parent.children.add(this);
+    }
+
+    public boolean shouldLog(LogLevel level) {
+        return effective.shouldLog(level);
+    }
+
+    @Override
+    public LogLevel currentValue() {
+        return effective;
+    }
+
+    /**
+     * @return the level set on this filter, null if it follows its parent
+     */
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * @param level the lowest level that is logged, null to follow the parent
+     */
+    public void setLevel(LogLevel level) {
+        if (level == null && parent == null) throw new IllegalArgumentException("The base level can't inherit!");
+
+        this.level = level;
+        refresh();
+    }
+
+    private synchronized void refresh() {
+        LogLevel own = level;
+        effective = own != null ? own : parent.effective;
+
+        for (LevelFilter child : children) {
+            child.refresh();
+        }
+    }
+
+    @Override
+    public void accept(EntryNotification entryNotification) {
+        if (!entryNotification.value.isString()) throw new IllegalArgumentException("Not a string!");
+
+        if (!setLevelName(entryNotification.value.getString())) {
+            // a typo in the dashboard, show the level that is still in effect
+            LogLevel current = level;
+            entryNotification.getEntry().setString(current != null ? current.name() : INHERIT);
+        }
+    }
+
+    /**
+     * @param name name of a level, INHERIT or empty to follow the parent
+     * @return false if the name isn't a level this filter can take, the level stays as it was
+     */
+    public boolean setLevelName(String name) {
+        String upper = name.trim().toUpperCase();
+        if (upper.isEmpty() || upper.equals(INHERIT)) {
+            if (parent == null) return false;
+
+            setLevel(null);
+            return true;
+        }
+
+        try {
+            setLevel(LogLevel.valueOf(upper));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
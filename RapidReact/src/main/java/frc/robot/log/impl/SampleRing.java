@@ -0,0 +1,215 @@
+package frc.robot.log.impl;
+
+import frc.robot.log.LogLevel;
+import frc.robot.log.OverflowPolicy;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock free queue of log samples with many producers and one consumer.
+ *
+ * Every cell is preallocated as a set of parallel arrays, so offering a sample never allocates
+ * and the ring can never grow. Producers claim a cell with a CAS on the tail and publish it by
+ * bumping the cell's sequence number (Vyukov's bounded queue), the consumer frees it the same
+ * way. Nothing ever blocks: when the ring is full the {@link OverflowPolicy} decides which
+ * sample is lost, and every loss is counted.
+ */
+public class SampleRing {
+
+    // tells the owner of an evicted sample to send its next value even if it did not change
+    private static final Sink evict = (slot, timeMicros, number, object) -> {
+        if (slot != null) slot.evicted();
+    };
+
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLongArray sequences;
+    private final CoalescingPublisher.Slot[] slots;
+    private final long[] times;
+    private final double[] numbers;
+    private final Object[] objects;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile OverflowPolicy policy;
+
+    // only used by the consumer
+    private long maxDepth;
+
+    /**
+     * @param capacity number of samples the ring holds, rounded up to a power of two
+     * @param policy what to do when the ring is full
+     */
+    public SampleRing(int capacity, OverflowPolicy policy) {
+        if (capacity < 2) throw new IllegalArgumentException("Ring needs at least two cells!");
+
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.policy = policy;
+
+        this.sequences = new AtomicLongArray(this.capacity);
+        this.slots = new CoalescingPublisher.Slot[this.capacity];
+        this.times = new long[this.capacity];
+        this.numbers = new double[this.capacity];
+        this.objects = new Object[this.capacity];
+
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Queue a sample, from any thread.
+     *
+     * @param slot the slot the sample belongs to
+     * @param level the level it was logged at, used by {@link OverflowPolicy#DROP_BY_PRIORITY}
+     * @param timeMicros when it was logged
+     * @param number the value of a double or boolean sample
+     * @param object the value of any other sample
+     * @return false if the sample was dropped
+     */
+    public boolean offer(CoalescingPublisher.Slot slot, LogLevel level, long timeMicros, double number, Object object) {
+        OverflowPolicy policy = this.policy;
+
+        if (policy == OverflowPolicy.DROP_BY_PRIORITY && depth() >= limit(level)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = slot;
+                    times[index] = timeMicros;
+                    numbers[index] = number;
+                    objects[index] = object;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // full, make room by discarding the oldest sample if we are allowed to
+                if (policy != OverflowPolicy.DROP_OLDEST || !poll(evict)) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                dropped.incrementAndGet();
+            }
+            // otherwise another producer took this cell, try the next one
+        }
+    }
+
+    private int limit(LogLevel level) {
+        switch (level) {
+            case DEBUG:
+                return capacity / 2;
+            case GENERAL:
+                return capacity / 4 * 3;
+            default:
+                return capacity;
+        }
+    }
+
+    /**
+     * Hand every queued sample to a sink, oldest first. Only the consumer may call this.
+     *
+     * @param sink receives the samples
+     * @return the number of samples drained
+     */
+    public int drain(Sink sink) {
+        maxDepth = Math.max(maxDepth, depth());
+
+        int drained = 0;
+        while (poll(sink)) {
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Take the oldest sample. Producers also use this to evict the oldest sample, so the
+     * head is claimed with a CAS even though there is only one real consumer.
+     */
+    private boolean poll(Sink sink) {
+        while (true) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    CoalescingPublisher.Slot slot = slots[index];
+                    long time = times[index];
+                    double number = numbers[index];
+                    Object object = objects[index];
+
+                    // don't keep logged objects alive until the cell is reused
+                    slots[index] = null;
+                    objects[index] = null;
+                    sequences.lazySet(index, position + capacity);
+
+                    if (sink != null) sink.accept(slot, time, number, object);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // empty, or the oldest sample is still being written
+                return false;
+            }
+        }
+    }
+
+    public void setPolicy(OverflowPolicy policy) {
+        this.policy = policy;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of queued samples, approximate while producers are running
+     */
+    public int depth() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * @return the number of samples that made it into the ring
+     */
+    public long getEnqueued() {
+        return tail.get();
+    }
+
+    /**
+     * @return the number of samples lost to the overflow policy
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the deepest the ring has been when the consumer drained it
+     */
+    public long getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Receives drained samples.
+     */
+    public interface Sink {
+
+        void accept(CoalescingPublisher.Slot slot, long timeMicros, double number, Object object);
+    }
+}
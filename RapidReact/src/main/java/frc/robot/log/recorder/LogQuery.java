@@ -0,0 +1,189 @@
+package frc.robot.log.recorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command line tool for logs recorded by {@link LogRecorder}, run it with {@code ./gradlew logQuery --args="..."}.
+ *
+ * <pre>
+ * LogQuery &lt;dir&gt;... sessions
+ * LogQuery &lt;dir&gt;... keys                        [--session id]
+ * LogQuery &lt;dir&gt;... stats &lt;key&gt;                 [--session id] [--from s] [--to s]
+ * LogQuery &lt;dir&gt;... csv   &lt;key|*&gt; &lt;out.csv&gt;     [--session id] [--from s] [--to s]
+ * </pre>
+ *
+ * Times are seconds since the start of the session, the newest session is used by default.
+ */
+public class LogQuery {
+
+    private static final String USAGE = String.join("\n",
+            "usage: LogQuery <dir>... sessions",
+            "       LogQuery <dir>... keys [--session id]",
+            "       LogQuery <dir>... stats <key> [--session id] [--from s] [--to s]",
+            "       LogQuery <dir>... csv <key|*> <out.csv> [--session id] [--from s] [--to s]"
+    );
+
+    public static void main(String[] args) throws IOException {
+        List<File> directories = new ArrayList<>();
+        List<String> positional = new ArrayList<>();
+        String command = null;
+        long sessionId = -1;
+        double fromSeconds = 0;
+        double toSeconds = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+
+            if (arg.startsWith("--")) {
+                if (i + 1 >= args.length) fail("Missing value for " + arg);
+                String value = args[++i];
+
+                switch (arg) {
+                    case "--session":
+                        sessionId = Long.parseLong(value);
+                        break;
+                    case "--from":
+                        fromSeconds = Double.parseDouble(value);
+                        break;
+                    case "--to":
+                        toSeconds = Double.parseDouble(value);
+                        break;
+                    default:
+                        fail("Unknown option " + arg);
+                }
+            } else if (command == null && isCommand(arg)) {
+                command = arg;
+            } else if (command == null) {
+                directories.add(new File(arg));
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        if (command == null || directories.isEmpty()) fail(USAGE);
+
+        try (LogReader reader = new LogReader(directories.toArray(new File[0]))) {
+            if (command.equals("sessions")) {
+                for (long id : reader.getSessionIds()) {
+                    System.out.println(id + "  " + reader.getKeys(id).size() + " keys  " + reader.getBlockCount(id) + " blocks");
+                }
+                return;
+            }
+
+            if (sessionId < 0) sessionId = reader.getLatestSessionId();
+            if (sessionId < 0) fail("No recordings in " + directories);
+
+            long start = reader.getStartMicros(sessionId);
+            long fromMicros = start + (long) (fromSeconds * 1e6);
+            long toMicros = Double.isInfinite(toSeconds) ? Long.MAX_VALUE : start + (long) (toSeconds * 1e6);
+
+            switch (command) {
+                case "keys":
+                    keys(reader, sessionId);
+                    break;
+                case "stats":
+                    if (positional.size() != 1) fail(USAGE);
+                    stats(reader, sessionId, positional.get(0), fromMicros, toMicros);
+                    break;
+                case "csv":
+                    if (positional.size() != 2) fail(USAGE);
+                    csv(reader, sessionId, positional.get(0), new File(positional.get(1)), start, fromMicros, toMicros);
+                    break;
+            }
+        }
+    }
+
+    private static boolean isCommand(String arg) {
+        return arg.equals("sessions") || arg.equals("keys") || arg.equals("stats") || arg.equals("csv");
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+
+    private static void keys(LogReader reader, long sessionId) {
+        Map<String, LogReader.Key> sorted = new TreeMap<>(reader.getKeys(sessionId));
+        for (LogReader.Key key : sorted.values()) {
+            System.out.println(RecordFormat.typeName(key.type) + "  " + key.path);
+        }
+    }
+
+    private static void stats(LogReader reader, long sessionId, String path, long fromMicros, long toMicros) throws IOException {
+        Stats stats = new Stats();
+        int blocks = reader.read(sessionId, path, fromMicros, toMicros, (time, key, type, number, text) -> {
+            if (type != RecordFormat.TYPE_STRING) stats.add(number);
+        });
+
+        if (stats.count == 0) {
+            System.out.println("No samples of " + path);
+            return;
+        }
+
+        System.out.println(path + "  (" + blocks + " of " + reader.getBlockCount(sessionId) + " blocks read)");
+        System.out.println("count " + stats.count);
+        System.out.println("min   " + stats.percentile(0));
+        System.out.println("max   " + stats.percentile(100));
+        System.out.println("mean  " + stats.sum / stats.count);
+        System.out.println("p50   " + stats.percentile(50));
+        System.out.println("p90   " + stats.percentile(90));
+        System.out.println("p99   " + stats.percentile(99));
+    }
+
+    private static void csv(LogReader reader, long sessionId, String path, File out, long start, long fromMicros, long toMicros) throws IOException {
+        String key = path.equals("*") ? null : path;
+
+        try (PrintWriter writer = new PrintWriter(out, StandardCharsets.UTF_8)) {
+            writer.println("time,key,value");
+
+            reader.read(sessionId, key, fromMicros, toMicros, (time, recordKey, type, number, text) -> {
+                writer.print((time - start) / 1e6);
+                writer.print(',');
+                writer.print(recordKey == null ? "" : quote(recordKey.path));
+                writer.print(',');
+                writer.println(type == RecordFormat.TYPE_STRING ? quote(text) : Double.toString(number));
+            });
+        }
+    }
+
+    private static String quote(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) return text;
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Numeric samples of one key, only the values are kept so a full match is a few hundred KB.
+     */
+    private static final class Stats {
+
+        double[] values = new double[1024];
+        int count;
+        double sum;
+        boolean sorted;
+
+        void add(double value) {
+            if (count == values.length) values = Arrays.copyOf(values, count * 2);
+            values[count++] = value;
+            sum += value;
+            sorted = false;
+        }
+
+        double percentile(double percent) {
+            if (!sorted) {
+                Arrays.sort(values, 0, count);
+                sorted = true;
+            }
+
+            int index = (int) Math.ceil(percent / 100 * count) - 1;
+            return values[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+}
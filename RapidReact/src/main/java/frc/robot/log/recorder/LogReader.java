@@ -0,0 +1,404 @@
+package frc.robot.log.recorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads the segment files written by {@link LogRecorder}.
+ *
+ * Opening a reader only reads the segment and block headers, which form two indexes: the key
+ * bitmap of every block says which blocks hold a key, and the block time ranges let a query
+ * binary search to the first block of a time range. A query then streams just those blocks
+ * through one reused buffer, so the heap never holds more than one block of records.
+ */
+public class LogReader implements AutoCloseable {
+
+    private final List<FileChannel> channels = new ArrayList<>();
+    private final TreeMap<Long, Session> sessions = new TreeMap<>();
+
+    private ByteBuffer blockBuffer = ByteBuffer.allocate(0);
+
+    /**
+     * Index every recording found in the given directories.
+     *
+     * @param directories directories holding segment and key files
+     * @throws IOException if a file can't be read
+     */
+    public LogReader(File... directories) throws IOException {
+        for (File directory : directories) {
+            indexDirectory(directory);
+        }
+
+        for (Session session : sessions.values()) {
+            session.finishIndex();
+        }
+    }
+
+    private void indexDirectory(File directory) throws IOException {
+        File[] segmentFiles = directory.listFiles((dir, name) -> name.startsWith(RecordFormat.SEGMENT_PREFIX) && name.endsWith(RecordFormat.SEGMENT_SUFFIX));
+        if (segmentFiles == null) return;
+
+        ByteBuffer header = ByteBuffer.allocate(Math.max(RecordFormat.SEGMENT_HEADER_BYTES, RecordFormat.BLOCK_HEADER_BYTES));
+
+        for (File segmentFile : segmentFiles) {
+            FileChannel channel = new RandomAccessFile(segmentFile, "r").getChannel();
+            channels.add(channel);
+
+            if (!readFully(channel, header, 0, RecordFormat.SEGMENT_HEADER_BYTES)) continue;
+            if (header.getInt(0) != RecordFormat.SEGMENT_MAGIC) continue;
+
+            long sequence = header.getLong(RecordFormat.SEGMENT_SEQUENCE_OFFSET);
+            long sessionId = header.getLong(RecordFormat.SEGMENT_SESSION_OFFSET);
+            int blockBytes = header.getInt(RecordFormat.SEGMENT_BLOCK_BYTES_OFFSET);
+            int blockCount = header.getInt(RecordFormat.SEGMENT_BLOCK_COUNT_OFFSET);
+
+            Session session = sessions.get(sessionId);
+            if (session == null) {
+                session = new Session(sessionId, readKeys(new File(directory, RecordFormat.keysName(sessionId))));
+                sessions.put(sessionId, session);
+            }
+
+            for (int i = 0; i < blockCount; i++) {
+                long offset = RecordFormat.SEGMENT_HEADER_BYTES + (long) i * blockBytes;
+
+                if (!readFully(channel, header, offset, RecordFormat.BLOCK_HEADER_BYTES)) break;
+                if (header.getInt(0) != RecordFormat.BLOCK_MAGIC) continue;
+
+                int count = header.getInt(RecordFormat.BLOCK_RECORD_COUNT_OFFSET);
+                if (count == 0) continue;
+
+                byte[] bitmap = new byte[RecordFormat.KEY_BITMAP_BYTES];
+                header.position(RecordFormat.BLOCK_BITMAP_OFFSET);
+                header.get(bitmap);
+
+                session.blocks.add(new Block(
+                        channel,
+                        sequence,
+                        i,
+                        offset,
+                        header.getInt(RecordFormat.BLOCK_USED_BYTES_OFFSET),
+                        header.getLong(RecordFormat.BLOCK_MIN_TIME_OFFSET),
+                        header.getLong(RecordFormat.BLOCK_MAX_TIME_OFFSET),
+                        bitmap
+                ));
+            }
+        }
+    }
+
+    private static Map<String, Key> readKeys(File keyFile) throws IOException {
+        Map<String, Key> keys = new HashMap<>();
+        if (!keyFile.isFile()) return keys;
+
+        for (String line : Files.readAllLines(keyFile.toPath(), StandardCharsets.UTF_8)) {
+            String[] parts = line.split(" ", 3);
+            if (parts.length < 3) continue;
+
+            Key key = new Key(Integer.parseInt(parts[0]), RecordFormat.typeFromName(parts[1]), parts[2]);
+            keys.put(key.path, key);
+        }
+
+        return keys;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long offset, int length) throws IOException {
+        buffer.clear();
+        buffer.limit(length);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the ids of every session, oldest first
+     */
+    public List<Long> getSessionIds() {
+        return new ArrayList<>(sessions.keySet());
+    }
+
+    /**
+     * @return the id of the newest session, or -1 if there are none
+     */
+    public long getLatestSessionId() {
+        return sessions.isEmpty() ? -1 : sessions.lastKey();
+    }
+
+    /**
+     * @param sessionId the session
+     * @return the keys recorded in the session, by path
+     */
+    public Map<String, Key> getKeys(long sessionId) {
+        return Collections.unmodifiableMap(session(sessionId).keys);
+    }
+
+    /**
+     * @param sessionId the session
+     * @return the earliest timestamp still on disk for the session, in microseconds
+     */
+    public long getStartMicros(long sessionId) {
+        return session(sessionId).startMicros;
+    }
+
+    /**
+     * @param sessionId the session
+     * @return the number of blocks that hold data for the session
+     */
+    public int getBlockCount(long sessionId) {
+        return session(sessionId).blocks.size();
+    }
+
+    /**
+     * Stream every sample of a key inside a time range, in file order.
+     *
+     * @param sessionId the session
+     * @param path the key, or null for every key
+     * @param fromMicros inclusive start of the range
+     * @param toMicros inclusive end of the range
+     * @param visitor called for every matching sample
+     * @return the number of blocks that had to be read
+     * @throws IOException if a file can't be read
+     */
+    public int read(long sessionId, String path, long fromMicros, long toMicros, SampleVisitor visitor) throws IOException {
+        Session session = session(sessionId);
+
+        int keyId = -1;
+        if (path != null) {
+            Key key = session.keys.get(path);
+            if (key == null) return 0;
+            keyId = key.id;
+        }
+
+        Key[] keysById = session.keysById();
+        int[] candidates = keyId < 0 ? null : session.blocksWithKey(keyId);
+
+        int first = session.firstBlockEndingAfter(fromMicros);
+        int start = first;
+        int end = session.blocks.size();
+        if (candidates != null) {
+            start = Arrays.binarySearch(candidates, first);
+            if (start < 0) start = -start - 1;
+            end = candidates.length;
+        }
+
+        int blocksRead = 0;
+        for (int c = start; c < end; c++) {
+            int i = candidates == null ? c : candidates[c];
+            if (session.suffixMinTime[i] > toMicros) break;
+
+            Block block = session.blocks.get(i);
+            if (block.minTime > toMicros || block.maxTime < fromMicros) continue;
+
+            readBlock(block, keyId, fromMicros, toMicros, keysById, visitor);
+            blocksRead++;
+        }
+
+        return blocksRead;
+    }
+
+    private void readBlock(Block block, int keyId, long fromMicros, long toMicros, Key[] keysById, SampleVisitor visitor) throws IOException {
+        if (blockBuffer.capacity() < block.usedBytes) {
+            blockBuffer = ByteBuffer.allocate(block.usedBytes);
+        }
+        if (!readFully(block.channel, blockBuffer, block.offset, block.usedBytes)) return;
+
+        int cursor = RecordFormat.BLOCK_HEADER_BYTES;
+        while (cursor + RecordFormat.RECORD_HEADER_BYTES <= block.usedBytes) {
+            long time = blockBuffer.getLong(cursor);
+            int key = blockBuffer.getShort(cursor + 8);
+            byte type = blockBuffer.get(cursor + 10);
+            int valueStart = cursor + RecordFormat.RECORD_HEADER_BYTES;
+
+            boolean matches = (keyId < 0 || key == keyId) && time >= fromMicros && time <= toMicros;
+            Key recordKey = key < keysById.length ? keysById[key] : null;
+
+            switch (type) {
+                case RecordFormat.TYPE_DOUBLE:
+                    if (matches) visitor.visit(time, recordKey, type, blockBuffer.getDouble(valueStart), null);
+                    cursor = valueStart + 8;
+                    break;
+                case RecordFormat.TYPE_BOOLEAN:
+                    if (matches) visitor.visit(time, recordKey, type, blockBuffer.get(valueStart), null);
+                    cursor = valueStart + 1;
+                    break;
+                case RecordFormat.TYPE_STRING:
+                    int length = blockBuffer.getShort(valueStart);
+                    if (matches) {
+                        String text = new String(blockBuffer.array(), valueStart + 2, length, StandardCharsets.UTF_8);
+                        visitor.visit(time, recordKey, type, Double.NaN, text);
+                    }
+                    cursor = valueStart + 2 + length;
+                    break;
+                default:
+                    // corrupt or torn record, nothing after it can be trusted
+                    return;
+            }
+        }
+    }
+
+    private Session session(long sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) throw new IllegalArgumentException("No session " + sessionId);
+        return session;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel channel : channels) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Receives samples from {@link #read}.
+     */
+    public interface SampleVisitor {
+
+        /**
+         * @param timeMicros when the sample was logged
+         * @param key the key of the sample, null if it is missing from the key file
+         * @param type one of the RecordFormat types
+         * @param number the value of a double, 1 or 0 for a boolean, NaN for a string
+         * @param text the value of a string, null otherwise
+         */
+        void visit(long timeMicros, Key key, byte type, double number, String text);
+    }
+
+    /**
+     * A key of a session.
+     */
+    public static final class Key {
+
+        public final int id;
+        public final byte type;
+        public final String path;
+
+        Key(int id, byte type, String path) {
+            this.id = id;
+            this.type = type;
+            this.path = path;
+        }
+    }
+
+    private static final class Block {
+
+        final FileChannel channel;
+        final long sequence;
+        final int index;
+        final long offset;
+        final int usedBytes;
+        final long minTime;
+        final long maxTime;
+        final byte[] bitmap;
+
+        Block(FileChannel channel, long sequence, int index, long offset, int usedBytes, long minTime, long maxTime, byte[] bitmap) {
+            this.channel = channel;
+            this.sequence = sequence;
+            this.index = index;
+            this.offset = offset;
+            this.usedBytes = usedBytes;
+            this.minTime = minTime;
+            this.maxTime = maxTime;
+            this.bitmap = bitmap;
+        }
+
+        boolean hasKey(int keyId) {
+            return (bitmap[keyId >> 3] & (1 << (keyId & 7))) != 0;
+        }
+    }
+
+    private static final class Session {
+
+        final long id;
+        final Map<String, Key> keys;
+        final List<Block> blocks = new ArrayList<>();
+
+        // time index, both are monotonic so they can be binary searched
+        long[] prefixMaxTime;
+        long[] suffixMinTime;
+        long startMicros;
+
+        // per key block index, built the first time a key is queried
+        final Map<Integer, int[]> blocksByKey = new HashMap<>();
+        Key[] keysById;
+
+        Session(long id, Map<String, Key> keys) {
+            this.id = id;
+            this.keys = keys;
+        }
+
+        void finishIndex() {
+            blocks.sort((a, b) -> a.sequence != b.sequence ? Long.compare(a.sequence, b.sequence) : Integer.compare(a.index, b.index));
+
+            int count = blocks.size();
+            prefixMaxTime = new long[count];
+            suffixMinTime = new long[count];
+
+            for (int i = 0; i < count; i++) {
+                long max = blocks.get(i).maxTime;
+                prefixMaxTime[i] = i == 0 ? max : Math.max(prefixMaxTime[i - 1], max);
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                long min = blocks.get(i).minTime;
+                suffixMinTime[i] = i == count - 1 ? min : Math.min(suffixMinTime[i + 1], min);
+            }
+
+            startMicros = count == 0 ? 0 : suffixMinTime[0];
+        }
+
+        int firstBlockEndingAfter(long fromMicros) {
+            int low = 0;
+            int high = prefixMaxTime.length;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prefixMaxTime[mid] < fromMicros) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            return low;
+        }
+
+        int[] blocksWithKey(int keyId) {
+            return blocksByKey.computeIfAbsent(keyId, id -> {
+                int[] found = new int[blocks.size()];
+                int size = 0;
+
+                for (int i = 0; i < blocks.size(); i++) {
+                    if (blocks.get(i).hasKey(id)) found[size++] = i;
+                }
+
+                int[] trimmed = new int[size];
+                System.arraycopy(found, 0, trimmed, 0, size);
+                return trimmed;
+            });
+        }
+
+        Key[] keysById() {
+            if (keysById == null) {
+                int max = -1;
+                for (Key key : keys.values()) max = Math.max(max, key.id);
+
+                keysById = new Key[max + 1];
+                for (Key key : keys.values()) keysById[key.id] = key;
+            }
+            return keysById;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package frc.robot.log.recorder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes log samples as compact binary records into a fixed ring of preallocated, memory mapped
+ * segment files. See {@link RecordFormat} for the layout.
+ *
+ * The total size on disk is always segmentBytes * segmentCount, once the ring is full the oldest
+ * segment is overwritten. Writing a record is a handful of stores into mapped memory, there is no
+ * system call on the write path except when a segment fills up.
+ *
+ * Not thread safe, BucketLog only calls it from its publish thread so the robot loop never waits
+ * on it.
+ */
+public class LogRecorder implements AutoCloseable {
+
+    private final File directory;
+    private final int segmentBytes;
+    private final int blockBytes;
+    private final int blockCount;
+    private final long sessionId;
+
+    private final MappedByteBuffer[] segments;
+    private final RandomAccessFile[] files;
+
+    private final Map<String, Integer> keyIds = new HashMap<>();
+    private final Writer keyWriter;
+
+    private int segmentIndex;
+    private long sequence;
+    private MappedByteBuffer segment;
+
+    private int blockIndex;
+    private int blockStart;
+    private int cursor;
+    private int blockRecords;
+    private long blockMinTime;
+    private long blockMaxTime;
+
+    private long recordsWritten;
+    private long recordsDropped;
+    private long segmentsStarted;
+
+    /**
+     * Open (or create) a ring of segment files in a directory and start a new session in it.
+     * Existing segments are kept until the ring wraps around to them.
+     *
+     * @param directory where the segment files live
+     * @param segmentBytes size of every segment file
+     * @param segmentCount number of segment files in the ring
+     * @param blockBytes size of a block, the unit a reader can skip
+     * @throws IOException if the files can't be created or mapped
+     */
+    public LogRecorder(File directory, int segmentBytes, int segmentCount, int blockBytes) throws IOException {
+        if (blockBytes < RecordFormat.BLOCK_HEADER_BYTES + RecordFormat.RECORD_HEADER_BYTES + 2 + RecordFormat.MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Block is too small to hold a record!");
+        }
+        if (segmentBytes < RecordFormat.SEGMENT_HEADER_BYTES + blockBytes) {
+            throw new IllegalArgumentException("Segment is too small to hold a block!");
+        }
+        if (segmentCount < 2) {
+            throw new IllegalArgumentException("Need at least two segments to rotate!");
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.blockBytes = blockBytes;
+        this.blockCount = (segmentBytes - RecordFormat.SEGMENT_HEADER_BYTES) / blockBytes;
+        this.sessionId = System.currentTimeMillis();
+
+        this.segments = new MappedByteBuffer[segmentCount];
+        this.files = new RandomAccessFile[segmentCount];
+
+        long newestSequence = -1;
+        int newestIndex = segmentCount - 1;
+
+        for (int i = 0; i < segmentCount; i++) {
+            RandomAccessFile file = new RandomAccessFile(new File(directory, RecordFormat.segmentName(i)), "rw");
+            boolean reusable = file.length() == segmentBytes;
+            file.setLength(segmentBytes);
+
+            files[i] = file;
+            segments[i] = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+
+            if (reusable && segments[i].getInt(0) == RecordFormat.SEGMENT_MAGIC) {
+                long existing = segments[i].getLong(RecordFormat.SEGMENT_SEQUENCE_OFFSET);
+                if (existing > newestSequence) {
+                    newestSequence = existing;
+                    newestIndex = i;
+                }
+            } else {
+                segments[i].putInt(0, 0);
+            }
+        }
+
+        this.keyWriter = new FileWriter(new File(directory, RecordFormat.keysName(sessionId)), StandardCharsets.UTF_8);
+        deleteStaleKeyFiles();
+
+        this.sequence = newestSequence;
+        this.segmentIndex = newestIndex;
+        startNextSegment();
+    }
+
+    /**
+     * Get the id of a key, giving it the next free id the first time it is seen.
+     *
+     * @param path the path of the data
+     * @param type one of the RecordFormat types
+     * @return the key id, or -1 if there are already {@link RecordFormat#MAX_KEYS} keys
+     */
+    public int key(String path, byte type) {
+        Integer id = keyIds.get(path);
+        if (id != null) return id;
+
+        if (keyIds.size() >= RecordFormat.MAX_KEYS) return -1;
+
+        int newId = keyIds.size();
+        keyIds.put(path, newId);
+
+        try {
+            keyWriter.write(newId + " " + RecordFormat.typeName(type) + " " + path + "\n");
+            keyWriter.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return newId;
+    }
+
+    public void recordDouble(int key, long timeMicros, double value) {
+        if (!reserve(key, RecordFormat.DOUBLE_RECORD_BYTES)) return;
+
+        writeHeader(key, timeMicros, RecordFormat.TYPE_DOUBLE);
+        segment.putDouble(cursor + RecordFormat.RECORD_HEADER_BYTES, value);
+        commit(key, timeMicros, RecordFormat.DOUBLE_RECORD_BYTES);
+    }
+
+    public void recordBoolean(int key, long timeMicros, boolean value) {
+        if (!reserve(key, RecordFormat.BOOLEAN_RECORD_BYTES)) return;
+
+        writeHeader(key, timeMicros, RecordFormat.TYPE_BOOLEAN);
+        segment.put(cursor + RecordFormat.RECORD_HEADER_BYTES, (byte) (value ? 1 : 0));
+        commit(key, timeMicros, RecordFormat.BOOLEAN_RECORD_BYTES);
+    }
+
+    public void recordString(int key, long timeMicros, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, RecordFormat.MAX_STRING_BYTES);
+        int size = RecordFormat.RECORD_HEADER_BYTES + 2 + length;
+
+        if (!reserve(key, size)) return;
+
+        writeHeader(key, timeMicros, RecordFormat.TYPE_STRING);
+        segment.putShort(cursor + RecordFormat.RECORD_HEADER_BYTES, (short) length);
+        for (int i = 0; i < length; i++) {
+            segment.put(cursor + RecordFormat.RECORD_HEADER_BYTES + 2 + i, bytes[i]);
+        }
+        commit(key, timeMicros, size);
+    }
+
+    private boolean reserve(int key, int size) {
+        if (key < 0) {
+            recordsDropped++;
+            return false;
+        }
+
+        if (cursor + size > blockStart + blockBytes) {
+            startNextBlock();
+        }
+
+        return true;
+    }
+
+    private void writeHeader(int key, long timeMicros, byte type) {
+        segment.putLong(cursor, timeMicros);
+        segment.putShort(cursor + 8, (short) key);
+        segment.put(cursor + 10, type);
+    }
+
+    private void commit(int key, long timeMicros, int size) {
+        cursor += size;
+
+        if (blockRecords == 0 || timeMicros < blockMinTime) {
+            blockMinTime = timeMicros;
+            segment.putLong(blockStart + RecordFormat.BLOCK_MIN_TIME_OFFSET, timeMicros);
+        }
+        if (blockRecords == 0 || timeMicros > blockMaxTime) {
+            blockMaxTime = timeMicros;
+            segment.putLong(blockStart + RecordFormat.BLOCK_MAX_TIME_OFFSET, timeMicros);
+        }
+        blockRecords++;
+
+        int bitmapByte = blockStart + RecordFormat.BLOCK_BITMAP_OFFSET + (key >> 3);
+        segment.put(bitmapByte, (byte) (segment.get(bitmapByte) | (1 << (key & 7))));
+
+        segment.putInt(blockStart + RecordFormat.BLOCK_USED_BYTES_OFFSET, cursor - blockStart);
+        // the count goes last, a reader never sees a record before it is complete
+        segment.putInt(blockStart + RecordFormat.BLOCK_RECORD_COUNT_OFFSET, blockRecords);
+
+        recordsWritten++;
+    }
+
+    private void startNextBlock() {
+        blockIndex++;
+
+        if (blockIndex >= blockCount) {
+            startNextSegment();
+            return;
+        }
+
+        openBlock();
+    }
+
+    private void startNextSegment() {
+        if (segment != null) {
+            segment.force();
+        }
+
+        segmentIndex = (segmentIndex + 1) % segments.length;
+        segment = segments[segmentIndex];
+        sequence++;
+        segmentsStarted++;
+
+        // invalidate everything from the previous lap before the header says this segment is live
+        segment.putInt(0, 0);
+        for (int i = 0; i < blockCount; i++) {
+            segment.putInt(blockOffset(i), 0);
+        }
+
+        segment.putShort(4, RecordFormat.VERSION);
+        segment.putLong(RecordFormat.SEGMENT_SEQUENCE_OFFSET, sequence);
+        segment.putLong(RecordFormat.SEGMENT_SESSION_OFFSET, sessionId);
+        segment.putInt(RecordFormat.SEGMENT_BLOCK_BYTES_OFFSET, blockBytes);
+        segment.putInt(RecordFormat.SEGMENT_BLOCK_COUNT_OFFSET, blockCount);
+        segment.putInt(0, RecordFormat.SEGMENT_MAGIC);
+
+        blockIndex = 0;
+        openBlock();
+    }
+
+    private void openBlock() {
+        blockStart = blockOffset(blockIndex);
+        cursor = blockStart + RecordFormat.BLOCK_HEADER_BYTES;
+        blockRecords = 0;
+
+        for (int i = 4; i < RecordFormat.BLOCK_HEADER_BYTES; i++) {
+            segment.put(blockStart + i, (byte) 0);
+        }
+        segment.putInt(blockStart + RecordFormat.BLOCK_USED_BYTES_OFFSET, RecordFormat.BLOCK_HEADER_BYTES);
+        segment.putInt(blockStart, RecordFormat.BLOCK_MAGIC);
+    }
+
+    private int blockOffset(int block) {
+        return RecordFormat.SEGMENT_HEADER_BYTES + block * blockBytes;
+    }
+
+    private void deleteStaleKeyFiles() {
+        File[] keyFiles = directory.listFiles((dir, name) -> name.startsWith(RecordFormat.KEYS_PREFIX) && name.endsWith(RecordFormat.KEYS_SUFFIX));
+        if (keyFiles == null) return;
+
+        for (File keyFile : keyFiles) {
+            String name = keyFile.getName();
+            long id;
+            try {
+                id = Long.parseLong(name.substring(RecordFormat.KEYS_PREFIX.length(), name.length() - RecordFormat.KEYS_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+
+            if (id != sessionId && !isSessionLive(id)) {
+                keyFile.delete();
+            }
+        }
+    }
+
+    private boolean isSessionLive(long id) {
+        for (MappedByteBuffer buffer : segments) {
+            if (buffer.getInt(0) == RecordFormat.SEGMENT_MAGIC && buffer.getLong(RecordFormat.SEGMENT_SESSION_OFFSET) == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ask the OS to write the current segment to disk, e.g. when the robot is disabled.
+     */
+    public void sync() {
+        segment.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync();
+        keyWriter.close();
+
+        for (RandomAccessFile file : files) {
+            file.close();
+        }
+    }
+
+    /**
+     * @return the total bytes on disk this recorder will ever use
+     */
+    public long getBudgetBytes() {
+        return (long) segmentBytes * segments.length;
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    public long getRecordsDropped() {
+        return recordsDropped;
+    }
+
+    public long getSegmentsStarted() {
+        return segmentsStarted;
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+}
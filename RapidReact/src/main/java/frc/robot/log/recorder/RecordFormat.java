@@ -0,0 +1,112 @@
+package frc.robot.log.recorder;
+
+/**
+ * Layout of the binary log files written by {@link LogRecorder}.
+ *
+ * A recording is a fixed ring of equally sized segment files. Each segment starts with a
+ * segment header followed by fixed size blocks:
+ *
+ * <pre>
+ * segment header (SEGMENT_HEADER_BYTES)
+ *   int   magic        SEGMENT_MAGIC
+ *   short version      VERSION
+ *   short unused
+ *   long  sequence     increases by one every time a segment is (re)started, orders the ring
+ *   long  sessionId    wall clock millis of the robot boot that wrote the segment
+ *   int   blockBytes
+ *   int   blockCount
+ *
+ * block header (BLOCK_HEADER_BYTES)
+ *   int   magic        BLOCK_MAGIC, zero if the block was never written in this lap of the ring
+ *   int   recordCount
+ *   int   usedBytes    including the header
+ *   int   unused
+ *   long  minTimeMicros
+ *   long  maxTimeMicros  records are stamped when logged, so they can be out of order by a loop
+ *   byte[KEY_BITMAP_BYTES] bit n is set if key id n has a record in the block
+ *
+ * record
+ *   long  timeMicros
+ *   short keyId
+ *   byte  type         TYPE_DOUBLE, TYPE_BOOLEAN or TYPE_STRING
+ *   ...   value        8 byte double, 1 byte boolean, or short length + UTF-8 bytes
+ * </pre>
+ *
+ * The block headers double as the index: a reader only has to look at them to know which blocks
+ * contain a key or a time range. Key names are stored next to the segments in one
+ * {@code session-<sessionId>.keys} file per session, one {@code id type path} line per key.
+ *
+ * Everything is big endian.
+ */
+public final class RecordFormat {
+
+    public static final int SEGMENT_MAGIC = 0x42424C47; // "BBLG"
+    public static final int BLOCK_MAGIC = 0x424C4B31; // "BLK1"
+    public static final short VERSION = 1;
+
+    public static final int SEGMENT_HEADER_BYTES = 64;
+    public static final int SEGMENT_SEQUENCE_OFFSET = 8;
+    public static final int SEGMENT_SESSION_OFFSET = 16;
+    public static final int SEGMENT_BLOCK_BYTES_OFFSET = 24;
+    public static final int SEGMENT_BLOCK_COUNT_OFFSET = 28;
+
+    public static final int MAX_KEYS = 1024;
+    public static final int KEY_BITMAP_BYTES = MAX_KEYS / 8;
+
+    public static final int BLOCK_RECORD_COUNT_OFFSET = 4;
+    public static final int BLOCK_USED_BYTES_OFFSET = 8;
+    public static final int BLOCK_MIN_TIME_OFFSET = 16;
+    public static final int BLOCK_MAX_TIME_OFFSET = 24;
+    public static final int BLOCK_BITMAP_OFFSET = 32;
+    public static final int BLOCK_HEADER_BYTES = BLOCK_BITMAP_OFFSET + KEY_BITMAP_BYTES;
+
+    public static final byte TYPE_DOUBLE = 1;
+    public static final byte TYPE_BOOLEAN = 2;
+    public static final byte TYPE_STRING = 3;
+
+    public static final int RECORD_HEADER_BYTES = 8 + 2 + 1;
+    public static final int DOUBLE_RECORD_BYTES = RECORD_HEADER_BYTES + 8;
+    public static final int BOOLEAN_RECORD_BYTES = RECORD_HEADER_BYTES + 1;
+    public static final int MAX_STRING_BYTES = 1024;
+
+    public static final String SEGMENT_PREFIX = "segment-";
+    public static final String SEGMENT_SUFFIX = ".bblog";
+    public static final String KEYS_PREFIX = "session-";
+    public static final String KEYS_SUFFIX = ".keys";
+
+    private RecordFormat() {}
+
+    public static String segmentName(int index) {
+        return SEGMENT_PREFIX + index + SEGMENT_SUFFIX;
+    }
+
+    public static String keysName(long sessionId) {
+        return KEYS_PREFIX + sessionId + KEYS_SUFFIX;
+    }
+
+    public static String typeName(byte type) {
+        switch (type) {
+            case TYPE_DOUBLE:
+                return "double";
+            case TYPE_BOOLEAN:
+                return "boolean";
+            case TYPE_STRING:
+                return "string";
+            default:
+                return "unknown";
+        }
+    }
+
+    public static byte typeFromName(String name) {
+        switch (name) {
+            case "double":
+                return TYPE_DOUBLE;
+            case "boolean":
+                return TYPE_BOOLEAN;
+            case "string":
+                return TYPE_STRING;
+            default:
+                return 0;
+        }
+    }
+}
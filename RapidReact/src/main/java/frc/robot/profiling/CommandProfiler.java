@@ -0,0 +1,85 @@
+package frc.robot.profiling;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Times every command through the {@link CommandScheduler} hooks and feeds the pieces to a
+ * {@link LoopProfiler}, so an overrun report names the commands that used the loop.
+ *
+ * The scheduler calls the execute hook right after {@code execute()}, so the time since the
+ * previous mark is the execute time of that command. Each command also gets a rolling window of
+ * its execute times and a {@link LoopTimer} under {@code timing/commands/<name>/execute}.
+ * Commands are kept by name, so a command built again for every match or button press shares
+ * the stats of the ones before it.
+ *
+ * Only commands the scheduler runs are timed. The scheduler never sees the commands inside a
+ * group, e.g. the {@code CustomPPSwerveControllerCommand} of an autonomous routine, so their
+ * time is billed to the group.
+ */
+public class CommandProfiler {
+
+    private static final int WINDOW = 50;
+
+    private final LoopProfiler loopProfiler;
+    private final Map<String, CommandStats> stats = new HashMap<>();
+
+    public CommandProfiler(LoopProfiler loopProfiler) {
+        this.loopProfiler = loopProfiler;
+    }
+
+    /**
+     * Start timing the commands of a scheduler.
+     *
+     * @param scheduler the scheduler, usually {@code CommandScheduler.getInstance()}
+     */
+    public void bind(CommandScheduler scheduler) {
+        scheduler.onCommandInitialize(command -> loopProfiler.mark(stats(command).initializeLabel));
+        scheduler.onCommandExecute(command -> {
+            CommandStats commandStats = stats(command);
+            commandStats.executed(loopProfiler.mark(commandStats.executeLabel));
+        });
+        scheduler.onCommandFinish(command -> loopProfiler.mark(stats(command).endLabel));
+        scheduler.onCommandInterrupt(command -> loopProfiler.mark(stats(command).endLabel));
+    }
+
+    private CommandStats stats(Command command) {
+        return stats.computeIfAbsent(command.getName(), CommandStats::new);
+    }
+
+    /**
+     * @param command a command
+     * @return the execute times of commands with its name over the last {@value WINDOW} loops
+     */
+    public RollingWindow getExecuteWindow(Command command) {
+        return stats(command).window;
+    }
+
+    private static final class CommandStats {
+
+        final String initializeLabel;
+        final String executeLabel;
+        final String endLabel;
+
+        final RollingWindow window = new RollingWindow(WINDOW);
+        final LoopTimer timer;
+
+        CommandStats(String name) {
+            this.initializeLabel = name + ".initialize";
+            this.executeLabel = name + ".execute";
+            this.endLabel = name + ".end";
+            this.timer = new LoopTimer("timing/commands/" + name + "/execute");
+        }
+
+        void executed(long nanos) {
+            // 0 means the command ran outside of a profiled loop
+            if (nanos == 0) return;
+
+            window.add(nanos);
+            timer.record(nanos);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package frc.robot.profiling;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import frc.robot.log.BooleanLoggable;
+import frc.robot.log.BucketLog;
+import frc.robot.log.DoubleLoggable;
+import frc.robot.log.LogLevel;
+import frc.robot.utils.DashboardKey;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Heap, allocation and GC telemetry of the robot loop, published under {@code jvm/}.
+ *
+ * Every loop publishes the bytes the robot thread allocated, the heap in use and whether a
+ * collection finished during the loop, so an overrun can be told apart as GC or code. Every
+ * pause is also published as it is reported by the JVM, from the JMX notification thread.
+ *
+ * <pre>
+ * jvmMetrics.beginLoop();
+ * ...
+ * loopProfiler.endLoop(jvmMetrics.endLoop());
+ * </pre>
+ */
+public class JvmMetrics {
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final com.sun.management.ThreadMXBean threads;
+    private final long threadId;
+
+    private long loopStartBytes;
+    private long loopStartCollections;
+
+    final DoubleLoggable loopAllocatedBytes = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.GENERAL, "jvm/loopAllocatedBytes");
+    final DoubleLoggable heapUsedMb = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.GENERAL, "jvm/heapUsedMb");
+    final BooleanLoggable gcInLoop = BucketLog.booleanLoggable(DashboardKey.LOOP_TIMING, LogLevel.GENERAL, "jvm/gcInLoop");
+    private final DoubleLoggable gcPauseMs = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.CRITICAL, "jvm/gcPauseMs");
+    final DoubleLoggable gcCount = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.GENERAL, "jvm/gcCount");
+
+    /**
+     * @param thread the thread whose allocations are counted, the robot thread
+     */
+    public JvmMetrics(Thread thread) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            this.threads = (com.sun.management.ThreadMXBean) threadBean;
+            this.threads.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.threads = null;
+        }
+        this.threadId = thread.getId();
+
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(this::onNotification, null, null);
+            }
+        }
+    }
+
+    private void onNotification(Notification notification, Object handback) {
+        if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        gcPauseMs.log(info.getGcInfo().getDuration());
+    }
+
+    public void beginLoop() {
+        loopStartBytes = allocatedBytes();
+        loopStartCollections = collections();
+    }
+
+    /**
+     * Publish the numbers of the loop.
+     *
+     * @return true if a collection finished during the loop
+     */
+    public boolean endLoop() {
+        long collections = collections();
+        boolean collected = collections != loopStartCollections;
+
+        if (threads != null) loopAllocatedBytes.log(allocatedBytes() - loopStartBytes);
+
+        Runtime runtime = Runtime.getRuntime();
+        heapUsedMb.log((runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024.0));
+
+        gcInLoop.log(collected);
+        gcCount.log(collections);
+
+        return collected;
+    }
+
+    private long allocatedBytes() {
+        // on Java 11 the call itself allocates two one element arrays, a constant few dozen bytes a loop
+        return threads == null ? 0 : threads.getThreadAllocatedBytes(threadId);
+    }
+
+    private long collections() {
+        long count = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            count += collectors.get(i).getCollectionCount();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,226 @@
+package frc.robot.profiling;
+
+import frc.robot.log.BucketLog;
+import frc.robot.log.DoubleLoggable;
+import frc.robot.log.LogLevel;
+import frc.robot.log.Loggable;
+import frc.robot.log.Put;
+import frc.robot.utils.DashboardKey;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Splits every robot loop into labelled pieces (subsystem periodics, command phases, ...) and
+ * reports the biggest ones when the loop runs over budget.
+ *
+ * Each piece is the time since the previous mark, so the labels cover the whole loop without
+ * nested timers. The pieces of a loop live in preallocated arrays, a report string is only
+ * built for loops that overrun. Only used from the main robot thread.
+ */
+public class LoopProfiler {
+
+    private static final LoopProfiler robotProfiler = new LoopProfiler(20_000_000L, 64, 5);
+
+    /**
+     * @return the profiler of the robot loop
+     */
+    public static LoopProfiler get() {
+        return robotProfiler;
+    }
+
+    private final LongSupplier clockNanos;
+    private final long budgetNanos;
+    private final int reportedPieces;
+
+    private final String[] labels;
+    private final long[] durations;
+    private int pieces;
+
+    private boolean inLoop;
+    private long loopStart;
+    private long lastMark;
+
+    // loopStart for other threads, 0 between loops
+    private volatile long runningSince;
+
+    private long overrunCount;
+    private long gcOverrunCount;
+    private String lastReport;
+
+    private final Loggable<String> overrunReport = BucketLog.loggable(DashboardKey.LOOP_TIMING, LogLevel.CRITICAL, Put.STRING, "timing/overrunReport");
+    private final DoubleLoggable overruns = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.CRITICAL, "timing/overruns");
+    private final DoubleLoggable gcOverruns = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.CRITICAL, "timing/gcOverruns");
+
+    /**
+     * @param budgetNanos a loop longer than this is an overrun
+     * @param maxPieces pieces kept per loop, later ones are only counted in the loop total
+     * @param reportedPieces how many of the biggest pieces an overrun report names
+     */
+    public LoopProfiler(long budgetNanos, int maxPieces, int reportedPieces) {
+        this(System::nanoTime, budgetNanos, maxPieces, reportedPieces);
+    }
+
+    /**
+     * @param clockNanos the clock, {@link System#nanoTime()} outside of tests
+     * @param budgetNanos a loop longer than this is an overrun
+     * @param maxPieces pieces kept per loop, later ones are only counted in the loop total
+     * @param reportedPieces how many of the biggest pieces an overrun report names
+     */
+    public LoopProfiler(LongSupplier clockNanos, long budgetNanos, int maxPieces, int reportedPieces) {
+        this.clockNanos = clockNanos;
+        this.budgetNanos = budgetNanos;
+        this.reportedPieces = reportedPieces;
+        this.labels = new String[maxPieces];
+        this.durations = new long[maxPieces];
+    }
+
+    public void beginLoop() {
+        inLoop = true;
+        pieces = 0;
+        loopStart = clockNanos.getAsLong();
+        lastMark = loopStart;
+        runningSince = loopStart;
+    }
+
+    /**
+     * Attribute the time since the previous mark to a label.
+     *
+     * @param label what ran since the previous mark, should be a constant
+     * @return the time attributed, 0 outside of a loop
+     */
+    public long mark(String label) {
+        long now = clockNanos.getAsLong();
+        long elapsed = now - lastMark;
+        lastMark = now;
+
+        if (!inLoop) return 0;
+
+        add(label, elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Attribute the time since a start time to a label, for code that times itself.
+     *
+     * @param label what ran, should be a constant
+     * @param startNanos when it started
+     * @return how long it took
+     */
+    public long record(String label, long startNanos) {
+        long now = clockNanos.getAsLong();
+        lastMark = now;
+
+        long elapsed = now - startNanos;
+        if (inLoop) add(label, elapsed);
+        return elapsed;
+    }
+
+    private void add(String label, long elapsed) {
+        if (pieces < labels.length) {
+            labels[pieces] = label;
+            durations[pieces] = elapsed;
+            pieces++;
+        }
+    }
+
+    /**
+     * Finish the loop, publishing a report if it ran over budget.
+     *
+     * @return the loop time in nanoseconds
+     */
+    public long endLoop() {
+        return endLoop(false);
+    }
+
+    /**
+     * Finish the loop, publishing a report if it ran over budget.
+     *
+     * @param collected true if a garbage collection finished during the loop, see {@link JvmMetrics}
+     * @return the loop time in nanoseconds
+     */
+    public long endLoop(boolean collected) {
+        long loopNanos = clockNanos.getAsLong() - loopStart;
+        inLoop = false;
+        runningSince = 0;
+
+        if (loopNanos > budgetNanos) {
+            overrunCount++;
+            lastReport = report(loopNanos, collected);
+
+            overruns.log(overrunCount);
+            if (collected) gcOverruns.log(++gcOverrunCount);
+            overrunReport.log(lastReport);
+        }
+
+        return loopNanos;
+    }
+
+    private String report(long loopNanos, boolean collected) {
+        // selection sort of the few biggest pieces, in place, the arrays are cleared next loop anyway
+        int shown = Math.min(reportedPieces, pieces);
+        for (int i = 0; i < shown; i++) {
+            int biggest = i;
+            for (int j = i + 1; j < pieces; j++) {
+                if (durations[j] > durations[biggest]) biggest = j;
+            }
+
+            long duration = durations[i];
+            durations[i] = durations[biggest];
+            durations[biggest] = duration;
+
+            String label = labels[i];
+            labels[i] = labels[biggest];
+            labels[biggest] = label;
+        }
+
+        StringBuilder report = new StringBuilder()
+                .append("Loop overrun ")
+                .append(millis(loopNanos))
+                .append(collected ? " ms with GC:" : " ms:");
+
+        for (int i = 0; i < shown; i++) {
+            report.append(i == 0 ? " " : ", ")
+                    .append(labels[i])
+                    .append(' ')
+                    .append(millis(durations[i]))
+                    .append(" ms");
+        }
+
+        return report.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    /**
+     * Safe to call from any thread.
+     *
+     * @return the {@link System#nanoTime()} the current loop started at, 0 between loops
+     */
+    public long getRunningSince() {
+        return runningSince;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * @return how many of the overruns had a garbage collection in them
+     */
+    public long getGcOverrunCount() {
+        return gcOverrunCount;
+    }
+
+    /**
+     * @return the report of the last overrun, null if there was none
+     */
+    public String getLastReport() {
+        return lastReport;
+    }
+}
@@ -0,0 +1,68 @@
+package frc.robot.profiling;
+
+import frc.robot.log.BucketLog;
+import frc.robot.log.DoubleLoggable;
+import frc.robot.log.LogLevel;
+import frc.robot.utils.DashboardKey;
+
+/**
+ * Times a piece of the robot loop with {@link System#nanoTime()} and publishes the p50, p99 and
+ * max of each window of samples under {@code <path>/p50Ms}, {@code <path>/p99Ms} and
+ * {@code <path>/maxMs}.
+ *
+ * <pre>
+ * long start = timer.start();
+ * doWork();
+ * timer.stop(start);
+ * </pre>
+ *
+ * Costs two nanoTime calls and a histogram increment per sample, cheap enough to stay on at
+ * competition.
+ */
+public class LoopTimer {
+
+    // 50 loops, one window per second
+    public static final int DEFAULT_WINDOW = 50;
+
+    private final TimingHistogram histogram = new TimingHistogram(25, 40_000);
+    private final int window;
+
+    private final DoubleLoggable p50;
+    private final DoubleLoggable p99;
+    private final DoubleLoggable max;
+
+    public LoopTimer(String path) {
+        this(path, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param path where to publish the results
+     * @param window number of samples per published window
+     */
+    public LoopTimer(String path, int window) {
+        this.window = window;
+
+        this.p50 = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.GENERAL, path + "/p50Ms");
+        this.p99 = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.GENERAL, path + "/p99Ms");
+        this.max = BucketLog.doubleLoggable(DashboardKey.LOOP_TIMING, LogLevel.GENERAL, path + "/maxMs");
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    public void record(long nanos) {
+        histogram.record(nanos);
+
+        if (histogram.getCount() >= window) {
+            p50.log(histogram.percentileMillis(50));
+            p99.log(histogram.percentileMillis(99));
+            max.log(histogram.maxMillis());
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package frc.robot.profiling;
+
+/**
+ * The last few durations of something, kept in a fixed ring so adding one never allocates.
+ * Not thread safe.
+ */
+public class RollingWindow {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+    private long sum;
+
+    public RollingWindow(int length) {
+        this.samples = new long[length];
+    }
+
+    public void add(long nanos) {
+        if (size == samples.length) {
+            sum -= samples[next];
+        } else {
+            size++;
+        }
+
+        samples[next] = nanos;
+        sum += nanos;
+        next = (next + 1) % samples.length;
+    }
+
+    public double meanMillis() {
+        return size == 0 ? 0 : sum / (double) size / 1e6;
+    }
+
+    public double maxMillis() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max / 1e6;
+    }
+
+    public int size() {
+        return size;
+    }
+}
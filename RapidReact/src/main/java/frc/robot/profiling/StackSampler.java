@@ -0,0 +1,242 @@
+package frc.robot.profiling;
+
+import frc.robot.log.BucketLog;
+import frc.robot.log.LogLevel;
+import frc.robot.log.Loggable;
+import frc.robot.log.Put;
+import frc.robot.log.recorder.RecordFormat;
+import frc.robot.utils.DashboardKey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Finds where the time goes in loops that overrun. A low priority thread wakes up every few
+ * milliseconds and, while the robot thread is in a loop that is past its budget, samples its
+ * stack into a call tree. {@link #dump()} writes the tree to {@code profiling/stalls} as one
+ * string, a line per frame, and starts a new one. The recorder cuts strings at
+ * {@link RecordFormat#MAX_STRING_BYTES}, so the tree is also logged in whole lines under
+ * {@code profiling/stalls/0}, {@code profiling/stalls/1}, ... for reading it back from the log.
+ *
+ * This sees what the timers can't: blocking CAN config calls, NetworkTables locks, GC pauses
+ * in the middle of a subsystem. Sampling only happens during overruns, so a healthy loop costs
+ * nothing but a volatile write per loop in {@link LoopProfiler}.
+ */
+public class StackSampler {
+
+    // bounds the memory of a tree from a very unhealthy match
+    private static final int MAX_NODES = 4096;
+    private static final int MAX_DEPTH = 64;
+
+    // frames below this one are the same in every sample
+    private static final String LOOP_METHOD = "loopFunc";
+
+    private final Thread target;
+    private final LoopProfiler loopProfiler;
+    private final long periodMillis;
+    private final double minPercent;
+
+    private static final String STALLS_PATH = "profiling/stalls";
+
+    private final Function<String, Loggable<String>> loggables;
+    private final Loggable<String> stalls;
+
+    // made on first use, a chunk left over from a bigger dump is logged empty
+    private final List<Loggable<String>> chunks = new ArrayList<>();
+    private int chunksUsed;
+
+    // guarded by this
+    private Node root = new Node(null);
+    private int nodes;
+
+    private Thread thread;
+
+    /**
+     * @param target the thread to sample, the robot thread
+     * @param loopProfiler tells when the target is in a loop and what the budget is
+     * @param periodMillis time between two samples
+     * @param minPercent frames in fewer samples than this are left out of the dump
+     */
+    public StackSampler(Thread target, LoopProfiler loopProfiler, long periodMillis, double minPercent) {
+        this(target, loopProfiler, periodMillis, minPercent,
+                path -> BucketLog.loggable(DashboardKey.LOOP_TIMING, LogLevel.CRITICAL, Put.STRING, path));
+    }
+
+    StackSampler(Thread target, LoopProfiler loopProfiler, long periodMillis, double minPercent, Function<String, Loggable<String>> loggables) {
+        if (periodMillis < 1) throw new IllegalArgumentException("Period must be at least 1 ms!");
+
+        this.target = target;
+        this.loopProfiler = loopProfiler;
+        this.periodMillis = periodMillis;
+        this.minPercent = minPercent;
+        this.loggables = loggables;
+        this.stalls = loggables.apply(STALLS_PATH);
+    }
+
+    public synchronized void start() {
+        if (thread != null) return;
+
+        thread = new Thread(this::run, "StackSampler");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null) return;
+
+        thread.interrupt();
+        thread = null;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(periodMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long since = loopProfiler.getRunningSince();
+            if (since != 0 && System.nanoTime() - since > loopProfiler.getBudgetNanos()) {
+                add(target.getStackTrace());
+            }
+        }
+    }
+
+    /**
+     * Add one sample to the tree.
+     *
+     * @param stack a stack, innermost frame first like {@link Thread#getStackTrace()}
+     */
+    public synchronized void add(StackTraceElement[] stack) {
+        int bottom = stack.length - 1;
+        for (int i = stack.length - 1; i >= 0; i--) {
+            if (stack[i].getMethodName().equals(LOOP_METHOD)) {
+                bottom = i;
+                break;
+            }
+        }
+
+        Node node = root;
+        node.count++;
+
+        for (int i = bottom, depth = 0; i >= 0 && depth < MAX_DEPTH; i--, depth++) {
+            Node child = node.children.get(stack[i]);
+            if (child == null) {
+                if (nodes >= MAX_NODES) return;
+
+                child = new Node(stack[i]);
+                node.children.put(stack[i], child);
+                nodes++;
+            }
+
+            child.count++;
+            node = child;
+        }
+    }
+
+    /**
+     * Log the tree collected since the last dump and start a new one. Does nothing if there were
+     * no samples. Call it when the robot is disabled.
+     *
+     * @return the logged lines
+     */
+    public List<String> dump() {
+        Node tree;
+        synchronized (this) {
+            tree = root;
+            root = new Node(null);
+            nodes = 0;
+        }
+
+        List<String> lines = new ArrayList<>();
+        if (tree.count == 0) return lines;
+
+        lines.add(tree.count + " samples of " + periodMillis + " ms in overrunning loops");
+        write(tree, tree.count, "", lines);
+
+        // one value, the publisher only keeps the newest value of a path per flush
+        stalls.log(String.join("\n", lines));
+
+        List<String> parts = chunk(lines, RecordFormat.MAX_STRING_BYTES);
+        for (int i = 0; i < parts.size(); i++) {
+            chunk(i).log(parts.get(i));
+        }
+        for (int i = parts.size(); i < chunksUsed; i++) {
+            chunk(i).log("");
+        }
+        chunksUsed = parts.size();
+
+        return lines;
+    }
+
+    private Loggable<String> chunk(int index) {
+        while (chunks.size() <= index) {
+            chunks.add(loggables.apply(STALLS_PATH + "/" + chunks.size()));
+        }
+        return chunks.get(index);
+    }
+
+    /**
+     * Join lines into as few strings of at most maxBytes as possible without splitting a line.
+     * A line longer than maxBytes gets a string of its own.
+     */
+    static List<String> chunk(List<String> lines, int maxBytes) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        int partBytes = 0;
+
+        for (String line : lines) {
+            int bytes = line.getBytes(StandardCharsets.UTF_8).length;
+            if (part.length() > 0 && partBytes + 1 + bytes > maxBytes) {
+                parts.add(part.toString());
+                part.setLength(0);
+                partBytes = 0;
+            }
+
+            if (part.length() > 0) {
+                part.append('\n');
+                partBytes++;
+            }
+            part.append(line);
+            partBytes += bytes;
+        }
+
+        if (part.length() > 0) parts.add(part.toString());
+        return parts;
+    }
+
+    private void write(Node node, int total, String indent, List<String> lines) {
+        List<Node> children = new ArrayList<>(node.children.values());
+        children.sort((a, b) -> b.count - a.count);
+
+        for (Node child : children) {
+            double percent = 100.0 * child.count / total;
+            if (percent < minPercent) break;
+
+            lines.add(String.format("%s%d %.0f%% %s", indent, child.count, percent, frame(child.frame)));
+            write(child, total, indent + "  ", lines);
+        }
+    }
+
+    private static String frame(StackTraceElement element) {
+        String className = element.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + element.getMethodName() + ":" + element.getLineNumber();
+    }
+
+    private static final class Node {
+
+        final StackTraceElement frame;
+        final Map<StackTraceElement, Node> children = new HashMap<>();
+        int count;
+
+        Node(StackTraceElement frame) {
+            this.frame = frame;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package frc.robot.profiling;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations with fixed size linear buckets, backed by one preallocated int array.
+ * Recording is an index computation and an increment, there is no allocation or sorting.
+ *
+ * Durations longer than the range all land in the last bucket, the exact maximum is kept
+ * separately. Not thread safe.
+ */
+public class TimingHistogram {
+
+    private final long bucketNanos;
+    private final int[] counts;
+
+    private int count;
+    private long maxNanos;
+
+    /**
+     * @param bucketMicros width of a bucket, the resolution of the percentiles
+     * @param rangeMicros longest duration that gets its own bucket
+     */
+    public TimingHistogram(int bucketMicros, int rangeMicros) {
+        if (bucketMicros <= 0 || rangeMicros < bucketMicros) throw new IllegalArgumentException("Bad histogram range!");
+
+        this.bucketNanos = bucketMicros * 1000L;
+        this.counts = new int[rangeMicros / bucketMicros + 1];
+    }
+
+    public void record(long nanos) {
+        long bucket = Math.max(0, nanos) / bucketNanos;
+        counts[(int) Math.min(bucket, counts.length - 1)]++;
+
+        count++;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    /**
+     * @param percent e.g. 99 for the p99
+     * @return the upper edge of the bucket holding the percentile in milliseconds, 0 if empty
+     */
+    public double percentileMillis(double percent) {
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // the overflow bucket has no upper edge, the max is the best answer there
+                if (i == counts.length - 1) return maxMillis();
+                return Math.min((i + 1) * bucketNanos, maxNanos) / 1e6;
+            }
+        }
+
+        return maxMillis();
+    }
+
+    public double maxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        maxNanos = 0;
+    }
+}
@@ -0,0 +1,354 @@
+package frc.robot.simulator;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Robot;
+import frc.robot.commands.AutonomousCommand;
+import frc.robot.commands.AutonomousFollowPathCommand;
+import frc.robot.config.Config;
+import frc.robot.subsystem.DrivetrainSubsystem;
+import frc.robot.utils.AutonomousPath;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every {@link AutonomousPath} through a simulated autonomous period and prints a scorecard,
+ * run it with {@code ./gradlew evaluateAutos}.
+ *
+ * <pre>
+ * AutonomousEvaluation [--threads n] [--maxPoseError m] [--csv out.csv] [path...]
+ * </pre>
+ *
+ * The HAL simulation is global to a JVM, so every routine runs in a JVM of its own, as many at a
+ * time as there are cores. Exits with 1 if a routine crashes, doesn't finish within the autonomous
+ * period, or ends more than maxPoseError meters from where its last path ends.
+ */
+public class AutonomousEvaluation {
+
+    public static final double AUTONOMOUS_SECONDS = 15;
+
+    // all wheels slower than this is standing still
+    private static final double DRIVING_SPEED = 0.05;
+
+    private static final String WORKER = "--worker";
+    private static final String SCORE_PREFIX = "AUTO_SCORE ";
+    private static final int OUTPUT_TAIL_LINES = 20;
+
+    /**
+     * How one routine did, times in seconds. NaN where there is nothing to measure, e.g. the pose
+     * error of a routine that doesn't follow a path.
+     */
+    public static class Score {
+
+        public final AutonomousPath path;
+        public final double poseErrorMeters;
+        public final double headingErrorDegrees;
+        public final double completionSeconds;
+        public final double drivingSeconds;
+        public final double waitingSeconds;
+        public final double peakLoopMillis;
+        public final String failure;
+
+        Score(AutonomousPath path, double poseErrorMeters, double headingErrorDegrees, double completionSeconds,
+              double drivingSeconds, double waitingSeconds, double peakLoopMillis, String failure) {
+            this.path = path;
+            this.poseErrorMeters = poseErrorMeters;
+            this.headingErrorDegrees = headingErrorDegrees;
+            this.completionSeconds = completionSeconds;
+            this.drivingSeconds = drivingSeconds;
+            this.waitingSeconds = waitingSeconds;
+            this.peakLoopMillis = peakLoopMillis;
+            this.failure = failure;
+        }
+
+        static Score failed(AutonomousPath path, String failure) {
+            return new Score(path, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, failure);
+        }
+
+        /**
+         * @return why the routine doesn't pass the gate, null if it does
+         */
+        public String check(double maxPoseErrorMeters) {
+            if (failure != null) return failure;
+            if (Double.isNaN(completionSeconds)) return "did not finish in " + AUTONOMOUS_SECONDS + " s";
+            if (poseErrorMeters > maxPoseErrorMeters) return String.format("ended %.2f m off", poseErrorMeters);
+            return null;
+        }
+
+        String encode() {
+            return path + " " + poseErrorMeters + " " + headingErrorDegrees + " " + completionSeconds + " "
+                + drivingSeconds + " " + waitingSeconds + " " + peakLoopMillis;
+        }
+
+        static Score decode(String line) {
+            String[] words = line.trim().split(" ");
+            if (words.length != 7) throw new IllegalArgumentException("Bad score: " + line);
+
+            return new Score(
+                AutonomousPath.valueOf(words[0]),
+                Double.parseDouble(words[1]),
+                Double.parseDouble(words[2]),
+                Double.parseDouble(words[3]),
+                Double.parseDouble(words[4]),
+                Double.parseDouble(words[5]),
+                Double.parseDouble(words[6]),
+                null
+            );
+        }
+    }
+
+    /**
+     * Watches the autonomous command and the simulated drivetrain after every loop.
+     */
+    private static class Tracker implements HeadlessSimulation.LoopListener {
+
+        final double period;
+
+        Optional<Pose2d> target = Optional.empty();
+        Pose2d finalPose;
+        double completionSeconds = Double.NaN;
+        double drivingSeconds;
+        double waitingSeconds;
+
+        Tracker(double period) {
+            this.period = period;
+        }
+
+        @Override
+        public void afterLoop(Robot robot, double timeSeconds) {
+            Command command = robot.getAutonomousCommand();
+            DrivetrainSubsystem drive = robot.getDrivetrainSubsystem();
+            if (command == null || drive == null || finalPose != null || timeSeconds > AUTONOMOUS_SECONDS) return;
+
+            SwerveDrivetrainSim sim = drive.getSimulation();
+            if (!command.isScheduled()) {
+                target = targetPose(command);
+                finalPose = sim.getPose();
+                completionSeconds = timeSeconds;
+                return;
+            }
+
+            boolean driving = false;
+            for (int i = 0; i < 4; i++) {
+                driving |= Math.abs(sim.getWheelSpeedMetersPerSecond(i)) > DRIVING_SPEED;
+            }
+
+            if (driving) {
+                drivingSeconds += period;
+            } else {
+                waitingSeconds += period;
+            }
+        }
+    }
+
+    /**
+     * Where a routine should end up, the end of the last path it follows.
+     */
+    static Optional<Pose2d> targetPose(Command command) {
+        if (command instanceof AutonomousCommand) {
+            return ((AutonomousCommand) command).getFinalPosition();
+        }
+        if (command instanceof AutonomousFollowPathCommand) {
+            return Optional.of(AutonomousFollowPathCommand.endPose(((AutonomousFollowPathCommand) command).getTrajectory()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Simulate one routine in this JVM. Only one routine can be simulated per JVM.
+     */
+    public static Score evaluate(AutonomousPath path) throws InterruptedException {
+        Config config = new Config();
+        // not needed here, and workers running side by side would share the recorder's files
+        config.log.enableRecorder = false;
+        config.log.enableStackSampler = false;
+
+        double period = TimedRobot.kDefaultPeriod;
+        SimScript script = SimScript.parse(Arrays.asList(
+            "0 path " + path,
+            "0 auto",
+            AUTONOMOUS_SECONDS + " disable",
+            (AUTONOMOUS_SECONDS + period) + " end"
+        ));
+
+        Tracker tracker = new Tracker(period);
+        HeadlessSimulation.Report report = new HeadlessSimulation(script, config, period).onLoop(tracker).run();
+        if (report.isFailed()) return Score.failed(path, report.failure);
+
+        double poseError = Double.NaN;
+        double headingError = Double.NaN;
+        if (tracker.target.isPresent()) {
+            Pose2d target = tracker.target.get();
+            poseError = tracker.finalPose.getTranslation().getDistance(target.getTranslation());
+            headingError = Math.toDegrees(Math.abs(MathUtil.angleModulus(
+                tracker.finalPose.getRotation().getRadians() - target.getRotation().getRadians()
+            )));
+        }
+
+        return new Score(path, poseError, headingError, tracker.completionSeconds,
+            tracker.drivingSeconds, tracker.waitingSeconds, report.peakLoopMillis, null);
+    }
+
+    /**
+     * Simulate a routine in a new JVM with the same classpath and native libraries as this one.
+     */
+    static Score evaluateInWorker(AutonomousPath path) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Djava.library.path=" + System.getProperty("java.library.path"));
+        command.add(AutonomousEvaluation.class.getName());
+        command.add(WORKER);
+        command.add(path.name());
+
+        Deque<String> tail = new ArrayDeque<>();
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+            String score = null;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(SCORE_PREFIX)) {
+                        score = line.substring(SCORE_PREFIX.length());
+                    }
+
+                    tail.addLast(line);
+                    if (tail.size() > OUTPUT_TAIL_LINES) tail.removeFirst();
+                }
+            }
+
+            int exit = process.waitFor();
+            if (score != null) return Score.decode(score);
+
+            return Score.failed(path, "worker exited with " + exit + ":\n  " + String.join("\n  ", tail));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Score.failed(path, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Score.failed(path, "interrupted");
+        }
+    }
+
+    /**
+     * Simulate routines side by side, one worker JVM each.
+     *
+     * @return the scores in the order of the paths
+     */
+    public static List<Score> evaluateAll(List<AutonomousPath> paths, int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Score>> futures = new ArrayList<>();
+            for (AutonomousPath path : paths) {
+                futures.add(executor.submit(() -> evaluateInWorker(path)));
+            }
+
+            List<Score> scores = new ArrayList<>();
+            for (int i = 0; i < paths.size(); i++) {
+                try {
+                    scores.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    e.printStackTrace();
+                    scores.add(Score.failed(paths.get(i), e.getCause().toString()));
+                }
+            }
+            return scores;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String number(double value, String format) {
+        return Double.isNaN(value) ? "-" : String.format(format, value);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 2 && args[0].equals(WORKER)) {
+            Score score = evaluate(AutonomousPath.valueOf(args[1]));
+            System.out.println(SCORE_PREFIX + score.encode());
+            // robot threads (notifiers, NetworkTables) aren't all daemons
+            System.exit(0);
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        double maxPoseError = 0.25;
+        File csv = null;
+        List<AutonomousPath> paths = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--maxPoseError":
+                    maxPoseError = Double.parseDouble(args[++i]);
+                    break;
+                case "--csv":
+                    csv = new File(args[++i]);
+                    break;
+                default:
+                    paths.add(AutonomousPath.valueOf(args[i]));
+            }
+        }
+        if (paths.isEmpty()) paths.addAll(Arrays.asList(AutonomousPath.values()));
+
+        long start = System.nanoTime();
+        List<Score> scores = evaluateAll(paths, threads);
+
+        System.out.println(String.format("%-42s %8s %8s %8s %8s %8s %8s  %s",
+            "routine", "error m", "error deg", "done s", "drive s", "wait s", "peak ms", "result"));
+
+        boolean passed = true;
+        for (Score score : scores) {
+            String problem = score.check(maxPoseError);
+            passed &= problem == null;
+
+            System.out.println(String.format("%-42s %8s %8s %8s %8s %8s %8s  %s",
+                score.path,
+                number(score.poseErrorMeters, "%.3f"),
+                number(score.headingErrorDegrees, "%.1f"),
+                number(score.completionSeconds, "%.2f"),
+                number(score.drivingSeconds, "%.2f"),
+                number(score.waitingSeconds, "%.2f"),
+                number(score.peakLoopMillis, "%.1f"),
+                problem == null ? "ok" : "FAIL " + problem));
+        }
+
+        System.out.println(String.format("%d routines on %d threads in %.1f s",
+            scores.size(), threads, (System.nanoTime() - start) / 1e9));
+
+        if (csv != null) {
+            try (PrintWriter writer = new PrintWriter(csv, StandardCharsets.UTF_8)) {
+                writer.println("routine,poseErrorMeters,headingErrorDegrees,completionSeconds,drivingSeconds,waitingSeconds,peakLoopMillis,failure");
+                for (Score score : scores) {
+                    String failure = score.check(maxPoseError);
+                    writer.println(score.path + "," + score.poseErrorMeters + "," + score.headingErrorDegrees + ","
+                        + score.completionSeconds + "," + score.drivingSeconds + "," + score.waitingSeconds + ","
+                        + score.peakLoopMillis + "," + (failure == null ? "" : '"' + failure.replace("\"", "\"\"") + '"'));
+                }
+            }
+        }
+
+        System.exit(passed ? 0 : 1);
+    }
+}
@@ -1,14 +1,45 @@
 package frc.robot.simulator;
 
 import java.util.*;
+import java.util.function.LongSupplier;
+
 import com.ctre.phoenix.motorcontrol.can.*;
+import edu.wpi.first.wpilibj.RobotController;
 
 /**
  * Manages physics simulation for CTRE products.
+ *
+ * Time comes from a clock in microseconds, the FPGA clock by default, so the simulation follows
+ * simulated time when timing is paused. Noise comes from one seedable generator shared by all
+ * devices; with a fixed seed and {@link #run(double)} the simulation is reproducible.
  */
 public class CTREPhysicsSim {
     private static final CTREPhysicsSim sim = new CTREPhysicsSim();
 
+    private final Random _random;
+    private LongSupplier _clockMicros;
+
+    private CTREPhysicsSim() {
+        this(new Random(), RobotController::getFPGATime);
+    }
+
+    /**
+     * Creates a simulator separate from the robot's.
+     *
+     * @param seed
+     *        Seed of the noise added to the devices
+     * @param clockMicros
+     *        Current time, in microseconds
+     */
+    public CTREPhysicsSim(long seed, LongSupplier clockMicros) {
+        this(new Random(seed), clockMicros);
+    }
+
+    private CTREPhysicsSim(Random random, LongSupplier clockMicros) {
+        this._random = random;
+        this._clockMicros = clockMicros;
+    }
+
     /**
      * Gets the robot simulator instance.
      */
@@ -16,6 +47,23 @@ public class CTREPhysicsSim {
         return sim;
     }
 
+    /**
+     * Restarts the noise of every device from a seed.
+     */
+    public void setSeed(long seed) {
+        _random.setSeed(seed);
+    }
+
+    /**
+     * Sets where {@link #run()} gets the time from.
+     *
+     * @param clockMicros
+     *        Current time, in microseconds
+     */
+    public void setClock(LongSupplier clockMicros) {
+        _clockMicros = clockMicros;
+    }
+
     /**
      * Adds a TalonSRX controller to the simulator.
      * 
@@ -44,7 +92,7 @@ public class CTREPhysicsSim {
      */
     public void addTalonSRX(TalonSRX talon, final double accelToFullTime, final double fullVel, final boolean sensorPhase) {
         if (talon != null) {
-            TalonSRXSimProfile simTalon = new TalonSRXSimProfile(talon, accelToFullTime, fullVel, sensorPhase);
+            TalonSRXSimProfile simTalon = new TalonSRXSimProfile(talon, accelToFullTime, fullVel, sensorPhase, _random);
             _simProfiles.add(simTalon);
         }
     }
@@ -57,62 +105,105 @@ public class CTREPhysicsSim {
      */
     public void addVictorSPX(VictorSPX victor) {
         if (victor != null) {
-            VictorSPXSimProfile simVictor = new VictorSPXSimProfile(victor);
+            VictorSPXSimProfile simVictor = new VictorSPXSimProfile(victor, _random);
             _simProfiles.add(simVictor);
         }
     }
 
+    Random getRandom() {
+        return _random;
+    }
+
+    void addProfile(SimProfile profile) {
+        _simProfiles.add(profile);
+    }
+
     /**
-     * Runs the simulator:
+     * Runs the simulator for the time passed on the clock since the last run:
      * - enable the robot
      * - simulate TalonSRX sensors
      */
     public void run() {
+        long now = _clockMicros.getAsLong();
         // Simulate devices
         for (SimProfile simProfile : _simProfiles) {
-            simProfile.run();
+            simProfile.run(simProfile.getPeriod(now));
         }
     }
 
-    private final ArrayList<SimProfile> _simProfiles = new ArrayList<SimProfile>();
+    /**
+     * Runs the simulator for a fixed time, ignoring the clock. The next {@link #run()} starts
+     * timing from its own call, the time passed on the clock in between isn't simulated twice.
+     *
+     * @param dtSeconds
+     *        Time to simulate
+     */
+    public void run(double dtSeconds) {
+        if (dtSeconds < 0) throw new IllegalArgumentException("Time step can't be negative!");
 
-    /* scales a random domain of [0, 2pi] to [min, max] while prioritizing the peaks */
-    static double random(double min, double max) {
-        return (max - min) / 2 * Math.sin(Math.IEEEremainder(Math.random(), 2 * 3.14159)) + (max + min) / 2;
-    }
-    static double random(double max) {
-        return random(0, max);
+        for (SimProfile simProfile : _simProfiles) {
+            simProfile.run(dtSeconds * 1000);
+            simProfile.restartPeriod();
+        }
     }
 
+    private final ArrayList<SimProfile> _simProfiles = new ArrayList<SimProfile>();
+
     
     /**
      * Holds information about a simulated device.
      */
     static class SimProfile {
+        private final Random _random;
         private long _lastTime;
         private boolean _running = false;
 
+        SimProfile(Random random) {
+            this._random = random;
+        }
+
         /**
          * Runs the simulation profile.
          * Implemented by device-specific profiles.
+         *
+         * @param period
+         *        Time since the last run, in milliseconds
          */
-        public void run() {}
+        public void run(double period) {}
 
         /**
          * Returns the time since last call, in milliseconds.
+         *
+         * @param now
+         *        Current time, in microseconds
          */
-        protected double getPeriod() {
+        double getPeriod(long now) {
             // set the start time if not yet running
             if (!_running) {
-                _lastTime = System.nanoTime();
+                _lastTime = now;
                 _running = true;
             }
-            
-            long now = System.nanoTime();
-            final double period = (now - _lastTime) / 1000000.;
+
+            final double period = (now - _lastTime) / 1000.;
             _lastTime = now;
 
             return period;
         }
+
+        /**
+         * The next {@link #getPeriod(long)} returns zero and starts timing again from there.
+         */
+        void restartPeriod() {
+            _running = false;
+        }
+
+        /* scales a random domain of [0, 2pi] to [min, max] while prioritizing the peaks */
+        protected double random(double min, double max) {
+            return (max - min) / 2 * Math.sin(Math.IEEEremainder(_random.nextDouble(), 2 * 3.14159)) + (max + min) / 2;
+        }
+
+        protected double random(double max) {
+            return random(0, max);
+        }
     }
 }
@@ -0,0 +1,255 @@
+package frc.robot.simulator;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Robot;
+import frc.robot.config.Config;
+import frc.robot.profiling.LoopProfiler;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the whole robot through a {@link SimScript} on simulated time, as fast as the CPU allows.
+ * Run it with {@code ./gradlew simulateHeadless --args="script.txt"}.
+ *
+ * Timing is paused and stepped one robot loop at a time, so a loop takes as long as the code in
+ * it and nothing more. Driver station state and joysticks are set from the script before every
+ * loop. If the robot thread dies before the end of the script the run fails, and main exits
+ * non-zero.
+ */
+public class HeadlessSimulation {
+
+    private static volatile boolean running;
+
+    // thrown on the robot thread, it dies with it
+    private volatile Throwable robotError;
+
+    private final SimScript script;
+    private final double periodSeconds;
+    private final Config config;
+
+    private LoopListener loopListener;
+
+    private final int[] axisCounts = new int[DriverStation.kJoystickPorts];
+    private final int[] buttonCounts = new int[DriverStation.kJoystickPorts];
+    private final int[] povCounts = new int[DriverStation.kJoystickPorts];
+
+    public HeadlessSimulation(SimScript script) {
+        this(script, null, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * @param script what happens when
+     * @param config config of the robot, null for the default one
+     * @param periodSeconds length of a robot loop, the robot's own period
+     */
+    public HeadlessSimulation(SimScript script, Config config, double periodSeconds) {
+        if (periodSeconds <= 0) throw new IllegalArgumentException("Period must be positive!");
+
+        this.script = script;
+        this.config = config;
+        this.periodSeconds = periodSeconds;
+    }
+
+    /**
+     * Called on the simulation thread after every loop, while the robot thread waits for the next.
+     */
+    public interface LoopListener {
+        void afterLoop(Robot robot, double timeSeconds);
+    }
+
+    public HeadlessSimulation onLoop(LoopListener listener) {
+        this.loopListener = listener;
+        return this;
+    }
+
+    /**
+     * @return true while a headless simulation owns the robot, e.g. so CI checks don't exit the JVM
+     */
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start a robot, play the script to its end and shut the robot down.
+     *
+     * @return how it went
+     * @throws InterruptedException if interrupted while waiting for the robot thread to stop
+     */
+    public Report run() throws InterruptedException {
+        if (!HAL.initialize(500, 0)) throw new IllegalStateException("Failed to initialize the HAL!");
+
+        running = true;
+        SimHooks.pauseTiming();
+
+        Robot robot = new Robot(config);
+        Thread robotThread = new Thread(robot::startCompetition, "Robot");
+        robotThread.setDaemon(true);
+        robotThread.setUncaughtExceptionHandler((thread, error) -> {
+            robotError = error;
+            error.printStackTrace();
+        });
+
+        long overrunsBefore = LoopProfiler.get().getOverrunCount();
+        long wallStart = System.nanoTime();
+        long peakLoopNanos = 0;
+        int loops = 0;
+        String failure = null;
+
+        try {
+            robotThread.start();
+            // nothing is stepped while robotInit builds the subsystems
+            while (!robot.awaitInit(100, TimeUnit.MILLISECONDS)) {
+                if (!robotThread.isAlive()) break;
+            }
+            // let the loop notifier get armed
+            if (robotThread.isAlive()) SimHooks.stepTiming(0.0);
+
+            DriverStationSim.setDsAttached(true);
+
+            int index = 0;
+            int totalLoops = (int) Math.ceil(script.getLengthSeconds() / periodSeconds);
+
+            for (; loops < totalLoops && robotThread.isAlive(); loops++) {
+                double now = loops * periodSeconds;
+                while (index < script.getSteps().size() && script.getSteps().get(index).timeSeconds <= now) {
+                    apply(robot, script.getSteps().get(index++));
+                }
+                DriverStationSim.notifyNewData();
+
+                long loopStart = System.nanoTime();
+                SimHooks.stepTiming(periodSeconds);
+                peakLoopNanos = Math.max(peakLoopNanos, System.nanoTime() - loopStart);
+
+                if (loopListener != null) {
+                    loopListener.afterLoop(robot, (loops + 1) * periodSeconds);
+                }
+            }
+
+            if (!robotThread.isAlive()) {
+                failure = robotError != null
+                    ? "robot thread died after " + loops + " loops: " + robotError
+                    : "robot thread stopped after " + loops + " loops";
+            }
+        } finally {
+            robot.endCompetition();
+            robotThread.join(1000);
+            SimHooks.resumeTiming();
+            running = false;
+        }
+
+        double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+        return new Report(loops * periodSeconds, wallSeconds, loops, peakLoopNanos / 1e6, LoopProfiler.get().getOverrunCount() - overrunsBefore, failure);
+    }
+
+    private void apply(Robot robot, SimScript.Step step) {
+        switch (step.action) {
+            case DISABLE:
+                DriverStationSim.setEnabled(false);
+                break;
+            case AUTO:
+                setMode(true, false);
+                break;
+            case TELEOP:
+                setMode(false, false);
+                break;
+            case TEST:
+                setMode(false, true);
+                break;
+            case PATH:
+                robot.setAutonomousPath(step.path);
+                break;
+            case AXIS:
+                if (step.channel >= axisCounts[step.stick]) {
+                    axisCounts[step.stick] = step.channel + 1;
+                    DriverStationSim.setJoystickAxisCount(step.stick, axisCounts[step.stick]);
+                }
+                DriverStationSim.setJoystickAxis(step.stick, step.channel, step.value);
+                break;
+            case BUTTON:
+                if (step.channel > buttonCounts[step.stick]) {
+                    buttonCounts[step.stick] = step.channel;
+                    DriverStationSim.setJoystickButtonCount(step.stick, buttonCounts[step.stick]);
+                }
+                DriverStationSim.setJoystickButton(step.stick, step.channel, step.value != 0);
+                break;
+            case POV:
+                if (step.channel >= povCounts[step.stick]) {
+                    povCounts[step.stick] = step.channel + 1;
+                    DriverStationSim.setJoystickPOVCount(step.stick, povCounts[step.stick]);
+                }
+                DriverStationSim.setJoystickPOV(step.stick, step.channel, (int) step.value);
+                break;
+            case END:
+                break;
+        }
+    }
+
+    private static void setMode(boolean autonomous, boolean test) {
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.setTest(test);
+        DriverStationSim.setEnabled(true);
+    }
+
+    /**
+     * Simulated and wall clock time of a run.
+     */
+    public static class Report {
+
+        public final double simulatedSeconds;
+        public final double wallSeconds;
+        public final int loops;
+        public final double peakLoopMillis;
+        public final long overruns;
+        // why the robot didn't make it to the end of the script, null if it did
+        public final String failure;
+
+        Report(double simulatedSeconds, double wallSeconds, int loops, double peakLoopMillis, long overruns, String failure) {
+            this.simulatedSeconds = simulatedSeconds;
+            this.wallSeconds = wallSeconds;
+            this.loops = loops;
+            this.peakLoopMillis = peakLoopMillis;
+            this.overruns = overruns;
+            this.failure = failure;
+        }
+
+        public boolean isFailed() {
+            return failure != null;
+        }
+
+        public double getSpeedup() {
+            return simulatedSeconds / wallSeconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f simulated s in %.2f wall s (%.1fx real time), %d loops, peak %.1f ms, %d over budget",
+                simulatedSeconds, wallSeconds, getSpeedup(), loops, peakLoopMillis, overruns);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1) {
+            System.err.println("usage: HeadlessSimulation <script>");
+            System.exit(1);
+        }
+
+        Report report = new HeadlessSimulation(SimScript.load(Paths.get(args[0]))).run();
+        System.out.println(report);
+        for (SimulationWorld.Cost cost : SimulationWorld.getInstance().getCosts()) {
+            System.out.println("  " + cost);
+        }
+
+        if (report.isFailed()) {
+            System.err.println(report.failure);
+        }
+
+        // robot threads (notifiers, NetworkTables) aren't all daemons
+        System.exit(report.isFailed() ? 1 : 0);
+    }
+}
@@ -0,0 +1,431 @@
+package frc.robot.simulator;
+
+import com.swervedrivespecialties.swervelib.SdsModuleConfigurations;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.commands.AutonomousFollowPathCommand;
+import frc.robot.commands.CustomPPSwerveControllerCommand;
+import frc.robot.config.Config;
+import frc.robot.utils.ModuleStates;
+import frc.robot.utils.PathTrajectory;
+import frc.robot.utils.SwerveKinematics;
+import frc.robot.utils.SwerveOdometry;
+import frc.robot.utils.TrajectoryCache;
+import frc.robot.utils.TrajectoryFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks path following gains by how well {@link CustomPPSwerveControllerCommand} tracks the
+ * deploy paths on a {@link SwerveDrivetrainSim}, run it with {@code ./gradlew sweepPathGains}.
+ *
+ * <pre>
+ * PathGainSweep [--samples n | --grid n] [--trials n] [--threads n] [--seed n] [--top n]
+ *               [--xyP min:max] [--xyD min:max] [--thetaP min:max] [--thetaD min:max]
+ *               [--massSpread fraction] [--noise scale]
+ * </pre>
+ *
+ * Only the drivetrain is simulated, without the HAL or the command scheduler, so a run of a path
+ * takes milliseconds and gain sets are spread over a fork-join pool. Every trial drives with
+ * noisy wheel speeds, steer angles and gyro and a robot weight off by up to massSpread. Trial n
+ * of a path gets the same noise and weight for every gain set, so they are compared on equal terms.
+ * The gains in Config are always included, to compare against.
+ */
+public class PathGainSweep {
+
+    // standard deviations of the sensor noise at --noise 1
+    public static final double WHEEL_SPEED_NOISE = 0.02; // m/s
+    public static final double STEER_ANGLE_NOISE = Math.toRadians(0.5);
+    public static final double GYRO_NOISE = Math.toRadians(0.2);
+
+    /**
+     * One set of gains to try, the I terms stay at zero.
+     */
+    public static class Gains {
+
+        public final double xyP;
+        public final double xyD;
+        public final double thetaP;
+        public final double thetaD;
+
+        public Gains(double xyP, double xyD, double thetaP, double thetaD) {
+            this.xyP = xyP;
+            this.xyD = xyD;
+            this.thetaP = thetaP;
+            this.thetaD = thetaD;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("xy P %.3f D %.3f  theta P %.3f D %.3f", xyP, xyD, thetaP, thetaD);
+        }
+    }
+
+    /**
+     * How a set of gains tracked every path over every trial.
+     */
+    public static class Result {
+
+        public final Gains gains;
+        // root mean square distance from where the path wanted the robot, over all loops
+        public final double rmsErrorMeters;
+        // mean distance from the end of the path when the command finished
+        public final double finalErrorMeters;
+
+        Result(Gains gains, double rmsErrorMeters, double finalErrorMeters) {
+            this.gains = gains;
+            this.rmsErrorMeters = rmsErrorMeters;
+            this.finalErrorMeters = finalErrorMeters;
+        }
+    }
+
+    private final Config config;
+    private final List<PathTrajectory> paths;
+    private final int trials;
+    private final long seed;
+    private final double massSpread;
+    private final double noiseScale;
+
+    private final double maxVelocity;
+    private final double maxAngularVelocity;
+    private final Translation2d[] moduleLocations;
+
+    /**
+     * @param config robot config, the drive section is used for the simulation
+     * @param paths trajectories to follow
+     * @param trials runs of every path per set of gains
+     * @param seed seed of the noise and weight of the trials
+     * @param massSpread robot weight is off by up to this fraction either way
+     * @param noiseScale multiplies the standard deviations of the sensor noise
+     */
+    public PathGainSweep(Config config, List<PathTrajectory> paths, int trials, long seed, double massSpread, double noiseScale) {
+        if (paths.isEmpty()) throw new IllegalArgumentException("No paths to follow!");
+        if (trials < 1) throw new IllegalArgumentException("Need at least one trial!");
+
+        this.config = config;
+        this.paths = paths;
+        this.trials = trials;
+        this.seed = seed;
+        this.massSpread = massSpread;
+        this.noiseScale = noiseScale;
+
+        double trackWidth = config.drive.drivetrainTrackWidth_meters;
+        double wheelBase = config.drive.drivetrainWheelBase_meters;
+
+        // same as DrivetrainSubsystem
+        this.maxVelocity = 6380.0 / 60.0 *
+            SdsModuleConfigurations.MK4_L2.getDriveReduction() *
+            SdsModuleConfigurations.MK4_L2.getWheelDiameter() *
+            Math.PI;
+        this.maxAngularVelocity = maxVelocity / Math.hypot(trackWidth / 2.0, wheelBase / 2.0);
+
+        this.moduleLocations = new Translation2d[] {
+            new Translation2d(trackWidth / 2.0, wheelBase / 2.0),
+            new Translation2d(trackWidth / 2.0, -wheelBase / 2.0),
+            new Translation2d(-trackWidth / 2.0, wheelBase / 2.0),
+            new Translation2d(-trackWidth / 2.0, -wheelBase / 2.0)
+        };
+    }
+
+    /**
+     * Follow every path with one set of gains, trials times each.
+     */
+    public Result evaluate(Gains gains) {
+        double squaredErrorSum = 0;
+        long loops = 0;
+        double finalErrorSum = 0;
+
+        for (int path = 0; path < paths.size(); path++) {
+            for (int trial = 0; trial < trials; trial++) {
+                Random random = new Random(seed + path * 1_000_003L + trial);
+                double[] run = follow(gains, paths.get(path), random);
+
+                squaredErrorSum += run[0];
+                loops += (long) run[1];
+                finalErrorSum += run[2];
+            }
+        }
+
+        return new Result(gains, Math.sqrt(squaredErrorSum / loops), finalErrorSum / (paths.size() * trials));
+    }
+
+    /**
+     * @return sum of squared tracking errors, number of loops and the final error
+     */
+    private double[] follow(Gains gains, PathTrajectory trajectory, Random random) {
+        SwerveDrivetrainSim sim = new SwerveDrivetrainSim(
+            config,
+            config.drive.robotWeight_pounds * (1 + massSpread * (2 * random.nextDouble() - 1)),
+            SdsModuleConfigurations.MK4_L2.getWheelDiameter(),
+            SdsModuleConfigurations.MK4_L2.getDriveReduction(),
+            SdsModuleConfigurations.MK4_L2.getSteerReduction()
+        );
+
+        Pose2d start = new Pose2d(
+            trajectory.getInitialState().poseMeters.getTranslation(),
+            trajectory.getInitialState().holonomicRotation
+        );
+        sim.reset(start);
+        sim.zeroGyro();
+
+        SwerveKinematics kinematics = new SwerveKinematics(moduleLocations);
+        SwerveOdometry odometry = new SwerveOdometry(kinematics, 0, start);
+
+        ProfiledPIDController thetaController = new ProfiledPIDController(
+            gains.thetaP, 0, gains.thetaD,
+            new TrapezoidProfile.Constraints(maxAngularVelocity, maxAngularVelocity * 10.0)
+        );
+        thetaController.enableContinuousInput(-Math.PI, Math.PI);
+
+        CustomPPSwerveControllerCommand command = new CustomPPSwerveControllerCommand(
+            trajectory,
+            odometry::getPoseMeters,
+            new SwerveDriveKinematics(moduleLocations),
+            new PIDController(gains.xyP, 0, gains.xyD),
+            new PIDController(gains.xyP, 0, gains.xyD),
+            thetaController,
+            states -> {}
+        );
+
+        SimpleMotorFeedforward feedForward = new SimpleMotorFeedforward(config.drive.driveKS, config.drive.driveKV, config.drive.driveKA);
+        ModuleStates measured = new ModuleStates(4);
+        ModuleStates target = new ModuleStates(4);
+
+        double dt = TimedRobot.kDefaultPeriod;
+        double endTime = trajectory.getTotalTimeSeconds();
+        double squaredErrorSum = 0;
+        int loops = 0;
+
+        for (double time = 0; time <= endTime; time += dt) {
+            for (int i = 0; i < 4; i++) {
+                measured.set(
+                    i,
+                    sim.getWheelSpeedMetersPerSecond(i) + random.nextGaussian() * WHEEL_SPEED_NOISE * noiseScale,
+                    sim.getSteerAngleRadians(i) + random.nextGaussian() * STEER_ANGLE_NOISE * noiseScale
+                );
+            }
+            // the gyro reads clockwise positive from where it was zeroed
+            double gyroRadians = Math.toRadians(-sim.getGyroYawDegrees()) + random.nextGaussian() * GYRO_NOISE * noiseScale;
+            odometry.update(time, gyroRadians, measured);
+
+            target.set(command.calculate(time));
+            target.desaturate(maxVelocity);
+            for (int i = 0; i < 4; i++) {
+                double volts = MathUtil.clamp(feedForward.calculate(target.speedsMetersPerSecond[i]), -config.maxVoltage, config.maxVoltage);
+                sim.set(i, volts, target.anglesRadians[i]);
+            }
+
+            sim.update(dt);
+
+            Translation2d desired = trajectory.sample(time + dt).poseMeters.getTranslation();
+            squaredErrorSum += square(sim.getX() - desired.getX()) + square(sim.getY() - desired.getY());
+            loops++;
+        }
+
+        Pose2d end = AutonomousFollowPathCommand.endPose(trajectory);
+        double finalError = Math.hypot(sim.getX() - end.getX(), sim.getY() - end.getY());
+
+        return new double[] {squaredErrorSum, loops, finalError};
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+    /**
+     * Evaluate every set of gains on a fork-join pool.
+     *
+     * @return results from best to worst, by RMS tracking error then final error
+     */
+    public List<Result> sweep(List<Gains> candidates, int threads) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<Result> results = pool.submit(() ->
+                candidates.parallelStream().map(this::evaluate).collect(Collectors.toList())
+            ).get();
+
+            List<Result> ranked = new ArrayList<>(results);
+            ranked.sort((a, b) -> a.rmsErrorMeters != b.rmsErrorMeters
+                ? Double.compare(a.rmsErrorMeters, b.rmsErrorMeters)
+                : Double.compare(a.finalErrorMeters, b.finalErrorMeters));
+            return ranked;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulation failed!", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Every combination of steps evenly spaced over the ranges, steps per gain.
+     *
+     * @param ranges min and max of xyP, xyD, thetaP and thetaD
+     */
+    public static List<Gains> grid(double[][] ranges, int steps) {
+        List<Gains> gains = new ArrayList<>();
+        double[] values = new double[4];
+        addGrid(ranges, steps, 0, values, gains);
+        return gains;
+    }
+
+    private static void addGrid(double[][] ranges, int steps, int dimension, double[] values, List<Gains> out) {
+        if (dimension == values.length) {
+            out.add(new Gains(values[0], values[1], values[2], values[3]));
+            return;
+        }
+
+        double[] range = ranges[dimension];
+        int count = range[0] == range[1] ? 1 : steps;
+        for (int i = 0; i < count; i++) {
+            values[dimension] = count == 1 ? range[0] : range[0] + (range[1] - range[0]) * i / (count - 1);
+            addGrid(ranges, steps, dimension + 1, values, out);
+        }
+    }
+
+    /**
+     * Gains drawn uniformly from the ranges.
+     *
+     * @param ranges min and max of xyP, xyD, thetaP and thetaD
+     */
+    public static List<Gains> sample(double[][] ranges, int count, Random random) {
+        List<Gains> gains = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double[] values = new double[4];
+            for (int d = 0; d < values.length; d++) {
+                values[d] = ranges[d][0] + (ranges[d][1] - ranges[d][0]) * random.nextDouble();
+            }
+            gains.add(new Gains(values[0], values[1], values[2], values[3]));
+        }
+        return gains;
+    }
+
+    /**
+     * Load every .path in the deploy directory that goes somewhere.
+     */
+    public static List<PathTrajectory> loadDeployPaths(Config config) {
+        List<PathTrajectory> paths = new ArrayList<>();
+        for (String name : TrajectoryCache.deployPathNames()) {
+            if (name.equals(config.auto.nothingPath)) continue;
+
+            PathTrajectory path = TrajectoryFile.load(name, config.auto.maxPathFollowVelocity, config.auto.maxPathFollowAcceleration);
+            if (path != null && path.getTotalTimeSeconds() > 0) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    private static double[] range(String value) {
+        String[] parts = value.split(":");
+        if (parts.length != 2) throw new IllegalArgumentException("Expected min:max, got " + value);
+        return new double[] {Double.parseDouble(parts[0]), Double.parseDouble(parts[1])};
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Config config = new Config();
+
+        double[][] ranges = {
+            {0, config.auto.pathXYPID.getKP() * 2},
+            {0, 0.2},
+            {0, config.auto.pathThetaPID.getKP() * 2},
+            {0, 0.1}
+        };
+        int samples = 200;
+        int grid = 0;
+        int trials = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 2022;
+        int top = 10;
+        double massSpread = 0.1;
+        double noise = 1;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+
+            switch (arg) {
+                case "--samples":
+                    samples = Integer.parseInt(value);
+                    break;
+                case "--grid":
+                    grid = Integer.parseInt(value);
+                    break;
+                case "--trials":
+                    trials = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--top":
+                    top = Integer.parseInt(value);
+                    break;
+                case "--massSpread":
+                    massSpread = Double.parseDouble(value);
+                    break;
+                case "--noise":
+                    noise = Double.parseDouble(value);
+                    break;
+                case "--xyP":
+                    ranges[0] = range(value);
+                    break;
+                case "--xyD":
+                    ranges[1] = range(value);
+                    break;
+                case "--thetaP":
+                    ranges[2] = range(value);
+                    break;
+                case "--thetaD":
+                    ranges[3] = range(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        List<PathTrajectory> paths = loadDeployPaths(config);
+        PathGainSweep sweep = new PathGainSweep(config, paths, trials, seed, massSpread, noise);
+
+        Gains current = new Gains(
+            config.auto.pathXYPID.getKP(), config.auto.pathXYPID.getKD(),
+            config.auto.pathThetaPID.getKP(), config.auto.pathThetaPID.getKD()
+        );
+        List<Gains> candidates = new ArrayList<>(grid > 0 ? grid(ranges, grid) : sample(ranges, samples, new Random(seed)));
+        candidates.add(current);
+
+        long start = System.nanoTime();
+        List<Result> ranked = sweep.sweep(candidates, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format("%d gain sets x %d paths x %d trials on %d threads in %.1f s",
+            candidates.size(), paths.size(), trials, threads, seconds));
+        System.out.println(String.format("%4s  %-44s %9s %9s", "rank", "gains", "rms m", "final m"));
+
+        for (int i = 0; i < ranked.size(); i++) {
+            Result result = ranked.get(i);
+            boolean isCurrent = result.gains == current;
+            if (i < top || isCurrent) {
+                System.out.println(String.format("%4d  %-44s %9.4f %9.4f%s",
+                    i + 1, result.gains, result.rmsErrorMeters, result.finalErrorMeters, isCurrent ? "  (current)" : ""));
+            }
+        }
+
+        // path loading and the pool leave non-daemon threads behind
+        System.exit(0);
+    }
+}
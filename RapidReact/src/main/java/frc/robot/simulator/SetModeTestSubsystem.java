@@ -16,7 +16,7 @@ public class SetModeTestSubsystem extends BitBucketsSubsystem {
     }
 
     @Override
-    public void periodic() {
+    public void subsystemPeriodic() {
 
     }
 
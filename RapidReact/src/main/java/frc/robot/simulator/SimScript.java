@@ -0,0 +1,130 @@
+package frc.robot.simulator;
+
+import frc.robot.utils.AutonomousPath;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mode changes and driver inputs for {@link HeadlessSimulation}, one per line:
+ *
+ * <pre>
+ * # seconds  action   arguments
+ * 0          path     PATH_PLANNER_DRIVE_BACKWARDS
+ * 0          auto
+ * 15         disable
+ * 16         teleop
+ * 16         axis     0 1 -0.5      stick, axis, value
+ * 18         button   0 8 true      stick, button (from 1), pressed
+ * 18         pov      1 0 90        stick, pov, angle or -1
+ * 136        end
+ * </pre>
+ *
+ * Actions are sorted by time, the simulation stops at the last one.
+ */
+public class SimScript {
+
+    public enum Action {
+        DISABLE,
+        AUTO,
+        TELEOP,
+        TEST,
+        PATH,
+        AXIS,
+        BUTTON,
+        POV,
+        END
+    }
+
+    public static class Step {
+
+        public final double timeSeconds;
+        public final Action action;
+        public final AutonomousPath path;
+        public final int stick;
+        public final int channel;
+        public final double value;
+
+        Step(double timeSeconds, Action action, AutonomousPath path, int stick, int channel, double value) {
+            this.timeSeconds = timeSeconds;
+            this.action = action;
+            this.path = path;
+            this.stick = stick;
+            this.channel = channel;
+            this.value = value;
+        }
+    }
+
+    private final List<Step> steps = new ArrayList<>();
+
+    public static SimScript load(Path file) throws IOException {
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    public static SimScript parse(List<String> lines) {
+        SimScript script = new SimScript();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            try {
+                script.steps.add(parseStep(line.split("\\s+")));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+
+        // stable, so actions at the same time keep their order
+        script.steps.sort((a, b) -> Double.compare(a.timeSeconds, b.timeSeconds));
+        return script;
+    }
+
+    private static Step parseStep(String[] words) {
+        if (words.length < 2) throw new IllegalArgumentException("Expected a time and an action!");
+
+        double time = Double.parseDouble(words[0]);
+        if (time < 0) throw new IllegalArgumentException("Time can't be negative!");
+
+        Action action = Action.valueOf(words[1].toUpperCase());
+        switch (action) {
+            case PATH:
+                expect(words, 3);
+                return new Step(time, action, AutonomousPath.valueOf(words[2]), 0, 0, 0);
+            case AXIS:
+            case POV:
+                expect(words, 5);
+                return new Step(time, action, null, Integer.parseInt(words[2]), Integer.parseInt(words[3]), Double.parseDouble(words[4]));
+            case BUTTON:
+                expect(words, 5);
+                return new Step(time, action, null, Integer.parseInt(words[2]), Integer.parseInt(words[3]), Boolean.parseBoolean(words[4]) ? 1 : 0);
+            default:
+                expect(words, 2);
+                return new Step(time, action, null, 0, 0, 0);
+        }
+    }
+
+    private static void expect(String[] words, int count) {
+        if (words.length != count) {
+            throw new IllegalArgumentException(words[1] + " takes " + (count - 2) + " arguments, got " + (words.length - 2) + "!");
+        }
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * @return the time of the last step, how long the simulation runs
+     */
+    public double getLengthSeconds() {
+        return steps.isEmpty() ? 0 : steps.get(steps.size() - 1).timeSeconds;
+    }
+}
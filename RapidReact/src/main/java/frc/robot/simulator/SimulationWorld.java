@@ -0,0 +1,234 @@
+package frc.robot.simulator;
+
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.profiling.LoopProfiler;
+import frc.robot.profiling.LoopTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Advances every simulated device and mechanism together, in fixed steps.
+ *
+ * Subsystems register their models in init and keep reading sensors from them in
+ * subsystemSimulationPeriodic. Robot.simulationPeriodic calls {@link #update()} once a loop, which
+ * adds the time since the last call to an accumulator and runs as many whole steps as fit. A
+ * model can ask for sub-steps, e.g. a stiff steering loop that needs 1 ms.
+ *
+ * Every model is timed per step and published under {@code timing/simulation/<name>}, and
+ * {@link #getCosts()} has the totals, so it's clear which model the simulation spends its time in.
+ */
+public class SimulationWorld {
+
+    private static final SimulationWorld world = new SimulationWorld(TimedRobot.kDefaultPeriod, 5, RobotController::getFPGATime);
+
+    // time left over from a step is carried, rounding shouldn't cost a step
+    private static final double EPSILON_SECONDS = 1e-9;
+
+    /**
+     * Something simulated, stepped by a fixed time.
+     */
+    public interface Model {
+        void step(double dtSeconds);
+    }
+
+    private static class Entry {
+
+        final String name;
+        final int subSteps;
+        final Model model;
+        final LoopTimer timer;
+        final String label;
+
+        long steps;
+        long totalNanos;
+        long maxNanos;
+
+        Entry(String name, int subSteps, Model model) {
+            this.name = name;
+            this.subSteps = subSteps;
+            this.model = model;
+            this.timer = new LoopTimer("timing/simulation/" + name);
+            this.label = "simulation." + name;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final LongSupplier clockMicros;
+
+    private double stepSeconds;
+    private int maxStepsPerUpdate;
+
+    private double accumulatedSeconds;
+    private long lastTimeMicros;
+    private boolean running;
+    private long droppedSteps;
+
+    /**
+     * @param stepSeconds time every model advances by per step
+     * @param maxStepsPerUpdate steps one update may run, time beyond that is dropped rather than caught up
+     * @param clockMicros current time for {@link #update()}, in microseconds
+     */
+    public SimulationWorld(double stepSeconds, int maxStepsPerUpdate, LongSupplier clockMicros) {
+        this.clockMicros = clockMicros;
+        configure(stepSeconds, maxStepsPerUpdate);
+    }
+
+    /**
+     * Gets the robot's simulation.
+     */
+    public static SimulationWorld getInstance() {
+        return world;
+    }
+
+    public void configure(double stepSeconds, int maxStepsPerUpdate) {
+        if (stepSeconds <= 0) throw new IllegalArgumentException("Step must be positive!");
+        if (maxStepsPerUpdate < 1) throw new IllegalArgumentException("Need at least one step per update!");
+
+        this.stepSeconds = stepSeconds;
+        this.maxStepsPerUpdate = maxStepsPerUpdate;
+    }
+
+    public SimulationWorld add(String name, Model model) {
+        return add(name, 1, model);
+    }
+
+    /**
+     * Register a model, models step in the order they were added.
+     *
+     * @param name what it's called in the timings
+     * @param subSteps how many times it steps per step of the world
+     */
+    public SimulationWorld add(String name, int subSteps, Model model) {
+        if (subSteps < 1) throw new IllegalArgumentException("Need at least one sub-step!");
+
+        entries.add(new Entry(name, subSteps, model));
+        return this;
+    }
+
+    /**
+     * Forget every model and the accumulated time, for a new robot.
+     */
+    public void clear() {
+        entries.clear();
+        accumulatedSeconds = 0;
+        running = false;
+        droppedSteps = 0;
+    }
+
+    /**
+     * Advance by the time passed on the clock since the last call. The first call only starts
+     * the clock.
+     *
+     * @return steps run
+     */
+    public int update() {
+        long now = clockMicros.getAsLong();
+        if (!running) {
+            lastTimeMicros = now;
+            running = true;
+            return 0;
+        }
+
+        double elapsedSeconds = (now - lastTimeMicros) / 1e6;
+        lastTimeMicros = now;
+        return update(elapsedSeconds);
+    }
+
+    /**
+     * Advance by some time, in whole steps. What doesn't fit in a step waits for the next call.
+     *
+     * @return steps run
+     */
+    public int update(double elapsedSeconds) {
+        if (elapsedSeconds < 0) throw new IllegalArgumentException("Time can't go backwards!");
+
+        accumulatedSeconds += elapsedSeconds;
+
+        int steps = 0;
+        while (accumulatedSeconds >= stepSeconds - EPSILON_SECONDS) {
+            if (steps == maxStepsPerUpdate) {
+                // we're behind, e.g. after a breakpoint, don't spiral trying to catch up
+                droppedSteps += (long) ((accumulatedSeconds + EPSILON_SECONDS) / stepSeconds);
+                accumulatedSeconds = 0;
+                break;
+            }
+
+            step();
+            accumulatedSeconds -= stepSeconds;
+            steps++;
+        }
+        return steps;
+    }
+
+    private void step() {
+        for (Entry entry : entries) {
+            double dt = stepSeconds / entry.subSteps;
+
+            long start = entry.timer.start();
+            for (int i = 0; i < entry.subSteps; i++) {
+                entry.model.step(dt);
+            }
+            long nanos = LoopProfiler.get().record(entry.label, start);
+
+            entry.timer.record(nanos);
+            entry.steps++;
+            entry.totalNanos += nanos;
+            entry.maxNanos = Math.max(entry.maxNanos, nanos);
+        }
+    }
+
+    public double getStepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * @return steps skipped because an update was too far behind
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    /**
+     * What each model has cost so far, in the order they step.
+     */
+    public List<Cost> getCosts() {
+        List<Cost> costs = new ArrayList<>();
+        for (Entry entry : entries) {
+            costs.add(new Cost(entry.name, entry.subSteps, entry.steps, entry.totalNanos, entry.maxNanos));
+        }
+        return costs;
+    }
+
+    /**
+     * Time one model took per step of the world, sub-steps included.
+     */
+    public static class Cost {
+
+        public final String name;
+        public final int subSteps;
+        public final long steps;
+        public final long totalNanos;
+        public final long maxNanos;
+
+        Cost(String name, int subSteps, long steps, long totalNanos, long maxNanos) {
+            this.name = name;
+            this.subSteps = subSteps;
+            this.steps = steps;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public double getMeanMicros() {
+            return steps == 0 ? 0 : totalNanos / 1e3 / steps;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %3d sub-steps %8d steps %8.1f us mean %8.1f us max",
+                name, subSteps, steps, getMeanMicros(), maxNanos / 1e3);
+        }
+    }
+}
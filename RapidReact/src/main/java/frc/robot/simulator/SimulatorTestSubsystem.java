@@ -17,7 +17,7 @@ public class SimulatorTestSubsystem extends BitBucketsSubsystem {
   public void init() {}
 
   @Override
-  public void periodic() {
+  public void subsystemPeriodic() {
     int num = counter.incrementAndGet();
 
     //check that if in CI the simulator runs for 15 seconds, pass the simulator test
@@ -0,0 +1,171 @@
+package frc.robot.simulator;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import frc.robot.config.Config;
+import frc.wpiClasses.QuadSwerveSim;
+import frc.wpiClasses.SwerveModuleSim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Physics of the swerve drivetrain for simulation, backed by {@link QuadSwerveSim}.
+ *
+ * The drivetrain hands it the same drive voltages and steer angles it gives the real modules,
+ * and reads back wheel speeds, steer angles and the gyro heading as if they came from the
+ * encoders and the navX. Steering is a proportional loop on the azimuth motor, like the Falcon's
+ * onboard PID. Every update is split into sub-steps so the steering loop stays stable.
+ */
+public class SwerveDrivetrainSim {
+
+    private final QuadSwerveSim sim;
+    private final SwerveModuleSim[] modules = new SwerveModuleSim[QuadSwerveSim.NUM_MODULES];
+
+    private final double wheelRadiusMeters;
+    private final double stepSeconds;
+    private final double steerKP;
+    private final double maxVoltage;
+
+    private final double[] driveVolts = new double[QuadSwerveSim.NUM_MODULES];
+    private final double[] steerTargetRadians = new double[QuadSwerveSim.NUM_MODULES];
+
+    // heading the simulated gyro reads as zero
+    private double gyroZeroRadians;
+
+    /**
+     * @param config robot config, the drive section sizes the robot and the model
+     * @param wheelDiameterMeters diameter of the wheels
+     * @param driveReduction wheel rotations per drive motor rotation
+     * @param steerReduction module rotations per steer motor rotation
+     */
+    public SwerveDrivetrainSim(Config config, double wheelDiameterMeters, double driveReduction, double steerReduction) {
+        this(config, config.drive.robotWeight_pounds, wheelDiameterMeters, driveReduction, steerReduction);
+    }
+
+    /**
+     * @param robotWeightPounds weight to simulate instead of the one in the config
+     */
+    public SwerveDrivetrainSim(Config config, double robotWeightPounds, double wheelDiameterMeters, double driveReduction, double steerReduction) {
+        if (config.drive.simStepSeconds <= 0) throw new IllegalArgumentException("Sim step must be positive!");
+
+        Config.DriveConfig drive = config.drive;
+        double massKg = Units.lbsToKilograms(robotWeightPounds);
+
+        this.wheelRadiusMeters = wheelDiameterMeters / 2;
+        this.stepSeconds = drive.simStepSeconds;
+        this.steerKP = drive.simSteerKP;
+        this.maxVoltage = config.maxVoltage;
+
+        List<SwerveModuleSim> moduleList = new ArrayList<>();
+        for (int i = 0; i < modules.length; i++) {
+            modules[i] = new SwerveModuleSim(
+                DCMotor.getFalcon500(1),
+                DCMotor.getFalcon500(1),
+                wheelRadiusMeters,
+                1 / steerReduction,
+                1 / driveReduction,
+                1.0,
+                1.0,
+                drive.simTreadStaticFriction,
+                drive.simTreadKineticFriction,
+                massKg * 9.81 / modules.length,
+                drive.simSteerMOI
+            );
+            moduleList.add(modules[i]);
+        }
+
+        // a uniform box the size of the wheel base
+        double moi = massKg * (Math.pow(drive.drivetrainTrackWidth_meters, 2) + Math.pow(drive.drivetrainWheelBase_meters, 2)) / 12;
+
+        this.sim = new QuadSwerveSim(drive.drivetrainTrackWidth_meters, drive.drivetrainWheelBase_meters, massKg, moi, moduleList);
+    }
+
+    /**
+     * Same as SwerveModule.set on the real module.
+     *
+     * @param module 0=FL, 1=FR, 2=BL, 3=BR
+     * @param driveVoltage voltage of the drive motor
+     * @param steerAngleRadians angle the module should point at
+     */
+    public void set(int module, double driveVoltage, double steerAngleRadians) {
+        driveVolts[module] = driveVoltage;
+        steerTargetRadians[module] = steerAngleRadians;
+    }
+
+    /**
+     * Advance the model, in sub-steps of the configured length.
+     *
+     * @param dtSeconds time since the last update
+     */
+    public void update(double dtSeconds) {
+        int steps = Math.max(1, (int) Math.round(dtSeconds / stepSeconds));
+        double dt = dtSeconds / steps;
+
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < modules.length; i++) {
+                double error = MathUtil.angleModulus(steerTargetRadians[i] - getSteerAngleRadians(i));
+                double volts = driveVolts[i];
+
+                // like the real modules, drive backwards rather than turn more than 90 degrees
+                if (Math.abs(error) > Math.PI / 2) {
+                    error -= Math.copySign(Math.PI, error);
+                    volts = -volts;
+                }
+
+                double steerVolts = MathUtil.clamp(steerKP * error, -maxVoltage, maxVoltage);
+                modules[i].setInputVoltages(volts, steerVolts);
+            }
+
+            sim.update(dt);
+        }
+    }
+
+    /**
+     * Put the robot somewhere on the field, at rest. The gyro doesn't notice.
+     */
+    public void reset(Pose2d pose) {
+        gyroZeroRadians += pose.getRotation().getRadians() - sim.getCurHeadingRadians();
+        sim.modelReset(pose);
+    }
+
+    /**
+     * The gyro reads zero from now on.
+     */
+    public void zeroGyro() {
+        gyroZeroRadians = sim.getCurHeadingRadians();
+    }
+
+    /**
+     * @return what the navX reports as yaw, clockwise positive in degrees
+     */
+    public double getGyroYawDegrees() {
+        return -Math.toDegrees(MathUtil.angleModulus(sim.getCurHeadingRadians() - gyroZeroRadians));
+    }
+
+    public double getWheelSpeedMetersPerSecond(int module) {
+        return modules[module].getWheelEncoderVelocityRPM() / 60 * 2 * Math.PI * wheelRadiusMeters;
+    }
+
+    public double getSteerAngleRadians(int module) {
+        return MathUtil.angleModulus(modules[module].getAzimuthEncoderPositionRev() * 2 * Math.PI);
+    }
+
+    public double getX() {
+        return sim.getCurX();
+    }
+
+    public double getY() {
+        return sim.getCurY();
+    }
+
+    public double getHeadingRadians() {
+        return sim.getCurHeadingRadians();
+    }
+
+    public Pose2d getPose() {
+        return sim.getCurPose();
+    }
+}
@@ -2,7 +2,7 @@ package frc.robot.simulator;
 
 import com.ctre.phoenix.motorcontrol.can.*;
 
-import static frc.robot.simulator.CTREPhysicsSim.random;
+import java.util.Random;
 
 /**
  * Holds information about a simulated TalonSRX.
@@ -29,8 +29,11 @@ class TalonSRXSimProfile extends CTREPhysicsSim.SimProfile {
      *        The maximum motor velocity, in ticks per 100ms
      * @param sensorPhase
      *        The phase of the TalonSRX sensors
+     * @param random
+     *        Source of the noise
      */
-    public TalonSRXSimProfile(final TalonSRX talon, final double accelToFullTime, final double fullVel, final boolean sensorPhase) {
+    public TalonSRXSimProfile(final TalonSRX talon, final double accelToFullTime, final double fullVel, final boolean sensorPhase, final Random random) {
+        super(random);
         this._talon = talon;
         this._accelToFullTime = accelToFullTime;
         this._fullVel = fullVel;
@@ -44,8 +47,7 @@ class TalonSRXSimProfile extends CTREPhysicsSim.SimProfile {
      * features of our products in simulation using our examples out of the box.
      * Users may modify this to utilize more accurate physics simulation.
      */
-    public void run() {
-        final double period = getPeriod();
+    public void run(final double period) {
         final double accelAmount = _fullVel / _accelToFullTime * period / 1000;
 
         /// DEVICE SPEED SIMULATION
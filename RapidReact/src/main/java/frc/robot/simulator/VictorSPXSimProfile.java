@@ -3,7 +3,7 @@ package frc.robot.simulator;
 
 import com.ctre.phoenix.motorcontrol.can.*;
 
-import static frc.robot.simulator.CTREPhysicsSim.random;
+import java.util.Random;
 
 /**
  * Holds information about a simulated VictorSPX.
@@ -16,8 +16,11 @@ class VictorSPXSimProfile extends CTREPhysicsSim.SimProfile {
      * 
      * @param victor
      *        The VictorSPX device
+     * @param random
+     *        Source of the noise
      */
-    public VictorSPXSimProfile(final VictorSPX victor) {
+    public VictorSPXSimProfile(final VictorSPX victor, final Random random) {
+        super(random);
         this._victor = victor;
     }
 
@@ -28,9 +31,7 @@ class VictorSPXSimProfile extends CTREPhysicsSim.SimProfile {
      * features of our products in simulation using our examples out of the box.
      * Users may modify this to utilize more accurate physics simulation.
      */
-    public void run() {
-        // final double period = getPeriod();
-
+    public void run(final double period) {
         // Device voltage simulation
         double outPerc = _victor.getSimCollection().getMotorOutputLeadVoltage() / 12;
         _victor.getSimCollection().setBusVoltage(12 - outPerc * outPerc * 3/4 * random(0.95, 1.05));
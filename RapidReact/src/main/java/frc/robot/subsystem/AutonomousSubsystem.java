@@ -1,27 +1,70 @@
 package frc.robot.subsystem;
 
-import com.pathplanner.lib.PathPlanner;
-import com.pathplanner.lib.PathPlannerTrajectory;
 import frc.robot.config.Config;
+import frc.robot.log.BucketLog;
+import frc.robot.log.DoubleLoggable;
+import frc.robot.log.LogLevel;
+import frc.robot.utils.DashboardKey;
+import frc.robot.utils.PathTrajectory;
+import frc.robot.utils.TrajectoryCache;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class AutonomousSubsystem extends BitBucketsSubsystem {
 
+  private final TrajectoryCache trajectories = new TrajectoryCache();
+  private CompletableFuture<Void> preload;
+  private volatile long preloadNanos;
+  private boolean preloadLogged;
+
+  private final DoubleLoggable preloadMillis = BucketLog.doubleLoggable(DashboardKey.AUTO_STATE, "auto/pathPreloadMs");
+  private final DoubleLoggable loadedPaths = BucketLog.doubleLoggable(DashboardKey.AUTO_STATE, "auto/loadedPaths");
+  private final DoubleLoggable slowestPathMillis = BucketLog.doubleLoggable(DashboardKey.AUTO_STATE, "auto/slowestPathLoadMs");
+  private final DoubleLoggable pathCacheMisses = BucketLog.doubleLoggable(DashboardKey.AUTO_STATE, "auto/pathCacheMisses");
+
   public AutonomousSubsystem(Config config) {
     super(config);
   }
 
-  public PathPlannerTrajectory buildPath(String pathName)
+  public PathTrajectory buildPath(String pathName)
   {
-    return pathName.equals(this.config.auto.nothingPath)
-            ? PathPlanner.loadPath(pathName, 0, 0)
-            : PathPlanner.loadPath(pathName, this.config.auto.maxPathFollowVelocity, this.config.auto.maxPathFollowAcceleration);
+    PathTrajectory trajectory = pathName.equals(this.config.auto.nothingPath)
+            ? trajectories.get(pathName, 0, 0)
+            : trajectories.get(pathName, this.config.auto.maxPathFollowVelocity, this.config.auto.maxPathFollowAcceleration);
+
+    // loaded while building the routine, report it now rather than next loop
+    pathCacheMisses.log(LogLevel.GENERAL, trajectories.getMissCount());
+    return trajectory;
   }
 
   @Override
-  public void init() {}
+  public void init() {
+    if (!config.auto.preloadPaths) return;
+
+    List<String> names = TrajectoryCache.deployPathNames();
+    boolean nothing = names.remove(config.auto.nothingPath);
+
+    long start = System.nanoTime();
+    CompletableFuture<Void> paths = trajectories.preload(names, config.auto.maxPathFollowVelocity, config.auto.maxPathFollowAcceleration, config.auto.pathPreloadThreads);
+    if (nothing) {
+      // the nothing path is followed without constraints
+      paths = CompletableFuture.allOf(paths, trajectories.preload(List.of(config.auto.nothingPath), 0, 0, 1));
+    }
+    preload = paths.whenComplete((result, error) -> preloadNanos = System.nanoTime() - start);
+  }
 
   @Override
-  public void periodic() {}
+  public void subsystemPeriodic() {
+    // published from the robot thread once the loaders are done
+    if (preload != null && !preloadLogged && preload.isDone()) {
+      preloadLogged = true;
+      preloadMillis.log(LogLevel.GENERAL, preloadNanos / 1e6);
+      loadedPaths.log(LogLevel.GENERAL, trajectories.getLoadedCount());
+      slowestPathMillis.log(LogLevel.GENERAL, trajectories.getSlowestLoadMillis());
+      pathCacheMisses.log(LogLevel.GENERAL, trajectories.getMissCount());
+    }
+  }
 
   @Override
   public void disable() {}
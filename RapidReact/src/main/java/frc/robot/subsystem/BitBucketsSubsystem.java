@@ -2,23 +2,62 @@ package frc.robot.subsystem;
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.config.Config;
+import frc.robot.profiling.LoopProfiler;
+import frc.robot.profiling.LoopTimer;
 
 public abstract class BitBucketsSubsystem extends SubsystemBase {
 
   protected final Config config;
 
+  // published under timing/<subsystem name>/...
+  private final LoopTimer periodicTimer;
+  private final LoopTimer simulationPeriodicTimer;
+
+  // what this subsystem is called in loop overrun reports
+  private final String periodicLabel;
+  private final String simulationPeriodicLabel;
+
   protected BitBucketsSubsystem(Config config) {
     super();
     this.setName(this.getClass().getSimpleName());
 
     this.config = config;
+
+    this.periodicTimer = new LoopTimer("timing/" + getName() + "/periodic");
+    this.simulationPeriodicTimer = new LoopTimer("timing/" + getName() + "/simulationPeriodic");
+
+    this.periodicLabel = getName() + ".periodic";
+    this.simulationPeriodicLabel = getName() + ".simulationPeriodic";
+  }
+
+  public Config getConfig() {
+    return this.config;
   }
 
   //When the subsystem is initialized
   public abstract void init();
 
-  //Periodically called
-  public abstract void periodic();
+  //Periodically called by the CommandScheduler, timed
+  @Override
+  public final void periodic() {
+    long start = periodicTimer.start();
+    subsystemPeriodic();
+    periodicTimer.record(LoopProfiler.get().record(periodicLabel, start));
+  }
+
+  //Periodically called in simulation after periodic, timed
+  @Override
+  public final void simulationPeriodic() {
+    long start = simulationPeriodicTimer.start();
+    subsystemSimulationPeriodic();
+    simulationPeriodicTimer.record(LoopProfiler.get().record(simulationPeriodicLabel, start));
+  }
+
+  //What the subsystem does every loop
+  public abstract void subsystemPeriodic();
+
+  //What the subsystem does every loop in simulation
+  public void subsystemSimulationPeriodic() {}
 
   public abstract void disable();
 }
@@ -10,6 +10,7 @@ import frc.robot.config.Config;
 import frc.robot.config.MotorConfig;
 import frc.robot.log.*;
 import frc.robot.simulator.CTREPhysicsSim;
+import frc.robot.utils.DashboardKey;
 import frc.robot.utils.MotorUtils;
 
 public class ClimberSubsystem extends BitBucketsSubsystem {
@@ -51,43 +52,71 @@ public class ClimberSubsystem extends BitBucketsSubsystem {
 
   private boolean climberTilted = false;
 
-  private final Changeable<Double> climbOutput = BucketLog.changeable(Put.DOUBLE, "climber/climbOutput", 1.0 );
+  private final DoubleChangeable climbOutput = BucketLog.doubleChangeable("climber/climbOutput", 1.0 );
 
-  private final Changeable<Double> climbRetractSlow = BucketLog.changeable(
-    Put.DOUBLE,
+  private final DoubleChangeable climbRetractSlow = BucketLog.doubleChangeable(
     "climber/climbRetractSlow",
     -0.1
   );
 
-  private final Loggable<String> climbState = BucketLog.loggable(Put.STRING, "climber/climbState");
-  private final Loggable<Boolean> elevatorTiltedState = BucketLog.loggable(Put.BOOL, "climber/elevatorTiltedState");
-
-  private final Loggable<Double> climberLeftError = BucketLog.loggable(Put.DOUBLE, "climber/climberLeftError");
-  private final Loggable<Double> climberLeftPosition = BucketLog.loggable(Put.DOUBLE, "climber/climberLeftPosition");
+  // most of these sit still while the climber is idle, only publish them when they move
+  private static final double LOG_HEARTBEAT_SECONDS = 1;
+  private static final double LOG_POSITION_DEADBAND_TICKS = 10;
+  private static final double LOG_VELOCITY_DEADBAND_TICKS = 20;
+
+  private final Loggable<String> climbState = BucketLog.loggable(DashboardKey.CLIMBER_STATE, Put.STRING, "climber/climbState")
+    .onChange()
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+  private final BooleanLoggable elevatorTiltedState = BucketLog.booleanLoggable(DashboardKey.CLIMBER_STATE, "climber/elevatorTiltedState")
+    .onChange()
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+
+  private final DoubleLoggable climberLeftError = BucketLog.doubleLoggable(DashboardKey.CLIMBER_MOTORS, "climber/climberLeftError")
+    .deadband(LOG_POSITION_DEADBAND_TICKS)
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+  private final DoubleLoggable climberLeftPosition = BucketLog.doubleLoggable(DashboardKey.CLIMBER_MOTORS, "climber/climberLeftPosition")
+    .deadband(LOG_POSITION_DEADBAND_TICKS)
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
   // private final Loggable<Double> climberLeftVoltage = BucketLog.loggable(Put.DOUBLE, "climber/climberLeftPosition");
-  private final Loggable<Double> climberLeftVelocity = BucketLog.loggable(Put.DOUBLE, "climber/climberLeftVelocity");
-
-  private final Loggable<Double> climberRightError = BucketLog.loggable(Put.DOUBLE, "climber/climberRightError");
-  private final Loggable<Double> climberRightPosition = BucketLog.loggable(Put.DOUBLE, "climber/climberRightPosition");
-  private final Loggable<Double> climberRightVelocity = BucketLog.loggable(Put.DOUBLE, "climber/climberRightVelocity");
-
-  private final Loggable<Boolean> climberLeftRevLimitSwitchClosedLog = BucketLog.loggable(
-    Put.BOOL,
+  private final DoubleLoggable climberLeftVelocity = BucketLog.doubleLoggable(DashboardKey.CLIMBER_MOTORS, "climber/climberLeftVelocity")
+    .deadband(LOG_VELOCITY_DEADBAND_TICKS)
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+
+  private final DoubleLoggable climberRightError = BucketLog.doubleLoggable(DashboardKey.CLIMBER_MOTORS, "climber/climberRightError")
+    .deadband(LOG_POSITION_DEADBAND_TICKS)
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+  private final DoubleLoggable climberRightPosition = BucketLog.doubleLoggable(DashboardKey.CLIMBER_MOTORS, "climber/climberRightPosition")
+    .deadband(LOG_POSITION_DEADBAND_TICKS)
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+  private final DoubleLoggable climberRightVelocity = BucketLog.doubleLoggable(DashboardKey.CLIMBER_MOTORS, "climber/climberRightVelocity")
+    .deadband(LOG_VELOCITY_DEADBAND_TICKS)
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+
+  private final BooleanLoggable climberLeftRevLimitSwitchClosedLog = BucketLog.booleanLoggable(
+    DashboardKey.CLIMBER_STATE,
     "climber/climbLeftRevLimitSwitchClosed"
-  );
-  private final Loggable<Boolean> climberRightRevLimitSwitchClosedLog = BucketLog.loggable(
-    Put.BOOL,
+  )
+    .onChange()
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+  private final BooleanLoggable climberRightRevLimitSwitchClosedLog = BucketLog.booleanLoggable(
+    DashboardKey.CLIMBER_STATE,
     "climber/climbRightRevLimitSwitchClosed"
-  );
+  )
+    .onChange()
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
 
-  private final Loggable<Boolean> climberLeftFwdLimitSwitchClosedLog = BucketLog.loggable(
-    Put.BOOL,
+  private final BooleanLoggable climberLeftFwdLimitSwitchClosedLog = BucketLog.booleanLoggable(
+    DashboardKey.CLIMBER_STATE,
     "climber/climbLeftFwdLimitSwitchClosed"
-  );
-  private final Loggable<Boolean> climberRightFwdLimitSwitchClosedLog = BucketLog.loggable(
-    Put.BOOL,
+  )
+    .onChange()
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
+  private final BooleanLoggable climberRightFwdLimitSwitchClosedLog = BucketLog.booleanLoggable(
+    DashboardKey.CLIMBER_STATE,
     "climber/climbRightFwdLimitSwitchClosed"
-  );
+  )
+    .onChange()
+    .heartbeat(LOG_HEARTBEAT_SECONDS);
 
   // private final Loggable<Double> climberRightVoltage = BucketLog.loggable(Put.DOUBLE, "climber/climberRightPosition");
 
@@ -326,7 +355,7 @@ public class ClimberSubsystem extends BitBucketsSubsystem {
   }
 
   @Override
-  public void periodic() {
+  public void subsystemPeriodic() {
     boolean climbLeftRevLimitSwitchClosed = climberLeft.getSensorCollection().isRevLimitSwitchClosed();
     boolean climbRightRevLimitSwitchClosed = climberRight.getSensorCollection().isRevLimitSwitchClosed();
 
@@ -432,12 +461,12 @@ public class ClimberSubsystem extends BitBucketsSubsystem {
     // TODO: LIMIT SWITCHES https://docs.ctre-phoenix.com/en/stable/ch13_MC.html#limit-switches
     // TODO: you should have the joystick/ button move the motion magic setpoint, not the motor in PWM mode
     if (climberTilted || climberLeft.getSelectedSensorPosition() < fullExtendPositionUprightLeft) {
-      climberLeft.set(ControlMode.PercentOutput, climbOutput.currentValue());
+      climberLeft.set(ControlMode.PercentOutput, climbOutput.getAsDouble());
       climberExtending = true;
     }
     // climberRight.follow(climberLeft, FollowerType.AuxOutput1);
     if (climberTilted || climberRight.getSelectedSensorPosition() < fullExtendPositionUprightRight) {
-      climberRight.set(ControlMode.PercentOutput, climbOutput.currentValue());
+      climberRight.set(ControlMode.PercentOutput, climbOutput.getAsDouble());
       climberExtending = true;
     }
 
@@ -451,9 +480,9 @@ public class ClimberSubsystem extends BitBucketsSubsystem {
 
     // TODO: LIMIT SWITCHES https://docs.ctre-phoenix.com/en/stable/ch13_MC.html#limit-switches
     // TODO: you should have the joystick/ button move the motion magic setpoint, not the motor in PWM mode
-    climberLeft.set(ControlMode.PercentOutput, -climbOutput.currentValue());
+    climberLeft.set(ControlMode.PercentOutput, -climbOutput.getAsDouble());
     // climberRight.follow(climberLeft, FollowerType.AuxOutput1);
-    climberRight.set(ControlMode.PercentOutput, -climbOutput.currentValue());
+    climberRight.set(ControlMode.PercentOutput, -climbOutput.getAsDouble());
 
     climbState.log(LogLevel.GENERAL, "elevatorRetract");
   }
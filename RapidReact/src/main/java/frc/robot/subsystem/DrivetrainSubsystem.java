@@ -15,22 +15,31 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
-import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.SPI;
+import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInLayouts;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
+import edu.wpi.first.wpilibj.simulation.SimDeviceSim;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Robot;
 import frc.robot.config.Config;
 import frc.robot.log.BucketLog;
+import frc.robot.log.DoubleLoggable;
 import frc.robot.log.LogLevel;
 import frc.robot.log.Loggable;
 import frc.robot.log.Put;
+import frc.robot.simulator.SimulationWorld;
+import frc.robot.simulator.SwerveDrivetrainSim;
+import frc.robot.utils.DashboardKey;
+import frc.robot.utils.ModuleStates;
+import frc.robot.utils.SwerveKinematics;
+import frc.robot.utils.SwerveOdometry;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.StringJoiner;
 
 public class DrivetrainSubsystem extends BitBucketsSubsystem {
 
@@ -62,7 +71,9 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
   public double speedModifier;
 
   // Instance Variables
+  // WPILib kinematics for the path follower, the drive loop itself uses the allocation free one
   public SwerveDriveKinematics kinematics;
+  private SwerveKinematics swerveKinematics;
 
   // By default we use a Pigeon for our gyroscope. But if you use another
   // gyroscope, like a NavX, you can change this.
@@ -85,11 +96,26 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
   private Translation2d moduleBackLeftLocation;
   private Translation2d moduleBackRightLocation;
 
-  public SwerveDriveOdometry odometry;
+  public SwerveOdometry odometry;
 
-  private final Loggable<String> odometryLoggable = BucketLog.loggable(Put.STRING, "drivetrain/odometry");
+  // Physics of the drivetrain, only in simulation
+  private SwerveDrivetrainSim sim;
+  private SimDouble simGyroYaw;
 
-  private SimpleMotorFeedforward feedForward = new SimpleMotorFeedforward(0.12817, 2.3423, 0.53114);
+  // Reused every loop so teleop driving doesn't allocate
+  private final ModuleStates targetStates = new ModuleStates(4);
+  private final ModuleStates measuredStates = new ModuleStates(4);
+  private final ModuleStates stickyStates = new ModuleStates(4);
+
+  private final Loggable<String> odometryLoggable = BucketLog.loggable(DashboardKey.DRIVE_ODOMETRY, Put.STRING, "drivetrain/odometry");
+  // driver dashboard, keys kept from the SmartDashboard layouts
+  private final DoubleLoggable xLoggable = BucketLog.doubleLoggable(DashboardKey.DRIVE_ODOMETRY, LogLevel.GENERAL, "/drivetrain/actual_X");
+  private final DoubleLoggable yLoggable = BucketLog.doubleLoggable(DashboardKey.DRIVE_ODOMETRY, LogLevel.GENERAL, "/drivetrain/actual_Y");
+  private final DoubleLoggable thetaLoggable = BucketLog.doubleLoggable(DashboardKey.DRIVE_ODOMETRY, LogLevel.GENERAL, "/drivetrain/actual_Theta");
+  private final DoubleLoggable gyroHeadingLoggable = BucketLog.doubleLoggable(DashboardKey.DRIVE_ODOMETRY, LogLevel.GENERAL, "/drivetrain/gyro_heading_radians");
+  private final DoubleLoggable speedModifierLoggable = BucketLog.doubleLoggable(DashboardKey.DRIVE_INPUT, LogLevel.GENERAL, "/drivetrain/speed_modifier");
+
+  private SimpleMotorFeedforward feedForward;
 
 
   @Override
@@ -109,6 +135,8 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
 
     this.speedModifier = 1.0;
 
+    this.feedForward = new SimpleMotorFeedforward(config.drive.driveKS, config.drive.driveKV, config.drive.driveKA);
+
     this.moduleFrontLeftLocation =
       new Translation2d(config.drive.drivetrainTrackWidth_meters / 2.0, config.drive.drivetrainWheelBase_meters / 2.0);
     this.moduleFrontRightLocation =
@@ -128,6 +156,19 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
         moduleBackLeftLocation,
         moduleBackRightLocation
       );
+    this.swerveKinematics =
+      new SwerveKinematics(
+        moduleFrontLeftLocation,
+        moduleFrontRightLocation,
+        moduleBackLeftLocation,
+        moduleBackRightLocation
+      );
+
+    // X formation, hard to push around
+    this.stickyStates.set(0, 0, Math.toRadians(45)); //Front Left
+    this.stickyStates.set(1, 0, Math.toRadians(-45)); //Front Right
+    this.stickyStates.set(2, 0, Math.toRadians(-45)); //Back Left
+    this.stickyStates.set(3, 0, Math.toRadians(45)); //Back Right
 
     this.gyro = new AHRS(SPI.Port.kMXP, (byte)200);
 
@@ -135,6 +176,20 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
 
     this.initializeModules();
 
+    if (Robot.isSimulation()) {
+      this.sim = new SwerveDrivetrainSim(
+        config,
+        SdsModuleConfigurations.MK4_L2.getWheelDiameter(),
+        SdsModuleConfigurations.MK4_L2.getDriveReduction(),
+        SdsModuleConfigurations.MK4_L2.getSteerReduction()
+      );
+      this.simGyroYaw = new SimDeviceSim("navX-Sensor[0]").getDouble("Yaw");
+
+      // sub-steps of the drive sim's own length, so the steering loop stays stable
+      int subSteps = (int) Math.max(1, Math.round(config.simulationStepSeconds / config.drive.simStepSeconds));
+      SimulationWorld.getInstance().add("drivetrain", subSteps, sim::update);
+    }
+
     setOdometry(new Pose2d());
   }
 
@@ -211,12 +266,7 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
   }
 
   public void stopSticky() {
-    setStates(new SwerveModuleState[]{
-      new SwerveModuleState(0, Rotation2d.fromDegrees(45)), //Front Left
-      new SwerveModuleState(0, Rotation2d.fromDegrees(-45)), //Front Right
-      new SwerveModuleState(0, Rotation2d.fromDegrees(-45)), //Back Left
-      new SwerveModuleState(0, Rotation2d.fromDegrees(45)) //Back Right
-    });
+    setStates(stickyStates);
   }
 
   public void orient() {
@@ -229,41 +279,78 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
   }
 
   public void drive(ChassisSpeeds chassisSpeeds) {
-    //this.chassisSpeeds = chassisSpeeds;
+    this.drive(chassisSpeeds.vxMetersPerSecond, chassisSpeeds.vyMetersPerSecond, chassisSpeeds.omegaRadiansPerSecond);
+  }
 
-    this.setStates(this.kinematics.toSwerveModuleStates(chassisSpeeds));
+  /**
+   * Drive relative to the robot, without allocating.
+   */
+  public void drive(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond) {
+    this.swerveKinematics.toModuleStates(vxMetersPerSecond, vyMetersPerSecond, omegaRadiansPerSecond, targetStates);
+    this.setStates(targetStates);
   }
 
-  @Override
-  public void periodic() {
-
-    this.odometry.update(
-            this.gyro.getRotation2d(), //Gyro Angle
-            new SwerveModuleState(this.moduleFrontLeft.getDriveVelocity(), new Rotation2d(this.moduleFrontLeft.getSteerAngle())), //Front Left
-            new SwerveModuleState(this.moduleFrontRight.getDriveVelocity(), new Rotation2d(this.moduleFrontRight.getSteerAngle())), //Front Right
-            new SwerveModuleState(this.moduleBackLeft.getDriveVelocity(), new Rotation2d(this.moduleBackLeft.getSteerAngle())), //Back Left
-            new SwerveModuleState(this.moduleBackRight.getDriveVelocity(), new Rotation2d(this.moduleBackRight.getSteerAngle())) //Back Right
+  /**
+   * Drive relative to the field, like ChassisSpeeds.fromFieldRelativeSpeeds with the gyro angle.
+   */
+  public void driveFieldRelative(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond) {
+    double heading = this.getGyroRadians();
+    double cos = Math.cos(heading);
+    double sin = Math.sin(heading);
+
+    this.drive(
+      vxMetersPerSecond * cos + vyMetersPerSecond * sin,
+      -vxMetersPerSecond * sin + vyMetersPerSecond * cos,
+      omegaRadiansPerSecond
     );
+  }
+
+  @Override
+  public void subsystemPeriodic() {
+    if (sim != null) {
+      // the simulated Falcons don't move, the encoders are read from the drivetrain model instead
+      for (int i = 0; i < 4; i++) {
+        measuredStates.set(i, sim.getWheelSpeedMetersPerSecond(i), sim.getSteerAngleRadians(i));
+      }
+    } else {
+      for (int i = 0; i < 4; i++) {
+        SwerveModule module = modules.get(i);
+        measuredStates.set(i, module.getDriveVelocity(), module.getSteerAngle());
+      }
+    }
+
+    this.odometry.update(Timer.getFPGATimestamp(), this.getGyroRadians(), measuredStates);
 
-      this.dumpInfo();
+    this.dumpInfo();
+  }
+
+  @Override
+  public void subsystemSimulationPeriodic() {
+    if (simGyroYaw != null) {
+      simGyroYaw.set(sim.getGyroYawDegrees());
+    }
   }
 
   public void setStates(SwerveModuleState[] states)
   {
     if (states != null) {
-      SwerveDriveKinematics.desaturateWheelSpeeds(states, this.getMaxVelocity());
+      this.targetStates.set(states);
+      this.setStates(this.targetStates);
+    }
+  }
 
-      for(int i = 0; i < 4; i++)
-      {
-        //System.out.println("Module " + i + ": " + states[i].angle.getDegrees());
-        modules.get(i).set(velocityToDriveVolts(states[i].speedMetersPerSecond), states[i].angle.getRadians());
-      }
+  public void setStates(ModuleStates states)
+  {
+    states.desaturate(this.getMaxVelocity());
 
-      //pose = odometry.update(this.gyro.getRotation2d(), states[0], states[1], states[2], states[3]);
+    for(int i = 0; i < 4; i++)
+    {
+      double volts = velocityToDriveVolts(states.speedsMetersPerSecond[i]);
+      modules.get(i).set(volts, states.anglesRadians[i]);
 
-      SmartDashboard.putNumber("/drivetrain/actual_X", odometry.getPoseMeters().getX());
-      SmartDashboard.putNumber("/drivetrain/actual_Y", odometry.getPoseMeters().getY());
-      SmartDashboard.putNumber("/drivetrain/actual_Theta", odometry.getPoseMeters().getRotation().getRadians());
+      if (sim != null) {
+        sim.set(i, volts, states.anglesRadians[i]);
+      }
     }
   }
 
@@ -283,9 +370,13 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
 
   //DOES NOT RESET GYRO
   public void setOdometry(Pose2d startingPosition) {
-    odometry = new SwerveDriveOdometry(kinematics, this.gyro.getRotation2d(), startingPosition);
+    if (sim != null) {
+      sim.reset(startingPosition);
+    }
 
-    odometryLoggable.log(LogLevel.DEBUG, "Reset Odometry to Starting Position: " + startingPosition);
+    odometry = new SwerveOdometry(swerveKinematics, this.getGyroRadians(), startingPosition);
+
+    odometryLoggable.log(LogLevel.DEBUG, () -> "Reset Odometry to Starting Position: " + startingPosition);
     SmartDashboard.putString("/drivetrain/start_position", startingPosition.toString());
     //this.dumpInfo();
   }
@@ -294,31 +385,47 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
   {
     gyro.reset();
     gyro.setAngleAdjustment(0);
+
+    if (sim != null) {
+      sim.zeroGyro();
+    }
   }
 
   public void resetGyroWithOffset(Rotation2d r)
   {
     gyro.reset();
     gyro.setAngleAdjustment(r.getDegrees());
+
+    if (sim != null) {
+      sim.zeroGyro();
+    }
+  }
+
+  /**
+   * @return the physics of the drivetrain, null unless simulating
+   */
+  public SwerveDrivetrainSim getSimulation() {
+    return sim;
   }
 
   public Rotation2d getGyroAngle() {
     return this.gyro.getRotation2d();
   }
 
+  /**
+   * Same as getGyroAngle without the Rotation2d, counter clockwise positive.
+   */
+  public double getGyroRadians() {
+    return Math.toRadians(-this.gyro.getAngle());
+  }
+
   private void dumpInfo()
   {
-    StringJoiner s = new StringJoiner("\n")
-            .add("-----------------")
-            .add("Odometry Position: " + this.odometry.getPoseMeters())
-            .add("Drivetrain Gyro Heading: " + this.gyro.getRotation2d())
-            .add("-----------------");
-
-    //odometryLoggable.log(LogLevel.DEBUG, s.toString());
-
-    SmartDashboard.putString("/drivetrain/odometry_position", this.odometry.getPoseMeters().toString());
-    SmartDashboard.putString("/drivetrain/gyro_heading", this.gyro.getRotation2d().toString());
-    SmartDashboard.putNumber("/drivetrain/speed_modifier", this.speedModifier);
+    xLoggable.log(this.odometry.getX());
+    yLoggable.log(this.odometry.getY());
+    thetaLoggable.log(this.odometry.getHeadingRadians());
+    gyroHeadingLoggable.log(this.getGyroRadians());
+    speedModifierLoggable.log(this.speedModifier);
   }
 
   public void zeroStates(Pose2d start)
@@ -332,7 +439,7 @@ public class DrivetrainSubsystem extends BitBucketsSubsystem {
   }
 
   public void stop() {
-    this.drive(new ChassisSpeeds(0.0, 0.0, 0.0));
+    this.drive(0.0, 0.0, 0.0);
   }
   
   @Override
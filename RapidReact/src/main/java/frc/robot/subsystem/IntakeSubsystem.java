@@ -9,6 +9,7 @@ import frc.robot.Robot;
 import frc.robot.config.Config;
 import frc.robot.log.*;
 import frc.robot.simulator.CTREPhysicsSim;
+import frc.robot.utils.DashboardKey;
 import frc.robot.utils.MotorUtils;
 
 public class IntakeSubsystem extends BitBucketsSubsystem {
@@ -21,15 +22,14 @@ public class IntakeSubsystem extends BitBucketsSubsystem {
   DoubleSolenoid intakeSolenoid;
 
   //dashboard stuff
-  private final Changeable<Double> intakePercentOutput = BucketLog.changeable(Put.DOUBLE, "intake/intakePercentOutput", 0.6);
-  private final Changeable<Double> bmsPercentOutput = BucketLog.changeable(Put.DOUBLE, "intake/bmsPercentOutput", 0.5);
-  private final Changeable<Boolean> autoExtend = BucketLog.changeable(
-    Put.BOOL,
+  private final DoubleChangeable intakePercentOutput = BucketLog.doubleChangeable("intake/intakePercentOutput", 0.6);
+  private final DoubleChangeable bmsPercentOutput = BucketLog.doubleChangeable("intake/bmsPercentOutput", 0.5);
+  private final BooleanChangeable autoExtend = BucketLog.booleanChangeable(
     "intake/autoExtend",
     config.intake.defaultIntakeAutoExtend
   );
-  private final Loggable<String> intakeState = BucketLog.loggable(Put.STRING, "intake/intakeState");
-  public final Loggable<String> bmsState = BucketLog.loggable(Put.STRING, "intake/bmsState");
+  private final Loggable<String> intakeState = BucketLog.loggable(DashboardKey.INTAKE_STATE, Put.STRING, "intake/intakeState");
+  public final Loggable<String> bmsState = BucketLog.loggable(DashboardKey.FEEDER_STATE, Put.STRING, "intake/bmsState");
 
   public IntakeSubsystem(Config config) {
     super(config);
@@ -60,7 +60,7 @@ public class IntakeSubsystem extends BitBucketsSubsystem {
   }
 
   @Override
-  public void periodic() {}
+  public void subsystemPeriodic() {}
 
   @Override
   public void disable() {
@@ -69,22 +69,22 @@ public class IntakeSubsystem extends BitBucketsSubsystem {
 
   //intaking, outtaking, and stop the intake
   public void spinForward() {
-    if (autoExtend.currentValue() && config.enablePneumatics) {
+    if (autoExtend.getAsBoolean() && config.enablePneumatics) {
       intakeSolenoid.set(Value.kForward);
     }
-    intake.set(ControlMode.PercentOutput, intakePercentOutput.currentValue());
+    intake.set(ControlMode.PercentOutput, intakePercentOutput.getAsDouble());
     intakeState.log("intaking");
     ballManagementForward();
   }
 
   public void spinBackward() {
-    intake.set(ControlMode.PercentOutput, -intakePercentOutput.currentValue());
+    intake.set(ControlMode.PercentOutput, -intakePercentOutput.getAsDouble());
     intakeState.log("outtaking");
     ballManagementBackward();
   }
 
   public void stopSpin() {
-    if (autoExtend.currentValue() && config.enablePneumatics) {
+    if (autoExtend.getAsBoolean() && config.enablePneumatics) {
       intakeSolenoid.set(Value.kReverse);
     }
     intake.set(ControlMode.PercentOutput, 0);
@@ -94,7 +94,7 @@ public class IntakeSubsystem extends BitBucketsSubsystem {
 
   //toggles turning the intake on or off
   public void toggle() {
-    if (config.enablePneumatics && autoExtend.currentValue() == false) {
+    if (config.enablePneumatics && autoExtend.getAsBoolean() == false) {
       if (!toggleState) {
         intakeSolenoid.set(Value.kForward);
         intakeState.log("intaking");
@@ -114,12 +114,12 @@ public class IntakeSubsystem extends BitBucketsSubsystem {
   }
 
   public void ballManagementForward() {
-    ballManagement.set(ControlMode.PercentOutput, bmsPercentOutput.currentValue());
+    ballManagement.set(ControlMode.PercentOutput, bmsPercentOutput.getAsDouble());
     bmsState.log(LogLevel.GENERAL, "bms intaking");
   }
 
   public void ballManagementBackward() {
-    ballManagement.set(ControlMode.PercentOutput, -bmsPercentOutput.currentValue());
+    ballManagement.set(ControlMode.PercentOutput, -bmsPercentOutput.getAsDouble());
     bmsState.log(LogLevel.GENERAL, "bms outtaking");
   }
 
@@ -3,16 +3,14 @@ package frc.robot.subsystem;
 import edu.wpi.first.wpilibj.motorcontrol.PWMSparkMax;
 import frc.robot.config.Config;
 import frc.robot.log.BucketLog;
-import frc.robot.log.Changeable;
-import frc.robot.log.Put;
+import frc.robot.log.DoubleChangeable;
 import frc.robot.utils.BlinkenColors;
 
 public class RGBSubsystem extends BitBucketsSubsystem {
 
   private final PWMSparkMax motor;
 
-  private final Changeable<Double> color = BucketLog.changeable(
-    Put.DOUBLE,
+  private final DoubleChangeable color = BucketLog.doubleChangeable(
     "rgb/color",
     BlinkenColors.Colors_Violet.getValue()
   );
@@ -26,7 +24,7 @@ public class RGBSubsystem extends BitBucketsSubsystem {
   @Override
   public void init() {
     // TODO Auto-generated method stub
-    motor.set(color.currentValue());
+    motor.set(color.getAsDouble());
   }
 
   public void climberEnabled() {
@@ -52,7 +50,7 @@ public class RGBSubsystem extends BitBucketsSubsystem {
   }
 
   @Override
-  public void periodic() {
+  public void subsystemPeriodic() {
     // TODO Auto-generated method stub
 
   }
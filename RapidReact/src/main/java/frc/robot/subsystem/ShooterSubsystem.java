@@ -5,14 +5,15 @@ import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.CANSparkMax.ControlType;
-import com.revrobotics.REVPhysicsSim;
 import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.wpilibj.Encoder;
 import edu.wpi.first.wpilibj.simulation.EncoderSim;
 import edu.wpi.first.wpilibj.simulation.FlywheelSim;
 import frc.robot.Robot;
 import frc.robot.config.Config;
+import frc.robot.simulator.SimulationWorld;
 import frc.robot.log.*;
+import frc.robot.utils.DashboardKey;
 import frc.robot.utils.MotorUtils;
 
 public class ShooterSubsystem extends BitBucketsSubsystem {
@@ -21,33 +22,31 @@ public class ShooterSubsystem extends BitBucketsSubsystem {
   private CANSparkMax shooterBottom;
   private TalonSRX feeder;
 
-  private final Changeable<Double> topSpeed = BucketLog.changeable(Put.DOUBLE, "shooter/topShooterSpeed", 4150.0);
-  private final Changeable<Double> bottomSpeed = BucketLog.changeable(
-    Put.DOUBLE,
+  private final DoubleChangeable topSpeed = BucketLog.doubleChangeable("shooter/topShooterSpeed", 4150.0);
+  private final DoubleChangeable bottomSpeed = BucketLog.doubleChangeable(
     "shooter/bottomShooterSpeed",
     2200.0
   );
-  private final Changeable<Double> topSpeedLow = BucketLog.changeable(Put.DOUBLE, "shooter/topShooterSpeedLow", 1600.0);
-  private final Changeable<Double> bottomSpeedLow = BucketLog.changeable(
-    Put.DOUBLE,
+  private final DoubleChangeable topSpeedLow = BucketLog.doubleChangeable("shooter/topShooterSpeedLow", 1600.0);
+  private final DoubleChangeable bottomSpeedLow = BucketLog.doubleChangeable(
     "shooter/bottomShooterSpeedLow",
     2000.0
   );
-  private final Changeable<Double> feederPO = BucketLog.changeable(Put.DOUBLE, "shooter/feederPercentOutput", 0.5);
-  private final Changeable<Double> feederHoldPO = BucketLog.changeable(Put.DOUBLE, "shooter/feederHoldPercentOutput", 0.7);
+  private final DoubleChangeable feederPO = BucketLog.doubleChangeable("shooter/feederPercentOutput", 0.5);
+  private final DoubleChangeable feederHoldPO = BucketLog.doubleChangeable("shooter/feederHoldPercentOutput", 0.7);
 
   private float hubSpinUpSpeedDeadband = 300;
 
 
-  private final Loggable<String> shootState = BucketLog.loggable(Put.STRING, "shooter/shootState");
-  private final Loggable<Double> roller1OutputVelLoggable = BucketLog.loggable(Put.DOUBLE, "shooter/Roller1OutputVel");
-  private final Loggable<Double> roller2OutputVelLoggable = BucketLog.loggable(Put.DOUBLE, "shooter/Roller2OutputVel");
+  private final Loggable<String> shootState = BucketLog.loggable(DashboardKey.SHOOTER_STATE, Put.STRING, "shooter/shootState");
+  private final DoubleLoggable roller1OutputVelLoggable = BucketLog.doubleLoggable(DashboardKey.SHOOTER_TUNING, "shooter/Roller1OutputVel");
+  private final DoubleLoggable roller2OutputVelLoggable = BucketLog.doubleLoggable(DashboardKey.SHOOTER_TUNING, "shooter/Roller2OutputVel");
 
-  private final Loggable<Double> topShooterSpeed = BucketLog.loggable(Put.DOUBLE, "shooter/topShooterActualSpeed");
-  private final Loggable<Double> bottomShooterSpeed = BucketLog.loggable(Put.DOUBLE, "shooter/bottomShooterActualSpeed");
+  private final DoubleLoggable topShooterSpeed = BucketLog.doubleLoggable(DashboardKey.SHOOTER_SPEED, "shooter/topShooterActualSpeed");
+  private final DoubleLoggable bottomShooterSpeed = BucketLog.doubleLoggable(DashboardKey.SHOOTER_SPEED, "shooter/bottomShooterActualSpeed");
 
-  private final Loggable<Double> topShooterError = BucketLog.loggable(Put.DOUBLE, "shooter/topShooterError");
-  private final Loggable<Double> bottomShooterError = BucketLog.loggable(Put.DOUBLE, "shooter/bottomShooterError");
+  private final DoubleLoggable topShooterError = BucketLog.doubleLoggable(DashboardKey.SHOOTER_TUNING, "shooter/topShooterError");
+  private final DoubleLoggable bottomShooterError = BucketLog.doubleLoggable(DashboardKey.SHOOTER_TUNING, "shooter/bottomShooterError");
 
   FlywheelSim flywheelSim;
   EncoderSim encoderSim;
@@ -81,17 +80,17 @@ public class ShooterSubsystem extends BitBucketsSubsystem {
   public void spinUpTop() {
     shootState.log("TopShooting");
 
-    shooterTop.getPIDController().setReference(topSpeed.currentValue(), ControlType.kVelocity, MotorUtils.velocitySlot);
-    shooterBottom.getPIDController().setReference(bottomSpeed.currentValue(), ControlType.kVelocity, MotorUtils.velocitySlot);
+    shooterTop.getPIDController().setReference(topSpeed.getAsDouble(), ControlType.kVelocity, MotorUtils.velocitySlot);
+    shooterBottom.getPIDController().setReference(bottomSpeed.getAsDouble(), ControlType.kVelocity, MotorUtils.velocitySlot);
     shooterState = ShooterState.TOP;
   }
 
   public void shootLow() {
     shootState.log("LowShooting");
-    shooterTop.getPIDController().setReference(topSpeedLow.currentValue(), ControlType.kVelocity, MotorUtils.velocitySlot);
+    shooterTop.getPIDController().setReference(topSpeedLow.getAsDouble(), ControlType.kVelocity, MotorUtils.velocitySlot);
     shooterBottom
       .getPIDController()
-      .setReference(bottomSpeedLow.currentValue(), ControlType.kVelocity, MotorUtils.velocitySlot);
+      .setReference(bottomSpeedLow.getAsDouble(), ControlType.kVelocity, MotorUtils.velocitySlot);
     shooterState = ShooterState.LOW;
   }
 
@@ -101,7 +100,7 @@ public class ShooterSubsystem extends BitBucketsSubsystem {
   }
 
   public void turnOnFeeders() {
-    feeder.set(ControlMode.PercentOutput, feederPO.currentValue());
+    feeder.set(ControlMode.PercentOutput, feederPO.getAsDouble());
   }
 
   public void turnOffFeeders() {
@@ -109,7 +108,7 @@ public class ShooterSubsystem extends BitBucketsSubsystem {
   }
 
   public void antiFeed() {
-    feeder.set(ControlMode.PercentOutput, -feederHoldPO.currentValue());
+    feeder.set(ControlMode.PercentOutput, -feederHoldPO.getAsDouble());
   }
   
   @Override
@@ -129,9 +128,17 @@ public class ShooterSubsystem extends BitBucketsSubsystem {
       Encoder encoder = new Encoder(2, 3);
       encoder.reset();
       encoderSim = new EncoderSim(encoder);
+
+      SimulationWorld.getInstance().add("shooter", this::stepFlywheel);
     }
   }
 
+  private void stepFlywheel(double dtSeconds) {
+    flywheelSim.setInput(shooterTop.get() * this.config.maxVoltage);
+    flywheelSim.update(dtSeconds);
+    encoderSim.setRate(flywheelSim.getAngularVelocityRadPerSec());
+  }
+
   boolean motorIsInSpeedDeadband(CANSparkMax motor, double speed) {
     return (
       (motor.getEncoder().getVelocity() <= speed + hubSpinUpSpeedDeadband) &&
@@ -142,13 +149,13 @@ public class ShooterSubsystem extends BitBucketsSubsystem {
   public boolean isUpToSpeed() {
     return (
       // true ||
-      motorIsInSpeedDeadband(shooterTop, topSpeed.currentValue()) &&
-      motorIsInSpeedDeadband(shooterBottom, bottomSpeed.currentValue())
+      motorIsInSpeedDeadband(shooterTop, topSpeed.getAsDouble()) &&
+      motorIsInSpeedDeadband(shooterBottom, bottomSpeed.getAsDouble())
     );
   }
 
   @Override
-  public void periodic() {
+  public void subsystemPeriodic() {
     topShooterSpeed.log(LogLevel.GENERAL, shooterTop.getEncoder().getVelocity());
     bottomShooterSpeed.log(LogLevel.GENERAL, shooterBottom.getEncoder().getVelocity());
 
@@ -156,8 +163,8 @@ public class ShooterSubsystem extends BitBucketsSubsystem {
     double bottomError;
     if (isShooting())
     {
-      topError = shooterTop.getEncoder().getVelocity() - topSpeed.currentValue();
-      bottomError = shooterBottom.getEncoder().getVelocity() - bottomSpeed.currentValue();
+      topError = shooterTop.getEncoder().getVelocity() - topSpeed.getAsDouble();
+      bottomError = shooterBottom.getEncoder().getVelocity() - bottomSpeed.getAsDouble();
     }
     else
     {
@@ -170,13 +177,7 @@ public class ShooterSubsystem extends BitBucketsSubsystem {
   }
 
   @Override
-  public void simulationPeriodic() {
-    REVPhysicsSim.getInstance().run();
-
-    flywheelSim.setInput(shooterTop.get() * this.config.maxVoltage);
-    flywheelSim.update(0.02); //Used to be SimConstants.SIM_SAMPLE_RATE_SEC
-    encoderSim.setRate(flywheelSim.getAngularVelocityRadPerSec());
-
+  public void subsystemSimulationPeriodic() {
     // encoderSim.get
 
     // roller1.getEncoder().setPosition(Units.radiansPerSecondToRotationsPerMinute(encoderSim.getRate()));
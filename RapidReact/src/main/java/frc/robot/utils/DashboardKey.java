@@ -1,12 +1,56 @@
 package frc.robot.utils;
 
+import frc.robot.log.PublishRate;
+import frc.robot.log.TelemetryProfile;
+
+/**
+ * A group of loggable keys that is published at the same rate. Every group has one rate per
+ * {@link TelemetryProfile}, a DashboardKey disabled in the {@link DashboardConfig} is never
+ * published regardless of the profile.
+ *
+ * The rate only applies to the dashboard. A key that is {@link PublishRate#OFF} is still written
+ * to the on-robot recording, so e.g. DRIVE_INPUT can be looked at after a competition match.
+ */
 public enum DashboardKey {
-  FEEDER_STATE("Feeder State"),
-  SHOOTER_STATE("Shooter State");
+  GENERAL("General", PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  AUTO_STATE("Auto State", PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  DRIVE_ODOMETRY("Drive Odometry", PublishRate.TEN_HZ, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  DRIVE_INPUT("Drive Input", PublishRate.OFF, PublishRate.TEN_HZ, PublishRate.EVERY_LOOP),
+  INTAKE_STATE("Intake State", PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  FEEDER_STATE("Feeder State", PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  SHOOTER_STATE("Shooter State", PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  SHOOTER_SPEED("Shooter Speed", PublishRate.TEN_HZ, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  SHOOTER_TUNING("Shooter Tuning", PublishRate.OFF, PublishRate.TEN_HZ, PublishRate.EVERY_LOOP),
+  CLIMBER_STATE("Climber State", PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  CLIMBER_MOTORS("Climber Motors", PublishRate.ONE_HZ, PublishRate.TEN_HZ, PublishRate.EVERY_LOOP),
+  LOOP_TIMING("Loop Timing", PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP, PublishRate.EVERY_LOOP),
+  TEST("Test", PublishRate.OFF, PublishRate.OFF, PublishRate.EVERY_LOOP);
 
   public String name;
 
-  DashboardKey(String name) {
+  private final PublishRate competitionRate;
+  private final PublishRate practiceRate;
+  private final PublishRate debugRate;
+
+  DashboardKey(String name, PublishRate competitionRate, PublishRate practiceRate, PublishRate debugRate) {
     this.name = name;
+    this.competitionRate = competitionRate;
+    this.practiceRate = practiceRate;
+    this.debugRate = debugRate;
+  }
+
+  /**
+   * @param profile the active profile
+   * @return how often keys of this group are published in that profile
+   */
+  public PublishRate rate(TelemetryProfile profile) {
+    switch (profile) {
+      case COMPETITION:
+        return competitionRate;
+      case PRACTICE:
+        return practiceRate;
+      default:
+        return debugRate;
+    }
   }
 }
@@ -0,0 +1,60 @@
+package frc.robot.utils;
+
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Speeds and angles of swerve modules kept in plain arrays, so the drive loop can reuse one
+ * instance instead of allocating {@link SwerveModuleState}s and {@code Rotation2d}s every loop.
+ * Modules are in the order they were given to {@link SwerveKinematics}.
+ */
+public class ModuleStates {
+
+  public final double[] speedsMetersPerSecond;
+  public final double[] anglesRadians;
+
+  public ModuleStates(int modules) {
+    this.speedsMetersPerSecond = new double[modules];
+    this.anglesRadians = new double[modules];
+  }
+
+  public int size() {
+    return speedsMetersPerSecond.length;
+  }
+
+  public void set(int module, double speedMetersPerSecond, double angleRadians) {
+    speedsMetersPerSecond[module] = speedMetersPerSecond;
+    anglesRadians[module] = angleRadians;
+  }
+
+  /**
+   * Copy WPILib states, for callers like the path follower that already have them.
+   *
+   * @param states one state per module
+   */
+  public void set(SwerveModuleState[] states) {
+    if (states.length != size()) throw new IllegalArgumentException("Expected " + size() + " module states!");
+
+    for (int i = 0; i < states.length; i++) {
+      set(i, states[i].speedMetersPerSecond, states[i].angle.getRadians());
+    }
+  }
+
+  /**
+   * Scale every speed down by the same factor if any of them is above the max, like
+   * {@code SwerveDriveKinematics.desaturateWheelSpeeds}.
+   *
+   * @param maxSpeedMetersPerSecond the fastest a module can go
+   */
+  public void desaturate(double maxSpeedMetersPerSecond) {
+    double fastest = 0;
+    for (double speed : speedsMetersPerSecond) {
+      fastest = Math.max(fastest, Math.abs(speed));
+    }
+
+    if (fastest > maxSpeedMetersPerSecond) {
+      for (int i = 0; i < speedsMetersPerSecond.length; i++) {
+        speedsMetersPerSecond[i] = speedsMetersPerSecond[i] / fastest * maxSpeedMetersPerSecond;
+      }
+    }
+  }
+}
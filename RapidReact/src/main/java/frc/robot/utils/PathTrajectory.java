@@ -0,0 +1,60 @@
+package frc.robot.utils;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+
+/**
+ * The parts of a {@link PathPlannerTrajectory} the path follower uses, so it can follow one
+ * generated by PathPlanner or one compiled ahead of time by {@link TrajectoryFile}.
+ */
+public interface PathTrajectory {
+
+  /**
+   * @param timeSeconds time since the start, clamped to the trajectory
+   */
+  PathPlannerState sample(double timeSeconds);
+
+  /**
+   * Sample without allocating a state where the trajectory supports it.
+   *
+   * @param state filled in if the trajectory can, use the returned state either way
+   */
+  default PathPlannerState sample(double timeSeconds, PathPlannerState state) {
+    return sample(timeSeconds);
+  }
+
+  PathPlannerState getInitialState();
+
+  PathPlannerState getEndState();
+
+  double getTotalTimeSeconds();
+
+  /**
+   * @return the trajectory as a PathTrajectory, null if it's null
+   */
+  static PathTrajectory of(PathPlannerTrajectory trajectory) {
+    if (trajectory == null) return null;
+
+    return new PathTrajectory() {
+      @Override
+      public PathPlannerState sample(double timeSeconds) {
+        return (PathPlannerState) trajectory.sample(timeSeconds);
+      }
+
+      @Override
+      public PathPlannerState getInitialState() {
+        return (PathPlannerState) trajectory.getInitialState();
+      }
+
+      @Override
+      public PathPlannerState getEndState() {
+        return (PathPlannerState) trajectory.getEndState();
+      }
+
+      @Override
+      public double getTotalTimeSeconds() {
+        return trajectory.getTotalTimeSeconds();
+      }
+    };
+  }
+}
@@ -0,0 +1,140 @@
+package frc.robot.utils;
+
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A trajectory sampled at a fixed time step into parallel arrays, one per field.
+ *
+ * Sampling indexes straight into the arrays instead of binary searching a list of states, and
+ * {@link #sample(double, PathPlannerState)} fills in a state the caller keeps. Seven doubles per
+ * sample is also a fraction of what a list of PathPlannerStates with their poses takes.
+ */
+public class SampledTrajectory implements PathTrajectory {
+
+  private final double stepSeconds;
+  private final double totalTimeSeconds;
+  private final int count;
+
+  final double[] x;
+  final double[] y;
+  final double[] heading;
+  final double[] velocity;
+  final double[] acceleration;
+  final double[] curvature;
+  final double[] holonomicRotation;
+
+  /**
+   * @param stepSeconds time between samples
+   * @param totalTimeSeconds length of the trajectory, the last sample is at the end
+   * @param count number of samples in the arrays
+   */
+  SampledTrajectory(double stepSeconds, double totalTimeSeconds, int count) {
+    if (stepSeconds <= 0) throw new IllegalArgumentException("Step must be positive!");
+    if (count < 1) throw new IllegalArgumentException("Need at least one sample!");
+
+    this.stepSeconds = stepSeconds;
+    this.totalTimeSeconds = totalTimeSeconds;
+    this.count = count;
+
+    this.x = new double[count];
+    this.y = new double[count];
+    this.heading = new double[count];
+    this.velocity = new double[count];
+    this.acceleration = new double[count];
+    this.curvature = new double[count];
+    this.holonomicRotation = new double[count];
+  }
+
+  /**
+   * Sample a trajectory every step, and at its end.
+   */
+  public static SampledTrajectory resample(PathTrajectory source, double stepSeconds) {
+    double total = source.getTotalTimeSeconds();
+
+    // a path that doesn't go anywhere can come out with no length or an infinite one
+    int count = Double.isFinite(total) && total > 0 ? (int) Math.ceil(total / stepSeconds - 1e-9) + 1 : 1;
+
+    SampledTrajectory trajectory = new SampledTrajectory(stepSeconds, total, count);
+    for (int i = 0; i < count; i++) {
+      trajectory.set(i, source.sample(Math.min(i * stepSeconds, total > 0 ? total : 0)));
+    }
+    return trajectory;
+  }
+
+  private void set(int i, PathPlannerState state) {
+    x[i] = state.poseMeters.getX();
+    y[i] = state.poseMeters.getY();
+    heading[i] = state.poseMeters.getRotation().getRadians();
+    velocity[i] = state.velocityMetersPerSecond;
+    acceleration[i] = state.accelerationMetersPerSecondSq;
+    curvature[i] = state.curvatureRadPerMeter;
+    holonomicRotation[i] = state.holonomicRotation.getRadians();
+  }
+
+  @Override
+  public PathPlannerState sample(double timeSeconds) {
+    return sample(timeSeconds, new PathPlannerState());
+  }
+
+  /**
+   * Sample into a state, overwriting it. Poses are immutable, so those are still new objects.
+   */
+  @Override
+  public PathPlannerState sample(double timeSeconds, PathPlannerState state) {
+    int from;
+    double t;
+    if (count == 1 || timeSeconds <= 0) {
+      from = 0;
+      t = 0;
+    } else {
+      double position = Math.min(timeSeconds, totalTimeSeconds) / stepSeconds;
+      from = Math.min((int) position, count - 2);
+      // the last step can be shorter than the others
+      double stepEnd = Math.min((from + 1) * stepSeconds, totalTimeSeconds);
+      t = Math.min(1, (Math.min(timeSeconds, totalTimeSeconds) - from * stepSeconds) / (stepEnd - from * stepSeconds));
+    }
+    int to = Math.min(from + 1, count - 1);
+
+    state.timeSeconds = count == 1 ? 0 : Math.max(0, Math.min(timeSeconds, totalTimeSeconds));
+    state.velocityMetersPerSecond = lerp(velocity, from, to, t);
+    state.accelerationMetersPerSecondSq = lerp(acceleration, from, to, t);
+    state.curvatureRadPerMeter = lerp(curvature, from, to, t);
+    state.poseMeters = new Pose2d(lerp(x, from, to, t), lerp(y, from, to, t), new Rotation2d(lerpAngle(heading, from, to, t)));
+    state.holonomicRotation = new Rotation2d(lerpAngle(holonomicRotation, from, to, t));
+    return state;
+  }
+
+  private static double lerp(double[] values, int from, int to, double t) {
+    return values[from] + (values[to] - values[from]) * t;
+  }
+
+  private static double lerpAngle(double[] values, int from, int to, double t) {
+    return values[from] + MathUtil.angleModulus(values[to] - values[from]) * t;
+  }
+
+  @Override
+  public PathPlannerState getInitialState() {
+    return sample(0);
+  }
+
+  @Override
+  public PathPlannerState getEndState() {
+    return sample(totalTimeSeconds);
+  }
+
+  @Override
+  public double getTotalTimeSeconds() {
+    return totalTimeSeconds;
+  }
+
+  public double getStepSeconds() {
+    return stepSeconds;
+  }
+
+  public int getSampleCount() {
+    return count;
+  }
+}
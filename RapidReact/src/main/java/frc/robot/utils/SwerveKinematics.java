@@ -0,0 +1,132 @@
+package frc.robot.utils;
+
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * The math of {@code SwerveDriveKinematics} without the allocations: chassis speeds go in and
+ * come out as doubles, module states live in a reused {@link ModuleStates}.
+ *
+ * Forward kinematics is the same least squares solution WPILib uses, the pseudo inverse is
+ * worked out once in the constructor.
+ */
+public class SwerveKinematics {
+
+  private final double[] moduleX;
+  private final double[] moduleY;
+
+  // 3 rows (vx, vy, omega) by 2 columns per module (module vx, module vy)
+  private final double[] forward;
+
+  /**
+   * @param modules the module locations relative to the center of the robot
+   */
+  public SwerveKinematics(Translation2d... modules) {
+    if (modules.length < 2) throw new IllegalArgumentException("A swerve drive requires at least two modules!");
+
+    int count = modules.length;
+    this.moduleX = new double[count];
+    this.moduleY = new double[count];
+
+    // A has rows [1, 0, -y] and [0, 1, x] per module, forward = inverse(A^T A) A^T
+    double sumX = 0;
+    double sumY = 0;
+    double sumSquares = 0;
+    for (int i = 0; i < count; i++) {
+      moduleX[i] = modules[i].getX();
+      moduleY[i] = modules[i].getY();
+
+      sumX += moduleX[i];
+      sumY += moduleY[i];
+      sumSquares += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+    }
+
+    double[] inverse = invertSymmetric(count, 0, -sumY, count, sumX, sumSquares);
+
+    this.forward = new double[3 * 2 * count];
+    for (int row = 0; row < 3; row++) {
+      for (int i = 0; i < count; i++) {
+        // column 2i is the A^T row [1, 0, -y], column 2i + 1 is the A^T row [0, 1, x]
+        forward[row * 2 * count + 2 * i] = inverse[row * 3] - inverse[row * 3 + 2] * moduleY[i];
+        forward[row * 2 * count + 2 * i + 1] = inverse[row * 3 + 1] + inverse[row * 3 + 2] * moduleX[i];
+      }
+    }
+  }
+
+  /**
+   * Invert [[a, b, c], [b, d, e], [c, e, f]].
+   */
+  private static double[] invertSymmetric(double a, double b, double c, double d, double e, double f) {
+    double c00 = d * f - e * e;
+    double c01 = c * e - b * f;
+    double c02 = b * e - c * d;
+    double c11 = a * f - c * c;
+    double c12 = b * c - a * e;
+    double c22 = a * d - b * b;
+
+    double determinant = a * c00 + b * c01 + c * c02;
+    if (Math.abs(determinant) < 1e-12) throw new IllegalArgumentException("Module locations are degenerate!");
+
+    return new double[] {
+      c00 / determinant, c01 / determinant, c02 / determinant,
+      c01 / determinant, c11 / determinant, c12 / determinant,
+      c02 / determinant, c12 / determinant, c22 / determinant
+    };
+  }
+
+  public int getModuleCount() {
+    return moduleX.length;
+  }
+
+  /**
+   * Module speeds and angles for robot relative chassis speeds. When the robot is asked to stand
+   * still the modules keep their last angles, like WPILib does.
+   *
+   * @param vxMetersPerSecond forward speed
+   * @param vyMetersPerSecond left speed
+   * @param omegaRadiansPerSecond counter clockwise rotation
+   * @param out where the states are written
+   */
+  public void toModuleStates(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond, ModuleStates out) {
+    if (vxMetersPerSecond == 0 && vyMetersPerSecond == 0 && omegaRadiansPerSecond == 0) {
+      for (int i = 0; i < moduleX.length; i++) {
+        out.speedsMetersPerSecond[i] = 0;
+      }
+      return;
+    }
+
+    for (int i = 0; i < moduleX.length; i++) {
+      double vx = vxMetersPerSecond - omegaRadiansPerSecond * moduleY[i];
+      double vy = vyMetersPerSecond + omegaRadiansPerSecond * moduleX[i];
+
+      out.set(i, Math.sqrt(vx * vx + vy * vy), Math.atan2(vy, vx));
+    }
+  }
+
+  /**
+   * Robot relative chassis speeds that best fit measured module states.
+   *
+   * @param states the measured states
+   * @param out vx, vy and omega are written to index 0, 1 and 2
+   */
+  public void toChassisSpeeds(ModuleStates states, double[] out) {
+    int columns = 2 * moduleX.length;
+
+    double vx = 0;
+    double vy = 0;
+    double omega = 0;
+    for (int i = 0; i < moduleX.length; i++) {
+      double speed = states.speedsMetersPerSecond[i];
+      double angle = states.anglesRadians[i];
+      double moduleVx = speed * Math.cos(angle);
+      double moduleVy = speed * Math.sin(angle);
+
+      vx += forward[2 * i] * moduleVx + forward[2 * i + 1] * moduleVy;
+      vy += forward[columns + 2 * i] * moduleVx + forward[columns + 2 * i + 1] * moduleVy;
+      omega += forward[2 * columns + 2 * i] * moduleVx + forward[2 * columns + 2 * i + 1] * moduleVy;
+    }
+
+    out[0] = vx;
+    out[1] = vy;
+    out[2] = omega;
+  }
+}
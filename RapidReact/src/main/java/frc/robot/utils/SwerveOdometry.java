@@ -0,0 +1,112 @@
+package frc.robot.utils;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * {@code SwerveDriveOdometry} on doubles: the same twist integration, but updating the pose
+ * does not allocate. {@link #getPoseMeters()} still hands out a Pose2d for the path follower.
+ */
+public class SwerveOdometry {
+
+  private final SwerveKinematics kinematics;
+  private final double[] chassisSpeeds = new double[3];
+
+  private double xMeters;
+  private double yMeters;
+  private double headingRadians;
+
+  private double gyroOffsetRadians;
+  private double previousAngleRadians;
+  private double previousTimeSeconds = -1;
+
+  /**
+   * @param kinematics the drivetrain kinematics
+   * @param gyroRadians the current gyro angle
+   * @param initialPose where the robot starts
+   */
+  public SwerveOdometry(SwerveKinematics kinematics, double gyroRadians, Pose2d initialPose) {
+    this.kinematics = kinematics;
+    resetPosition(initialPose, gyroRadians);
+  }
+
+  /**
+   * Move the robot to a pose. The gyro does not need to be reset.
+   *
+   * @param pose the new pose
+   * @param gyroAngle the current gyro angle
+   */
+  public void resetPosition(Pose2d pose, Rotation2d gyroAngle) {
+    resetPosition(pose, gyroAngle.getRadians());
+  }
+
+  public void resetPosition(Pose2d pose, double gyroRadians) {
+    this.xMeters = pose.getX();
+    this.yMeters = pose.getY();
+    this.headingRadians = MathUtil.angleModulus(pose.getRotation().getRadians());
+
+    this.previousAngleRadians = headingRadians;
+    this.gyroOffsetRadians = headingRadians - gyroRadians;
+  }
+
+  /**
+   * Integrate the measured module states since the last update.
+   *
+   * @param timeSeconds the current time
+   * @param gyroRadians the current gyro angle, counter clockwise positive
+   * @param measured the measured module states
+   */
+  public void update(double timeSeconds, double gyroRadians, ModuleStates measured) {
+    double period = previousTimeSeconds >= 0 ? timeSeconds - previousTimeSeconds : 0;
+    previousTimeSeconds = timeSeconds;
+
+    double angle = MathUtil.angleModulus(gyroRadians + gyroOffsetRadians);
+    kinematics.toChassisSpeeds(measured, chassisSpeeds);
+
+    double dx = chassisSpeeds[0] * period;
+    double dy = chassisSpeeds[1] * period;
+    double dtheta = MathUtil.angleModulus(angle - previousAngleRadians);
+
+    // Pose2d.exp
+    double s;
+    double c;
+    if (Math.abs(dtheta) < 1e-9) {
+      s = 1.0 - dtheta * dtheta / 6.0;
+      c = 0.5 * dtheta;
+    } else {
+      s = Math.sin(dtheta) / dtheta;
+      c = (1 - Math.cos(dtheta)) / dtheta;
+    }
+
+    double forwardMeters = dx * s - dy * c;
+    double leftMeters = dx * c + dy * s;
+
+    double cos = Math.cos(headingRadians);
+    double sin = Math.sin(headingRadians);
+    xMeters += forwardMeters * cos - leftMeters * sin;
+    yMeters += forwardMeters * sin + leftMeters * cos;
+
+    headingRadians = angle;
+    previousAngleRadians = angle;
+  }
+
+  public double getX() {
+    return xMeters;
+  }
+
+  public double getY() {
+    return yMeters;
+  }
+
+  public double getHeadingRadians() {
+    return headingRadians;
+  }
+
+  /**
+   * @return a new Pose2d of the current pose
+   */
+  public Pose2d getPoseMeters() {
+    return new Pose2d(xMeters, yMeters, new Rotation2d(headingRadians));
+  }
+}
@@ -0,0 +1,155 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.Filesystem;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PathPlanner trajectories by path name and constraints, loaded ahead of time.
+ *
+ * Loading a path maps its compiled {@link TrajectoryFile}, or when that's missing or stale reads
+ * and parses its JSON and generates the trajectory, tens of milliseconds each on the roboRIO.
+ * {@link #preload} does that on background threads while the robot is disabled, so building an
+ * autonomous routine only looks trajectories up. A path asked for while
+ * it's still loading waits for that load instead of starting another one.
+ */
+public class TrajectoryCache {
+
+  public interface Loader {
+    PathTrajectory load(String name, double maxVelocity, double maxAcceleration);
+  }
+
+  private final Loader loader;
+  private final ConcurrentHashMap<String, CompletableFuture<PathTrajectory>> trajectories = new ConcurrentHashMap<>();
+
+  private final AtomicInteger loaded = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+  private final AtomicLong loadNanos = new AtomicLong();
+  private final AtomicLong slowestLoadNanos = new AtomicLong();
+
+  public TrajectoryCache() {
+    this(TrajectoryFile::load);
+  }
+
+  public TrajectoryCache(Loader loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * Start loading paths in the background.
+   *
+   * @param names paths to load, e.g. {@link #deployPathNames()}
+   * @param threads how many to load at once
+   * @return completes when all of them are loaded
+   */
+  public CompletableFuture<Void> preload(Collection<String> names, double maxVelocity, double maxAcceleration, int threads) {
+    if (threads < 1) throw new IllegalArgumentException("Need at least one thread!");
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "Trajectory preload");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    List<CompletableFuture<PathTrajectory>> loads = new ArrayList<>();
+    for (String name : names) {
+      loads.add(trajectories.computeIfAbsent(
+        key(name, maxVelocity, maxAcceleration),
+        k -> CompletableFuture.supplyAsync(() -> load(name, maxVelocity, maxAcceleration), executor)
+      ));
+    }
+    // threads exit once the queue is empty
+    executor.shutdown();
+
+    return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]));
+  }
+
+  /**
+   * @return the trajectory, loaded on this thread if nobody preloaded it
+   */
+  public PathTrajectory get(String name, double maxVelocity, double maxAcceleration) {
+    CompletableFuture<PathTrajectory> created = new CompletableFuture<>();
+    CompletableFuture<PathTrajectory> existing = trajectories.putIfAbsent(key(name, maxVelocity, maxAcceleration), created);
+    if (existing != null) return existing.join();
+
+    // not in the map's lock, loading takes a while
+    misses.incrementAndGet();
+    try {
+      PathTrajectory trajectory = load(name, maxVelocity, maxAcceleration);
+      created.complete(trajectory);
+      return trajectory;
+    } catch (RuntimeException e) {
+      created.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  public boolean contains(String name, double maxVelocity, double maxAcceleration) {
+    return trajectories.containsKey(key(name, maxVelocity, maxAcceleration));
+  }
+
+  private PathTrajectory load(String name, double maxVelocity, double maxAcceleration) {
+    long start = System.nanoTime();
+    PathTrajectory trajectory = loader.load(name, maxVelocity, maxAcceleration);
+    long nanos = System.nanoTime() - start;
+
+    loaded.incrementAndGet();
+    loadNanos.addAndGet(nanos);
+    slowestLoadNanos.accumulateAndGet(nanos, Math::max);
+    return trajectory;
+  }
+
+  private static String key(String name, double maxVelocity, double maxAcceleration) {
+    return name + "@" + maxVelocity + "/" + maxAcceleration;
+  }
+
+  /**
+   * @return trajectories loaded so far, preloaded or not
+   */
+  public int getLoadedCount() {
+    return loaded.get();
+  }
+
+  /**
+   * @return trajectories that weren't preloaded and had to be loaded when asked for
+   */
+  public int getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * @return time spent loading, summed over all loads
+   */
+  public double getTotalLoadMillis() {
+    return loadNanos.get() / 1e6;
+  }
+
+  public double getSlowestLoadMillis() {
+    return slowestLoadNanos.get() / 1e6;
+  }
+
+  /**
+   * @return names of the .path files in deploy/pathplanner, sorted
+   */
+  public static List<String> deployPathNames() {
+    File[] files = new File(Filesystem.getDeployDirectory(), "pathplanner").listFiles((dir, name) -> name.endsWith(".path"));
+    if (files == null) return new ArrayList<>();
+
+    Arrays.sort(files);
+    List<String> names = new ArrayList<>();
+    for (File file : files) {
+      names.add(file.getName().substring(0, file.getName().length() - ".path".length()));
+    }
+    return names;
+  }
+}
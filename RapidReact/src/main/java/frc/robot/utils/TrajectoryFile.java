@@ -0,0 +1,203 @@
+package frc.robot.utils;
+
+import com.pathplanner.lib.PathPlanner;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.config.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Trajectories compiled at build time, so the robot doesn't generate them from the .path files.
+ * {@code ./gradlew compileTrajectories} writes one file per path to
+ * {@code deploy/pathplanner/generatedBinary}, deploy runs it first.
+ *
+ * A file holds a {@link SampledTrajectory}: a 56 byte header followed by one column of doubles
+ * per field, {@link #FIELDS} columns of sample count doubles each.
+ *
+ * <pre>
+ * int    magic "BBTR"
+ * int    format version
+ * long   CRC32 of the .path file, the format version and the constraints
+ * double max velocity
+ * double max acceleration
+ * int    sample count
+ * int    columns
+ * double time between samples
+ * double total time
+ * </pre>
+ *
+ * Files are memory mapped and the columns copied straight into the arrays. A file whose checksum
+ * doesn't match its .path file any more is stale and the path is generated at runtime like before.
+ */
+public final class TrajectoryFile {
+
+  public static final String DIRECTORY = "generatedBinary";
+  public static final String EXTENSION = ".traj";
+
+  // half a robot loop, interpolating between samples this close is well under a millimeter off
+  public static final double STEP_SECONDS = 0.01;
+
+  private static final int MAGIC = 0x42425452;
+  private static final int VERSION = 2;
+  static final int HEADER_BYTES = 56;
+  static final int FIELDS = 7;
+
+  private TrajectoryFile() {}
+
+  /**
+   * @param source contents of the .path file
+   */
+  public static long checksum(byte[] source, double maxVelocity, double maxAcceleration) {
+    CRC32 crc = new CRC32();
+    crc.update(source);
+    crc.update(ByteBuffer.allocate(20).putInt(VERSION).putDouble(maxVelocity).putDouble(maxAcceleration).array());
+    return crc.getValue();
+  }
+
+  public static void write(SampledTrajectory trajectory, long checksum, double maxVelocity, double maxAcceleration, File file) throws IOException {
+    int count = trajectory.getSampleCount();
+
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + count * FIELDS * Double.BYTES);
+    buffer.putInt(MAGIC)
+      .putInt(VERSION)
+      .putLong(checksum)
+      .putDouble(maxVelocity)
+      .putDouble(maxAcceleration)
+      .putInt(count)
+      .putInt(FIELDS)
+      .putDouble(trajectory.getStepSeconds())
+      .putDouble(trajectory.getTotalTimeSeconds());
+
+    DoubleBuffer columns = buffer.asDoubleBuffer();
+    for (double[] column : columns(trajectory)) {
+      columns.put(column);
+    }
+
+    Files.write(file.toPath(), buffer.array());
+  }
+
+  /**
+   * Load a compiled trajectory.
+   *
+   * @param expectedChecksum checksum of the .path file it should have been compiled from
+   * @return the trajectory, null if the file is stale or isn't a compiled trajectory
+   */
+  public static SampledTrajectory open(File file, long expectedChecksum) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    if (buffer.capacity() < HEADER_BYTES) return null;
+    if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+    if (buffer.getLong() != expectedChecksum) return null;
+
+    buffer.getDouble(); // max velocity
+    buffer.getDouble(); // max acceleration
+    int count = buffer.getInt();
+    int fields = buffer.getInt();
+    double stepSeconds = buffer.getDouble();
+    double totalTimeSeconds = buffer.getDouble();
+    if (count < 1 || fields != FIELDS || stepSeconds <= 0) return null;
+    if (buffer.capacity() != HEADER_BYTES + (long) count * FIELDS * Double.BYTES) return null;
+
+    SampledTrajectory trajectory = new SampledTrajectory(stepSeconds, totalTimeSeconds, count);
+    DoubleBuffer columns = buffer.asDoubleBuffer();
+    for (double[] column : columns(trajectory)) {
+      columns.get(column);
+    }
+    return trajectory;
+  }
+
+  // in file order
+  private static double[][] columns(SampledTrajectory trajectory) {
+    return new double[][] {
+      trajectory.x,
+      trajectory.y,
+      trajectory.heading,
+      trajectory.velocity,
+      trajectory.acceleration,
+      trajectory.curvature,
+      trajectory.holonomicRotation
+    };
+  }
+
+  /**
+   * Load a path from deploy, compiled if there's a fresh compiled file, generated otherwise.
+   * Can be a {@link TrajectoryCache.Loader}.
+   *
+   * @return the trajectory, null if there's no such path
+   */
+  public static SampledTrajectory load(String name, double maxVelocity, double maxAcceleration) {
+    File directory = new File(Filesystem.getDeployDirectory(), "pathplanner");
+    File compiled = new File(new File(directory, DIRECTORY), name + EXTENSION);
+
+    if (compiled.isFile()) {
+      try {
+        byte[] source = Files.readAllBytes(new File(directory, name + ".path").toPath());
+        SampledTrajectory trajectory = open(compiled, checksum(source, maxVelocity, maxAcceleration));
+        if (trajectory != null) return trajectory;
+
+        DriverStation.reportWarning("Compiled trajectory " + name + " is stale, generating it", false);
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+
+    return generate(name, maxVelocity, maxAcceleration);
+  }
+
+  private static SampledTrajectory generate(String name, double maxVelocity, double maxAcceleration) {
+    PathTrajectory generated = PathTrajectory.of(PathPlanner.loadPath(name, maxVelocity, maxAcceleration));
+    return generated == null ? null : SampledTrajectory.resample(generated, STEP_SECONDS);
+  }
+
+  /**
+   * Generate a path and write it to a directory.
+   *
+   * @return samples written, 0 if there's no such path
+   */
+  public static int compile(String name, double maxVelocity, double maxAcceleration, File outputDirectory) throws IOException {
+    File source = new File(new File(Filesystem.getDeployDirectory(), "pathplanner"), name + ".path");
+    SampledTrajectory trajectory = generate(name, maxVelocity, maxAcceleration);
+    if (trajectory == null) return 0;
+
+    long checksum = checksum(Files.readAllBytes(source.toPath()), maxVelocity, maxAcceleration);
+    write(trajectory, checksum, maxVelocity, maxAcceleration, new File(outputDirectory, name + EXTENSION));
+    return trajectory.getSampleCount();
+  }
+
+  public static void main(String[] args) throws IOException {
+    File outputDirectory = args.length > 0
+      ? new File(args[0])
+      : new File(new File(Filesystem.getDeployDirectory(), "pathplanner"), DIRECTORY);
+    if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+      throw new IOException("Can't create " + outputDirectory);
+    }
+
+    Config config = new Config();
+    for (String name : TrajectoryCache.deployPathNames()) {
+      // same constraints AutonomousSubsystem loads them with
+      boolean nothing = name.equals(config.auto.nothingPath);
+      int samples = compile(
+        name,
+        nothing ? 0 : config.auto.maxPathFollowVelocity,
+        nothing ? 0 : config.auto.maxPathFollowAcceleration,
+        outputDirectory
+      );
+      System.out.println(name + ": " + samples + " samples");
+    }
+
+    // PathPlanner and the HAL leave threads behind
+    System.exit(0);
+  }
+}
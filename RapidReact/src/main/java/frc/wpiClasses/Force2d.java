@@ -4,10 +4,15 @@ import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N2;
-import org.ejml.simple.SimpleMatrix;
 
+/**
+ * A force in 2d space, stored as two doubles so that simulation steps don't allocate a matrix
+ * for every operation. The methods returning a Force2d leave this force alone, the
+ * {@code ...InPlace} methods and {@link #accum(Force2d)} mutate it and return it for chaining.
+ */
 public class Force2d {
-  Matrix<N2, N1> m_matrix;
+  double m_x;
+  double m_y;
 
   /**
    * Constructs a Force2d with X and Y components equal to zero.
@@ -24,9 +29,8 @@ public class Force2d {
    * @param y The y component of the force.
    */
   public Force2d( double x, double y) {
-    m_matrix = new Matrix<>(new SimpleMatrix(2, 1));
-    m_matrix.set(0, 0, x);
-    m_matrix.set(1, 0, y);
+    m_x = x;
+    m_y = y;
   }
 
   /**
@@ -46,7 +50,7 @@ public class Force2d {
    * @param m 2 row, 1 column input matrix
    */
   public Force2d(Matrix<N2, N1> m) {
-    m_matrix = m;
+    this(m.get(0, 0), m.get(1, 0));
   }
 
   /**
@@ -62,28 +66,29 @@ public class Force2d {
    * Returns the X component of the force.
    */
   public double getX() {
-    return m_matrix.get(0, 0);
+    return m_x;
   }
 
   /**
    * Returns the Y component of the force.
    */
   public double getY() {
-    return m_matrix.get(1, 0);
+    return m_y;
   }
 
   /**
    * Returns the norm, or distance from the origin to the force.
    */
   public double getNorm() {
-    return m_matrix.normF();
+    return Math.sqrt(m_x * m_x + m_y * m_y);
   }
 
   /**
    * Gets a unit vector in the direction this force points.
    */
   public Vector2d getUnitVector() {
-    return new Vector2d(this.getX() / this.getNorm(), this.getY() / this.getNorm());
+    double norm = this.getNorm();
+    return new Vector2d(m_x / norm, m_y / norm);
   }
 
   /**
@@ -101,10 +106,32 @@ public class Force2d {
    * @return The new rotated force.
    */
   public Force2d rotateBy(Rotation2d angle) {
-    return new Force2d(
-            this.getX() * angle.getCos() - this.getY() * angle.getSin(),
-            this.getX() * angle.getSin() + this.getY() * angle.getCos()
-    );
+    return new Force2d(m_x, m_y).rotateInPlace(angle.getCos(), angle.getSin());
+  }
+
+  /**
+   * Applies a rotation to this force, without allocating.
+   *
+   * @param angle The rotation to rotate the force by.
+   * @return This force.
+   */
+  public Force2d rotateInPlace(Rotation2d angle) {
+    return rotateInPlace(angle.getCos(), angle.getSin());
+  }
+
+  /**
+   * Applies a rotation given by its cosine and sine to this force, without allocating.
+   *
+   * @param cos The cosine of the rotation.
+   * @param sin The sine of the rotation.
+   * @return This force.
+   */
+  public Force2d rotateInPlace(double cos, double sin) {
+    double x = m_x * cos - m_y * sin;
+    double y = m_x * sin + m_y * cos;
+    m_x = x;
+    m_y = y;
+    return this;
   }
 
   /**
@@ -118,15 +145,40 @@ public class Force2d {
    * @return The sum of the forces.
    */
   public Force2d plus(Force2d other) {
-    return new Force2d(this.m_matrix.plus(other.m_matrix));
+    return new Force2d(m_x + other.m_x, m_y + other.m_y);
   }
 
   /**
-   * Accumulates another force into this force. Returns nothing, acts "in-place" on this force.
+   * Accumulates another force into this force, acts "in-place" on this force.
    * @param other The force to add.
+   * @return This force.
    */
-  public void accum(Force2d other) {
-    this.m_matrix = this.m_matrix.plus(other.m_matrix);
+  public Force2d accum(Force2d other) {
+    return accum(other.m_x, other.m_y);
+  }
+
+  /**
+   * Accumulates a force given by its components into this force, acts "in-place" on this force.
+   * @param x The x component to add.
+   * @param y The y component to add.
+   * @return This force.
+   */
+  public Force2d accum(double x, double y) {
+    m_x += x;
+    m_y += y;
+    return this;
+  }
+
+  /**
+   * Overwrites both components of this force.
+   * @param x The new x component.
+   * @param y The new y component.
+   * @return This force.
+   */
+  public Force2d set(double x, double y) {
+    m_x = x;
+    m_y = y;
+    return this;
   }
 
   /**
@@ -140,7 +192,7 @@ public class Force2d {
    * @return The difference between the two forces.
    */
   public Force2d minus(Force2d other) {
-    return new Force2d(this.m_matrix.minus(other.m_matrix));
+    return new Force2d(m_x - other.m_x, m_y - other.m_y);
   }
 
   /**
@@ -151,7 +203,7 @@ public class Force2d {
    * @return The inverse of the current force.
    */
   public Force2d unaryMinus() {
-    return new Force2d(this.m_matrix.times(-1.0));
+    return new Force2d(-m_x, -m_y);
   }
 
   /**
@@ -163,7 +215,19 @@ public class Force2d {
    * @return The scaled force.
    */
   public Force2d times(double scalar) {
-    return new Force2d(this.m_matrix.times(scalar));
+    return new Force2d(m_x * scalar, m_y * scalar);
+  }
+
+  /**
+   * Multiplies this force by a scalar, acts "in-place" on this force.
+   *
+   * @param scalar The scalar to multiply by.
+   * @return This force.
+   */
+  public Force2d scaleInPlace(double scalar) {
+    m_x *= scalar;
+    m_y *= scalar;
+    return this;
   }
 
   /**
@@ -175,14 +239,14 @@ public class Force2d {
    * @return The reference to the new mutated object.
    */
   public Force2d div(double scalar) {
-    return new Force2d(this.m_matrix.div(scalar));
+    return new Force2d(m_x / scalar, m_y / scalar);
   }
 
   /**
    * Creates a Vector2d object from the force this object represents.
    */
   public Vector2d getVector2d() {
-    return new Vector2d(this.getX(), this.getY());
+    return new Vector2d(m_x, m_y);
   }
 
   @Override
@@ -199,7 +263,8 @@ public class Force2d {
   @Override
   public boolean equals(Object obj) {
     if (obj instanceof Force2d) {
-      return this.m_matrix.isEqual(((Force2d) obj).m_matrix, 1E-9);
+      Force2d other = (Force2d) obj;
+      return Math.abs(m_x - other.m_x) < 1E-9 && Math.abs(m_y - other.m_y) < 1E-9;
     } else {
       return false;
     }
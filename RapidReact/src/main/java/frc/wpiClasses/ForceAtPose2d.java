@@ -1,10 +1,14 @@
 package frc.wpiClasses;
 
 import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 
 import java.util.Objects;
 
+/**
+ * A force acting at a pose. The frame math is done on doubles, {@link #getTorque(Pose2d)} and
+ * {@link #getForceInRefFrame(Pose2d, Force2d)} don't allocate.
+ */
 public class ForceAtPose2d {
   public Force2d m_force;
   public Pose2d m_pos;
@@ -31,19 +35,50 @@ public class ForceAtPose2d {
    * positive is counter-clockwise, negative is clockwise
    */
   public double getTorque(Pose2d centerOfRotation) {
-    Transform2d transCORtoF = new Transform2d(centerOfRotation, m_pos);
+    Rotation2d corRotation = centerOfRotation.getRotation();
+    double corCos = corRotation.getCos();
+    double corSin = corRotation.getSin();
+
+    //Calculate the lever arm the force acts at, the translation of Transform2d(centerOfRotation, m_pos)
+    double dx = m_pos.getX() - centerOfRotation.getX();
+    double dy = m_pos.getY() - centerOfRotation.getY();
+    double leverX = dx * corCos + dy * corSin;
+    double leverY = -dx * corSin + dy * corCos;
 
     //Align the force to the reference frame of the center of rotation
-    Force2d alignedForce = getForceInRefFrame(centerOfRotation);
+    double cos = cosToPose(corRotation);
+    double sin = sinToPose(corRotation);
+    double forceX = m_force.m_x * cos - m_force.m_y * sin;
+    double forceY = m_force.m_x * sin + m_force.m_y * cos;
 
-    //Calculate the lever arm the force acts at
-    Vector2d leverArm = new Vector2d(transCORtoF.getX(), transCORtoF.getY());
-    return leverArm.cross(alignedForce.getVector2d());
+    return leverX * forceY - leverY * forceX;
   }
 
   public Force2d getForceInRefFrame(Pose2d refFrame) {
-    Transform2d trans = new Transform2d(refFrame, m_pos);
-    return m_force.rotateBy(trans.getRotation());
+    return getForceInRefFrame(refFrame, new Force2d());
+  }
+
+  /**
+   * Writes this force, as seen from a reference frame, into an existing force.
+   *
+   * @param refFrame The reference frame.
+   * @param out The force to overwrite.
+   * @return out
+   */
+  public Force2d getForceInRefFrame(Pose2d refFrame, Force2d out) {
+    Rotation2d refRotation = refFrame.getRotation();
+    return out.set(m_force.m_x, m_force.m_y).rotateInPlace(cosToPose(refRotation), sinToPose(refRotation));
+  }
+
+  // cos and sin of the rotation from a frame to m_pos, m_pos.getRotation().minus(frame)
+  private double cosToPose(Rotation2d frame) {
+    Rotation2d pose = m_pos.getRotation();
+    return pose.getCos() * frame.getCos() + pose.getSin() * frame.getSin();
+  }
+
+  private double sinToPose(Rotation2d frame) {
+    Rotation2d pose = m_pos.getRotation();
+    return pose.getSin() * frame.getCos() - pose.getCos() * frame.getSin();
   }
 
   @Override
@@ -2,7 +2,6 @@ package frc.wpiClasses;
 
 import edu.wpi.first.math.geometry.*;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,6 +16,7 @@ public class QuadSwerveSim {
     public static final int NUM_MODULES = 4;
 
     List<SwerveModuleSim> m_modules;
+    final SwerveModuleSim[] m_moduleArray;
 
     Vector2d m_accelPrev = new Vector2d();
     Vector2d m_velPrev   = new Vector2d();
@@ -26,8 +26,22 @@ public class QuadSwerveSim {
     public final List<Translation2d> m_robotToModuleTL;
     public final List<Transform2d> m_robotToModule;
 
+    // Robot pose on the field as doubles, the Pose2d is only built when someone asks for it
+    double m_curX;
+    double m_curY;
+    double m_curRad;
+    double m_curCos = 1;
+    double m_curSin;
     Pose2d m_curPose = new Pose2d();
 
+    // Per module scratch state of a step, in the robot frame
+    final double[] m_moduleX = new double[NUM_MODULES];
+    final double[] m_moduleY = new double[NUM_MODULES];
+    final double[] m_motiveForceX = new double[NUM_MODULES];
+    final double[] m_motiveForceY = new double[NUM_MODULES];
+    final double[] m_fricForceX = new double[NUM_MODULES];
+    final double[] m_fricForceY = new double[NUM_MODULES];
+
     double m_robotMasskg;
     double m_robotMOI;
 
@@ -50,6 +64,7 @@ public class QuadSwerveSim {
         List<SwerveModuleSim> modules
     ) {
         this.m_modules = modules;
+        this.m_moduleArray = modules.toArray(new SwerveModuleSim[0]);
 
         m_robotToModuleTL = Arrays.asList(
             new Translation2d( wheelBaseWidthM / 2,  wheelBaseLengthM / 2),
@@ -65,6 +80,11 @@ public class QuadSwerveSim {
             new Transform2d(m_robotToModuleTL.get(BR), new Rotation2d(0.0))
         );
 
+        for (int idx = 0; idx < NUM_MODULES; idx++) {
+            m_moduleX[idx] = m_robotToModuleTL.get(idx).getX();
+            m_moduleY[idx] = m_robotToModuleTL.get(idx).getY();
+        }
+
         this.m_robotMasskg = robotMasskg;
         this.m_robotMOI = robotMOI;
 
@@ -75,108 +95,121 @@ public class QuadSwerveSim {
      * @param pose Position on the field to reset the robot to.
      */
     public void modelReset(Pose2d pose) {
-        m_accelPrev = new Vector2d();
-        m_velPrev   = new Vector2d();
+        m_accelPrev.x = m_accelPrev.y = 0;
+        m_velPrev.x = m_velPrev.y = 0;
         m_rotAccelPrev = 0;
         m_rotVelPrev   = 0;
+
+        m_curX = pose.getX();
+        m_curY = pose.getY();
+        m_curRad = pose.getRotation().getRadians();
+        m_curCos = pose.getRotation().getCos();
+        m_curSin = pose.getRotation().getSin();
+        m_curPose = pose;
+
         for (int idx = 0; idx < NUM_MODULES; idx++) {
-            m_modules.get(idx).reset(pose.transformBy(m_robotToModule.get(idx)));
+            m_moduleArray[idx].reset(moduleFieldX(idx), moduleFieldY(idx), m_curRad);
         }
-        m_curPose = pose;
+    }
+
+    private double moduleFieldX(int idx) {
+        return m_curX + m_moduleX[idx] * m_curCos - m_moduleY[idx] * m_curSin;
+    }
+
+    private double moduleFieldY(int idx) {
+        return m_curY + m_moduleX[idx] * m_curSin + m_moduleY[idx] * m_curCos;
     }
 
     /**
-     * Steps the module simulation forward by one discrete step.
+     * Steps the module simulation forward by one discrete step. Does not allocate, so it can be
+     * sub-stepped at 1 kHz.
+     *
+     * The modules are fixed to the frame without a rotation of their own, so the module frames
+     * are the robot frame and forces move between them without rotating.
      * @param dtSeconds size of the discrete step to take
      */
     public void update(double dtSeconds) {
 
-        Pose2d fieldRF = new Pose2d(); // global origin
-        Transform2d fieldToRobot = new Transform2d(fieldRF, m_curPose);
-
         ////////////////////////////////////////////////////////////////
         // Component-Force Calculations to populate the free-body diagram
 
         // Calculate each module's new position, and step it through simulation.
         for (int idx = 0; idx < NUM_MODULES; idx++) {
-            Pose2d tmp = fieldRF.transformBy(fieldToRobot);
-            Pose2d modPose = tmp.transformBy(m_robotToModule.get(idx));
-            m_modules.get(idx).setModulePose(modPose);
-            m_modules.get(idx).update(dtSeconds);
+            SwerveModuleSim mod = m_moduleArray[idx];
+            mod.setModulePose(moduleFieldX(idx), moduleFieldY(idx), m_curRad, m_curCos, m_curSin);
+            mod.update(dtSeconds);
         }
 
         // Force on frame from wheel motive forces (along-tread)
-        ArrayList<ForceAtPose2d> wheelMotiveForces = new ArrayList<ForceAtPose2d>(NUM_MODULES);
+        // Friction Model: add up all the forces that friction gets a chance to fight against
+        double preFricNetForceX = 0;
+        double preFricNetForceY = 0;
         for (int idx = 0; idx < NUM_MODULES; idx++) {
-            wheelMotiveForces.add(m_modules.get(idx).getWheelMotiveForce());
-        }
-
-        // Friction Model
-        Force2d preFricNetForce = new Force2d();
-        wheelMotiveForces.forEach((ForceAtPose2d mf) -> {
-            //Add up all the forces that friction gets a chance to fight against
-            preFricNetForce.accum(mf.getForceInRefFrame(m_curPose));
-        });
+            m_motiveForceX[idx] = m_moduleArray[idx].getWheelMotiveForceX();
+            m_motiveForceY[idx] = m_moduleArray[idx].getWheelMotiveForceY();
 
-        Force2d sidekickForce = new Force2d(0, 0); //TODO - make a generic "external force" input?
-
-        preFricNetForce.accum(sidekickForce);
+            preFricNetForceX += m_motiveForceX[idx];
+            preFricNetForceY += m_motiveForceY[idx];
+        }
 
-        //calculate force on the robot, "pre friction" (pf)
-        ForceAtPose2d pfRobotForce = new ForceAtPose2d(preFricNetForce, m_curPose);
+        //TODO - make a generic "external force" input? (sidekick force, zero for now)
 
         // Calculate the forces from cross-tread friction at each module
-        ArrayList<ForceAtPose2d> xtreadFricFrc = new ArrayList<ForceAtPose2d>(NUM_MODULES);
+        //Assume force evenly applied to all modules.
+        double ffrac = 1.0 / NUM_MODULES;
         for (int idx = 0; idx < NUM_MODULES; idx++) {
-            SwerveModuleSim mod = m_modules.get(idx);
-            //Assume force evenly applied to all modules.
-            double ffrac = 1.0 / NUM_MODULES;
-            Force2d pfModForce = pfRobotForce.getForceInRefFrame(mod.getPose()).times(ffrac);
-            xtreadFricFrc.add(mod.getCrossTreadFricForce(pfModForce, dtSeconds));
+            SwerveModuleSim mod = m_moduleArray[idx];
+            mod.updateCrossTreadFricForce(preFricNetForceX * ffrac, preFricNetForceY * ffrac);
+
+            m_fricForceX[idx] = mod.m_crossTreadFricForceX;
+            m_fricForceY[idx] = mod.m_crossTreadFricForceY;
         }
 
         ////////////////////////////////////////////////////////////////
         // Combine forces in free-body diagram
 
-        // Using all the above force components, do Sum of Forces
-        Force2d forceOnRobotCenter = preFricNetForce;
-
-        xtreadFricFrc.forEach((ForceAtPose2d f) -> {
-            forceOnRobotCenter.accum(f.getForceInRefFrame(m_curPose));
-        });
-
-        ForceAtPose2d netForce = new ForceAtPose2d(forceOnRobotCenter, m_curPose);
-
-        Force2d robotForceInFieldRefFrame = netForce.getForceInRefFrame(fieldRF);
-
-        //Sum of Torques
+        // Using all the above force components, do Sum of Forces and Sum of Torques
+        double forceOnRobotCenterX = preFricNetForceX;
+        double forceOnRobotCenterY = preFricNetForceY;
         double netTorque = 0;
 
         for (int idx = 0; idx < NUM_MODULES; idx++) {
-            netTorque += wheelMotiveForces.get(idx).getTorque(m_curPose);
-            netTorque += xtreadFricFrc.get(idx).getTorque(m_curPose);
+            forceOnRobotCenterX += m_fricForceX[idx];
+            forceOnRobotCenterY += m_fricForceY[idx];
+
+            // lever arm cross force
+            netTorque += m_moduleX[idx] * m_motiveForceY[idx] - m_moduleY[idx] * m_motiveForceX[idx];
+            netTorque += m_moduleX[idx] * m_fricForceY[idx] - m_moduleY[idx] * m_fricForceX[idx];
         }
 
+        // Rotate into the field reference frame
+        double robotForceInFieldX = forceOnRobotCenterX * m_curCos - forceOnRobotCenterY * m_curSin;
+        double robotForceInFieldY = forceOnRobotCenterX * m_curSin + forceOnRobotCenterY * m_curCos;
+
 
         ////////////////////////////////////////////////////////////////
         // Apply Newton's 2nd law to get motion from forces
 
         //a = F/m in field frame
-        Vector2d accel = robotForceInFieldRefFrame.times(1 / m_robotMasskg).getVector2d();
+        double accelX = robotForceInFieldX * (1 / m_robotMasskg);
+        double accelY = robotForceInFieldY * (1 / m_robotMasskg);
 
         //Trapezoidal integration
-        Vector2d velocity = new Vector2d( m_velPrev.x + (accel.x + m_accelPrev.x) / 2 * dtSeconds,
-                                          m_velPrev.y + (accel.y + m_accelPrev.y) / 2 * dtSeconds);
+        double velocityX = m_velPrev.x + (accelX + m_accelPrev.x) / 2 * dtSeconds;
+        double velocityY = m_velPrev.y + (accelY + m_accelPrev.y) / 2 * dtSeconds;
 
         //Trapezoidal integration
-        Translation2d posChange = new Translation2d( (velocity.x + m_velPrev.x) / 2 * dtSeconds,
-                                                     (velocity.y + m_velPrev.y) / 2 * dtSeconds);
+        double posChangeFieldX = (velocityX + m_velPrev.x) / 2 * dtSeconds;
+        double posChangeFieldY = (velocityY + m_velPrev.y) / 2 * dtSeconds;
 
         //Twist needs to be relative to robot reference frame
-        posChange = posChange.rotateBy(m_curPose.getRotation().unaryMinus());
+        double posChangeX = posChangeFieldX * m_curCos + posChangeFieldY * m_curSin;
+        double posChangeY = -posChangeFieldX * m_curSin + posChangeFieldY * m_curCos;
 
-        m_velPrev = velocity;
-        m_accelPrev = accel;
+        m_velPrev.x = velocityX;
+        m_velPrev.y = velocityY;
+        m_accelPrev.x = accelX;
+        m_accelPrev.y = accelY;
 
         //alpha = T/I in field frame
         double rotAccel = netTorque / m_robotMOI;
@@ -186,18 +219,73 @@ public class QuadSwerveSim {
         m_rotVelPrev = rotVel;
         m_rotAccelPrev = rotAccel;
 
-        Twist2d motionThisLoop = new Twist2d(posChange.getX(), posChange.getY(), rotPosChange);
+        exp(posChangeX, posChangeY, rotPosChange);
+    }
+
+    /**
+     * Pose2d.exp of the current pose, on doubles.
+     */
+    private void exp(double dx, double dy, double dtheta) {
+        double sinTheta = Math.sin(dtheta);
+        double cosTheta = Math.cos(dtheta);
+
+        double s;
+        double c;
+        if (Math.abs(dtheta) < 1E-9) {
+            s = 1.0 - 1.0 / 6.0 * dtheta * dtheta;
+            c = 0.5 * dtheta;
+        } else {
+            s = sinTheta / dtheta;
+            c = (1 - cosTheta) / dtheta;
+        }
 
-        m_curPose = m_curPose.exp(motionThisLoop);
+        double transformX = dx * s - dy * c;
+        double transformY = dx * c + dy * s;
+
+        m_curX += transformX * m_curCos - transformY * m_curSin;
+        m_curY += transformX * m_curSin + transformY * m_curCos;
+
+        // Rotation2d.rotateBy, normalized like the Rotation2d constructor
+        double cos = m_curCos * cosTheta - m_curSin * sinTheta;
+        double sin = m_curCos * sinTheta + m_curSin * cosTheta;
+        double magnitude = Math.hypot(cos, sin);
+        if (magnitude > 1e-6) {
+            m_curCos = cos / magnitude;
+            m_curSin = sin / magnitude;
+        } else {
+            m_curCos = 1.0;
+            m_curSin = 0.0;
+        }
+        m_curRad = Math.atan2(m_curSin, m_curCos);
+
+        m_curPose = null;
     }
 
     /**
      * Returns the current pose of the drivetrain.
      */
     public Pose2d getCurPose() {
+        if (m_curPose == null) {
+            m_curPose = new Pose2d(m_curX, m_curY, new Rotation2d(m_curRad));
+        }
         return m_curPose;
     }
 
+    /** Field x of the drivetrain in meters, without building a Pose2d. */
+    public double getCurX() {
+        return m_curX;
+    }
+
+    /** Field y of the drivetrain in meters, without building a Pose2d. */
+    public double getCurY() {
+        return m_curY;
+    }
+
+    /** Heading of the drivetrain in radians, counter clockwise positive, within +-pi. */
+    public double getCurHeadingRadians() {
+        return m_curRad;
+    }
+
     public List<Pose2d> getModulePoses() {
       return m_modules
         .stream()
@@ -1,44 +1,69 @@
 package frc.wpiClasses;
 
 import edu.wpi.first.math.system.plant.DCMotor;
-import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+import edu.wpi.first.math.util.Units;
 
 
 class SimpleMotorWithMassModel {
 
     double m_curDisplacementRev;
 
-    FlywheelSim m_fwSim;
+    DCMotor m_motor;
+    double m_gearing;
+
+    // dw/dt = a * w + b * u, the flywheel plant of LinearSystemId.createFlywheelSystem
+    double m_a;
+    double m_b;
+
+    double m_speedRadPerSec;
+    double m_voltage;
+
+    // exp(a * dt) and the matching input gain, cached for the last dt
+    double m_dtSeconds = Double.NaN;
+    double m_discreteA;
+    double m_discreteB;
 
     /**
-     * So far - this is just a wrapper around FlywheelSim to get position as an output.
+     * So far - this is just FlywheelSim with position as an extra output.
+     * The plant is a scalar, so it is stepped with its exact discretization on doubles
+     * instead of FlywheelSim's matrices, which allocate on every update.
      * @param motor Motor driving this mass
      * @param gearing Gearing between motor and controlled mass
      * @param moi Moment of inertia of the controlled mass
      */
     SimpleMotorWithMassModel(DCMotor motor, double gearing, double moi) {
-        m_fwSim = new FlywheelSim(motor, gearing, moi);
+        m_motor = motor;
+        m_gearing = gearing;
+        m_a = -gearing * gearing * motor.KtNMPerAmp / (motor.KvRadPerSecPerVolt * motor.rOhms * moi);
+        m_b = gearing * motor.KtNMPerAmp / (motor.rOhms * moi);
     }
 
     void update(double motorVoltage, double dtSeconds) {
-        m_fwSim.setInputVoltage(motorVoltage);
-        m_fwSim.update(dtSeconds);
+        if (dtSeconds != m_dtSeconds) {
+            m_dtSeconds = dtSeconds;
+            m_discreteA = Math.exp(m_a * dtSeconds);
+            m_discreteB = m_a == 0 ? m_b * dtSeconds : (m_discreteA - 1) / m_a * m_b;
+        }
+
+        m_voltage = motorVoltage;
+        m_speedRadPerSec = m_discreteA * m_speedRadPerSec + m_discreteB * motorVoltage;
+
         //Add additional state of displacement in a hacky-ish calculation
-        m_curDisplacementRev += m_fwSim.getAngularVelocityRPM() / 60.0 * dtSeconds;
+        m_curDisplacementRev += getMechanismSpeed_RPM() / 60.0 * dtSeconds;
     }
 
     /**
      * Gets the present speed of the rotating mass.
      */
     double getMechanismSpeed_RPM() {
-        return m_fwSim.getAngularVelocityRPM();
+        return Units.radiansPerSecondToRotationsPerMinute(m_speedRadPerSec);
     }
 
     /**
      * Returns the present current draw of the mechanism.
      */
     double getCurrent_A() {
-        return m_fwSim.getCurrentDrawAmps();
+        return m_motor.getCurrent(m_speedRadPerSec * m_gearing, m_voltage) * Math.signum(m_voltage);
     }
 
     /**
@@ -47,4 +72,4 @@ class SimpleMotorWithMassModel {
     double getMechanismPositionRev() {
         return m_curDisplacementRev;
     }
-}
\ No newline at end of file
+}
@@ -16,12 +16,29 @@ public class SwerveModuleSim {
     //TODO - make the "how much grease" factor configurable?
     private final double m_wheelGearboxLossFactor = 0.01;
 
-    Pose2d m_prevModulePose = null;
-    Pose2d m_curModulePose  = null;
+    // Module pose on the field, kept as doubles so that stepping doesn't allocate Pose2ds
+    double m_prevModuleX;
+    double m_prevModuleY;
+    double m_curModuleX;
+    double m_curModuleY;
+    double m_curModuleRad;
+    double m_curModuleCos = 1;
+    double m_curModuleSin;
+
+    // Velocity of the contact patch in the module frame, worked out once per step in update
+    double m_relTransVelX;
+    double m_relTransVelY;
+
     //Positive = in curAngle_deg, Negative = opposite of curAngle_deg
     double m_curLinearSpeedMpS = 0;
     //0 = toward front, 90 = toward left, 180 = toward back, 270 = toward right
-    Rotation2d m_curAzmthAngle = Rotation2d.fromDegrees(0);
+    double m_curAzmthRad;
+    double m_curAzmthCos = 1;
+    double m_curAzmthSin;
+
+    // Cross-tread friction force of the last step, in the module frame
+    double m_crossTreadFricForceX;
+    double m_crossTreadFricForceY;
 
     double m_crossTreadFricForceMag = 0;
     double m_crossTreadVelMag = 0;
@@ -121,58 +138,70 @@ public class SwerveModuleSim {
     }
 
     public double getWheelEncoderVelocityRPM(){
-        return m_azmthMotor.getMechanismSpeed_RPM() * m_wheelEncGearRatio;
+        return m_wheelMotor.getWheelSpeed_RPM() * m_wheelEncGearRatio;
     }
 
     void reset(Pose2d initModulePose) {
-        m_prevModulePose = m_curModulePose = initModulePose;
+        reset(initModulePose.getX(), initModulePose.getY(), initModulePose.getRotation().getRadians());
+    }
+
+    void reset(double x, double y, double rad) {
+        m_prevModuleX = m_curModuleX = x;
+        m_prevModuleY = m_curModuleY = y;
+        m_curModuleRad = rad;
+        m_curModuleCos = Math.cos(rad);
+        m_curModuleSin = Math.sin(rad);
+        m_relTransVelX = m_relTransVelY = 0;
         m_curLinearSpeedMpS = 0;
-        m_curAzmthAngle = Rotation2d.fromDegrees(0);
+        setAzimuth(0);
     }
 
-    void update(double dtSeconds) {
+    private void setAzimuth(double rad) {
+        m_curAzmthRad = rad;
+        m_curAzmthCos = Math.cos(rad);
+        m_curAzmthSin = Math.sin(rad);
+    }
 
-        Vector2d azimuthUnitVec = new Vector2d(1 , 0);
-        azimuthUnitVec.rotate(m_curAzmthAngle.getDegrees());
+    void update(double dtSeconds) {
+        updateModRelTransVel(dtSeconds);
 
         // Assume the wheel does not lose traction along its wheel direction (on-tread)
-        double velocityAlongAzimuth = getModRelTransVel(dtSeconds).dot(azimuthUnitVec);
+        double velocityAlongAzimuth = m_relTransVelX * m_curAzmthCos + m_relTransVelY * m_curAzmthSin;
 
         m_wheelMotor.update(velocityAlongAzimuth, m_wheelVoltage, dtSeconds);
         m_azmthMotor.update(m_azmthVoltage, dtSeconds);
 
         // Assume idealized azimuth control - no "twist" force at contact
         //  patch from friction or robot motion.
-        m_curAzmthAngle = Rotation2d.fromDegrees(m_azmthMotor.getMechanismPositionRev() * 360);
+        setAzimuth(Math.toRadians(m_azmthMotor.getMechanismPositionRev() * 360));
     }
 
 
-    /** Get a vector of the velocity of the module's contact patch moving across the field. */
-    Vector2d getModRelTransVel(double dtSeconds) {
-        double xvel = (m_curModulePose.getTranslation().getX()
-                       - m_prevModulePose.getTranslation().getX()) / dtSeconds;
-        double yvel = (m_curModulePose.getTranslation().getY()
-                       - m_prevModulePose.getTranslation().getY()) / dtSeconds;
-        Vector2d moduleTranslationVec = new Vector2d(xvel , yvel);
-        moduleTranslationVec.rotate(-1.0 * m_curModulePose.getRotation().getDegrees());
-        return moduleTranslationVec;
+    /** Work out the velocity of the module's contact patch moving across the field, in the module frame. */
+    private void updateModRelTransVel(double dtSeconds) {
+        double xvel = (m_curModuleX - m_prevModuleX) / dtSeconds;
+        double yvel = (m_curModuleY - m_prevModuleY) / dtSeconds;
+
+        // rotate by minus the module angle
+        m_relTransVelX = xvel * m_curModuleCos + yvel * m_curModuleSin;
+        m_relTransVelY = -xvel * m_curModuleSin + yvel * m_curModuleCos;
     }
 
     /**
      * Given a net force on a particular module, calculate the friction force
      * generated by the tread interacting with the ground in the direction
-     * perpendicular to the wheel's rotation.
-     * @param netForce input force applied to the module
+     * perpendicular to the wheel's rotation. The result is left in
+     * m_crossTreadFricForceX/Y, in the module frame.
+     * @param netForceX x of the force applied to the module, in the module frame
+     * @param netForceY y of the force applied to the module, in the module frame
      */
-    ForceAtPose2d getCrossTreadFricForce(Force2d netForce, double dtSeconds) {
+    void updateCrossTreadFricForce(double netForceX, double netForceY) {
 
-        //Project net force onto cross-tread vector
-        Vector2d crossTreadUnitVector = new Vector2d(0 , 1);
-        crossTreadUnitVector.rotate(m_curAzmthAngle.getDegrees());
-        m_crossTreadVelMag = getModRelTransVel(dtSeconds).dot(crossTreadUnitVector);
-        m_crossTreadForceMag = netForce.getVector2d().dot(crossTreadUnitVector);
-
-        Force2d fricForce = new Force2d();
+        //Project net force onto cross-tread vector, the y axis rotated by the azimuth angle
+        double crossTreadX = -m_curAzmthSin;
+        double crossTreadY = m_curAzmthCos;
+        m_crossTreadVelMag = m_relTransVelX * crossTreadX + m_relTransVelY * crossTreadY;
+        m_crossTreadForceMag = netForceX * crossTreadX + netForceY * crossTreadY;
 
         boolean useKinFric = Math.abs(m_crossTreadForceMag) > m_treadStaticFricForce
                             || Math.abs(m_crossTreadVelMag) > 0.001;
@@ -187,39 +216,41 @@ public class SwerveModuleSim {
             m_crossTreadFricForceMag = -1.0 * m_crossTreadForceMag;
         }
 
-        fricForce = new Force2d(crossTreadUnitVector);
-        fricForce = fricForce.times(m_crossTreadFricForceMag);
-
-        return new ForceAtPose2d(fricForce, m_curModulePose);
+        m_crossTreadFricForceX = crossTreadX * m_crossTreadFricForceMag;
+        m_crossTreadFricForceY = crossTreadY * m_crossTreadFricForceMag;
     }
 
 
-    /** Gets the modules on-axis (along wheel direction) force,
-     * which comes from the rotation of the motor. */
-    ForceAtPose2d getWheelMotiveForce() {
-        return new ForceAtPose2d(new Force2d(m_wheelMotor.getGroundForce_N(), m_curAzmthAngle),
-                                 m_curModulePose);
+    /** Gets the x of the modules on-axis (along wheel direction) force,
+     * which comes from the rotation of the motor, in the module frame. */
+    double getWheelMotiveForceX() {
+        return m_wheelMotor.getGroundForce_N() * m_curAzmthCos;
     }
 
-    /** Set the motion of each module in the field reference frame. */
-    void setModulePose(Pose2d curPos) {
-        //Handle init'ing module position history to current on first pass
-        if (m_prevModulePose == null) {
-            m_prevModulePose = curPos;
-        } else {
-            m_prevModulePose = m_curModulePose;
-        }
+    /** Gets the y of the modules on-axis force, in the module frame. */
+    double getWheelMotiveForceY() {
+        return m_wheelMotor.getGroundForce_N() * m_curAzmthSin;
+    }
 
-        m_curModulePose = curPos;
+    /** Set the motion of each module in the field reference frame. */
+    void setModulePose(double x, double y, double rad, double cos, double sin) {
+        m_prevModuleX = m_curModuleX;
+        m_prevModuleY = m_curModuleY;
+
+        m_curModuleX = x;
+        m_curModuleY = y;
+        m_curModuleRad = rad;
+        m_curModuleCos = cos;
+        m_curModuleSin = sin;
     }
 
     Pose2d getPose() {
-        return m_curModulePose;
+        return new Pose2d(m_curModuleX, m_curModuleY, new Rotation2d(m_curModuleRad));
     }
 
     Rotation2d getCurAzmthAngle()
     {
-      return m_curAzmthAngle;
+      return new Rotation2d(m_curAzmthRad);
     }
 
 }
\ No newline at end of file
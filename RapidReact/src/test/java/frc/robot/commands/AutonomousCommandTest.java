@@ -0,0 +1,51 @@
+package frc.robot.commands;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.config.Config;
+import frc.robot.subsystem.DrivetrainSubsystem;
+import frc.robot.subsystem.IntakeSubsystem;
+import frc.robot.subsystem.ShooterSubsystem;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AutonomousCommandTest {
+
+    Config config;
+    DrivetrainSubsystem drivetrain;
+    IntakeSubsystem intake;
+    ShooterSubsystem shooter;
+
+    @Before
+    public void setup() {
+        assert HAL.initialize(500, 0); // initialize the HAL, crash if failed
+        config = new Config();
+
+        drivetrain = new DrivetrainSubsystem(config);
+        drivetrain.init();
+        intake = new IntakeSubsystem(config);
+        intake.init();
+        shooter = new ShooterSubsystem(config);
+        shooter.init();
+    }
+
+    @Test
+    public void hardcodedRoutineStartsAtItsHeading() {
+        // built like Robot builds the shoot and drive back routines
+        AutonomousCommand command = new AutonomousCommand(null, drivetrain, intake, shooter, null)
+            .withInitialHeading(Rotation2d.fromDegrees(config.auto.hardcodedStartHeading_degrees))
+            .shootPreload(true)
+            .complete();
+
+        // built while disabled, nothing is reset until the routine starts
+        drivetrain.resetGyroWithOffset(new Rotation2d());
+        assertEquals(0, drivetrain.gyro.getAngleAdjustment(), 1e-9);
+
+        command.initialize();
+        command.execute();
+
+        assertEquals(-150, drivetrain.gyro.getAngleAdjustment(), 1e-9);
+    }
+}
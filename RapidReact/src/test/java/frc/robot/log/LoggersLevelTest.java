@@ -1,7 +1,12 @@
 package frc.robot.log;
 
+import frc.robot.config.Config;
+import frc.robot.log.impl.CoalescingPublisher;
+import frc.robot.log.impl.DefaultDoubleLoggable;
+import frc.robot.log.impl.LevelFilter;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -15,4 +20,16 @@ public class LoggersLevelTest {
     assertFalse(LogLevel.GENERAL.shouldLog(LogLevel.DEBUG)); //base level debug should filter out general
     assertFalse(LogLevel.CRITICAL.shouldLog(LogLevel.GENERAL));
   }
+
+  @Test
+  public void defaultLevelIsPublishedAtTheConfiguredBaseLevel() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    LevelFilter base = new LevelFilter(new Config().log.logLevel);
+    DoubleLoggable loggable = new DefaultDoubleLoggable(publisher.doubleSlot("test/value"), BucketLog.defaultLogLevel, base);
+
+    loggable.log(1);
+    publisher.flush();
+
+    assertEquals(1, loggable.getSentCount());
+  }
 }
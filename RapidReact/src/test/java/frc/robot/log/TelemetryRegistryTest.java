@@ -0,0 +1,127 @@
+package frc.robot.log;
+
+import frc.robot.log.impl.CoalescingPublisher;
+import frc.robot.log.recorder.LogReader;
+import frc.robot.log.recorder.LogRecorder;
+import frc.robot.utils.DashboardConfig;
+import frc.robot.utils.DashboardKey;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TelemetryRegistryTest {
+
+  private final List<String> published = new ArrayList<>();
+
+  private final Put<String> recordingPut = new Put<>() {
+    @Override
+    public void put(String path, String put) {
+      published.add(path + "=" + put);
+    }
+
+    @Override
+    public String convert(Object object) {
+      return (String) object;
+    }
+  };
+
+  @Test
+  public void profileChosenLaterAppliesToExistingKeys() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    TelemetryRegistry registry = new TelemetryRegistry();
+
+    CoalescingPublisher.ObjectSlot<String> tuning = publisher.slot("shooter/tuning", recordingPut);
+    registry.register(DashboardKey.SHOOTER_TUNING, tuning);
+    assertTrue(tuning.isEnabled());
+
+    registry.use(TelemetryProfile.COMPETITION, new DashboardConfig());
+    assertFalse(tuning.isEnabled());
+
+    tuning.set("ignored");
+    publisher.flush();
+    assertEquals(0, published.size());
+    assertEquals(0, tuning.getSentCount());
+  }
+
+  @Test
+  public void disabledDashboardKeyIsOffInEveryProfile() {
+    TelemetryRegistry registry = new TelemetryRegistry();
+    registry.use(TelemetryProfile.DEBUG, new DashboardConfig().addDisabled(DashboardKey.DRIVE_ODOMETRY));
+
+    assertEquals(PublishRate.OFF, registry.rate(DashboardKey.DRIVE_ODOMETRY));
+    assertEquals(PublishRate.EVERY_LOOP, registry.rate(DashboardKey.SHOOTER_TUNING));
+  }
+
+  @Test
+  public void reducedRateKeepsTheNewestValue() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    TelemetryRegistry registry = new TelemetryRegistry();
+    registry.use(TelemetryProfile.PRACTICE, new DashboardConfig());
+
+    CoalescingPublisher.ObjectSlot<String> motors = publisher.slot("climber/motors", recordingPut);
+    registry.register(DashboardKey.CLIMBER_MOTORS, motors);
+
+    // 10 Hz, one publish every five loops
+    for (int loop = 0; loop < 10; loop++) {
+      motors.set("loop" + loop);
+      publisher.flush();
+    }
+
+    assertEquals(List.of("climber/motors=loop0", "climber/motors=loop5"), published);
+  }
+
+  @Test
+  public void slotOfAPathIsRegisteredOnce() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    TelemetryRegistry registry = new TelemetryRegistry();
+
+    for (int i = 0; i < 3; i++) {
+      registry.register(DashboardKey.SHOOTER_STATE, publisher.slot("shooter/state", recordingPut));
+    }
+
+    assertEquals(1, registry.size(DashboardKey.SHOOTER_STATE));
+  }
+
+  @Test
+  public void offKeysAreStillRecorded() throws IOException {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    TelemetryRegistry registry = new TelemetryRegistry();
+    registry.use(TelemetryProfile.COMPETITION, new DashboardConfig());
+
+    CoalescingPublisher.ObjectSlot<String> tuning = publisher.slot("shooter/tuning", recordingPut);
+    registry.register(DashboardKey.SHOOTER_TUNING, tuning);
+
+    File directory = Files.createTempDirectory("telemetry").toFile();
+    try {
+      long session;
+      try (LogRecorder recorder = new LogRecorder(directory, 32768, 4, 2048)) {
+        publisher.setRecorder(recorder);
+        tuning.set("recorded");
+        publisher.flush();
+        session = recorder.getSessionId();
+      }
+
+      assertEquals(0, published.size());
+
+      List<String> recorded = new ArrayList<>();
+      try (LogReader reader = new LogReader(directory)) {
+        reader.read(session, "shooter/tuning", 0, Long.MAX_VALUE, (time, key, type, number, text) -> recorded.add(text));
+      }
+      assertEquals(List.of("recorded"), recorded);
+    } finally {
+      File[] files = directory.listFiles();
+      if (files != null) {
+        for (File file : files) file.delete();
+      }
+      directory.delete();
+    }
+  }
+}
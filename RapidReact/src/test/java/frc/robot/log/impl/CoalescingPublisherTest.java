@@ -0,0 +1,170 @@
+package frc.robot.log.impl;
+
+import frc.robot.log.LogLevel;
+import frc.robot.log.OverflowPolicy;
+import frc.robot.log.Put;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CoalescingPublisherTest {
+
+  private final List<String> published = new ArrayList<>();
+
+  private final Put<String> recordingPut = new Put<>() {
+    @Override
+    public void put(String path, String put) {
+      published.add(path + "=" + put);
+    }
+
+    @Override
+    public String convert(Object object) {
+      return (String) object;
+    }
+  };
+
+  @Test
+  public void latestValueWins() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    CoalescingPublisher.ObjectSlot<String> slot = publisher.slot("test/state", recordingPut);
+
+    slot.set("a");
+    slot.set("b");
+    slot.set("c");
+    publisher.flush();
+
+    assertEquals(List.of("test/state=c"), published);
+  }
+
+  @Test
+  public void unchangedSlotsAreNotRepublished() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    CoalescingPublisher.ObjectSlot<String> slot = publisher.slot("test/state", recordingPut);
+
+    slot.set("a");
+    publisher.flush();
+    publisher.flush();
+
+    assertEquals(1, published.size());
+  }
+
+  @Test
+  public void samePathSharesOneSlot() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+
+    assertSame(publisher.slot("test/state", recordingPut), publisher.slot("test/state", recordingPut));
+    assertEquals(1, publisher.size());
+  }
+
+  @Test
+  public void onChangeSuppressesRepeats() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    CoalescingPublisher.ObjectSlot<String> slot = publisher.slot("test/state", recordingPut);
+    slot.onChange();
+
+    for (int i = 0; i < 10; i++) {
+      slot.set("idle");
+      publisher.flush();
+    }
+    slot.set("climbing");
+    publisher.flush();
+
+    assertEquals(List.of("test/state=idle", "test/state=climbing"), published);
+    assertEquals(2, slot.getSentCount());
+    assertEquals(9, slot.getSuppressedCount());
+  }
+
+  @Test
+  public void deadbandIgnoresNoiseAndHeartbeatStillSends() {
+    long[] now = {0};
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run, () -> now[0]);
+    CoalescingPublisher.DoubleSlot slot = publisher.doubleSlot("test/position");
+    slot.deadband(10);
+    slot.heartbeat(1);
+
+    slot.set(100);
+    now[0] = 20_000;
+    slot.set(105);
+    now[0] = 40_000;
+    slot.set(95);
+    assertEquals(1, slot.getSentCount());
+
+    now[0] = 60_000;
+    slot.set(111);
+    assertEquals(2, slot.getSentCount());
+
+    // nothing moved, but a second has passed since the last send
+    now[0] = 1_060_000;
+    slot.set(111);
+    assertEquals(3, slot.getSentCount());
+    assertEquals(2, slot.getSuppressedCount());
+  }
+
+  @Test
+  public void rejectedFlushIsQueuedAgain() {
+    AtomicBoolean full = new AtomicBoolean(true);
+    CoalescingPublisher publisher = new CoalescingPublisher(task -> {
+      if (full.get()) throw new RejectedExecutionException("queue full");
+      task.run();
+    });
+    CoalescingPublisher.ObjectSlot<String> slot = publisher.slot("test/state", recordingPut);
+
+    slot.set("a");
+    publisher.flush();
+    assertEquals(List.of(), published);
+
+    full.set(false);
+    publisher.flush();
+    assertEquals(List.of("test/state=a"), published);
+  }
+
+  @Test
+  public void valueTheRingDroppedIsSentAgain() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run, () -> 0, new SampleRing(2, OverflowPolicy.DROP_NEWEST));
+    CoalescingPublisher.ObjectSlot<String> filler = publisher.slot("test/filler", recordingPut);
+    CoalescingPublisher.ObjectSlot<String> slot = publisher.slot("test/state", recordingPut);
+    slot.onChange();
+
+    filler.set("1");
+    filler.set("2");
+    slot.set(LogLevel.CRITICAL, "climbing");
+    assertEquals(0, slot.getSentCount());
+    assertEquals(1, slot.getDroppedCount());
+
+    publisher.flush();
+    published.clear();
+
+    slot.set("climbing");
+    publisher.flush();
+
+    assertEquals(List.of("test/state=climbing"), published);
+    assertEquals(1, slot.getSentCount());
+    assertEquals(0, slot.getSuppressedCount());
+  }
+
+  @Test
+  public void evictedValueIsSentAgain() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run, () -> 0, new SampleRing(2, OverflowPolicy.DROP_OLDEST));
+    CoalescingPublisher.ObjectSlot<String> filler = publisher.slot("test/filler", recordingPut);
+    CoalescingPublisher.ObjectSlot<String> slot = publisher.slot("test/state", recordingPut);
+    slot.onChange();
+
+    slot.set("climbing");
+    filler.set("1");
+    filler.set("2");
+    publisher.flush();
+    assertEquals(List.of("test/filler=2"), published);
+    published.clear();
+
+    slot.set("climbing");
+    publisher.flush();
+
+    assertEquals(List.of("test/state=climbing"), published);
+  }
+}
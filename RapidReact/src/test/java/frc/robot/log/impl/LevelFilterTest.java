@@ -0,0 +1,67 @@
+package frc.robot.log.impl;
+
+import frc.robot.log.LogLevel;
+import frc.robot.log.Loggable;
+import frc.robot.log.Put;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LevelFilterTest {
+
+  @Test
+  public void subsystemFollowsBaseUntilOverridden() {
+    LevelFilter base = new LevelFilter(LogLevel.GENERAL);
+    LevelFilter climber = new LevelFilter(base);
+
+    assertFalse(climber.shouldLog(LogLevel.DEBUG));
+
+    climber.setLevel(LogLevel.DEBUG);
+    assertTrue(climber.shouldLog(LogLevel.DEBUG));
+    assertFalse(base.shouldLog(LogLevel.DEBUG));
+
+    base.setLevel(LogLevel.CRITICAL);
+    assertTrue(climber.shouldLog(LogLevel.DEBUG));
+
+    climber.setLevel(null);
+    assertEquals(LogLevel.CRITICAL, climber.currentValue());
+  }
+
+  @Test
+  public void filteredSupplierIsNeverCalled() {
+    CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+    LevelFilter base = new LevelFilter(LogLevel.GENERAL);
+    Loggable<String> loggable = new DefaultLoggable<>(publisher.slot("drivetrain/odometry", Put.STRING), LogLevel.DEBUG, base);
+
+    AtomicInteger built = new AtomicInteger();
+    loggable.log(LogLevel.DEBUG, () -> "pose " + built.incrementAndGet());
+    assertEquals(0, built.get());
+
+    base.setLevel(LogLevel.DEBUG);
+    loggable.log(LogLevel.DEBUG, () -> "pose " + built.incrementAndGet());
+    assertEquals(1, built.get());
+  }
+
+  @Test
+  public void typosKeepTheLevel() {
+    LevelFilter base = new LevelFilter(LogLevel.GENERAL);
+    LevelFilter climber = new LevelFilter(base);
+
+    assertTrue(climber.setLevelName(" debug "));
+    assertEquals(LogLevel.DEBUG, climber.getLevel());
+
+    assertFalse(climber.setLevelName("DEBUGG"));
+    assertEquals(LogLevel.DEBUG, climber.getLevel());
+
+    assertTrue(climber.setLevelName("inherit"));
+    assertEquals(null, climber.getLevel());
+
+    // the base level has nothing to inherit from
+    assertFalse(base.setLevelName(LevelFilter.INHERIT));
+    assertEquals(LogLevel.GENERAL, base.getLevel());
+  }
+}
@@ -0,0 +1,90 @@
+package frc.robot.log.impl;
+
+import frc.robot.log.LogLevel;
+import frc.robot.log.OverflowPolicy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SampleRingTest {
+
+  private final List<Double> drained = new ArrayList<>();
+  private final SampleRing.Sink sink = (slot, time, number, object) -> drained.add(number);
+
+  @Test
+  public void dropNewestKeepsTheFirstSamples() {
+    SampleRing ring = new SampleRing(4, OverflowPolicy.DROP_NEWEST);
+
+    for (int i = 0; i < 6; i++) {
+      ring.offer(null, LogLevel.CRITICAL, i, i, null);
+    }
+    ring.drain(sink);
+
+    assertEquals(List.of(0.0, 1.0, 2.0, 3.0), drained);
+    assertEquals(2, ring.getDropped());
+    assertEquals(4, ring.getMaxDepth());
+  }
+
+  @Test
+  public void dropOldestKeepsTheLastSamples() {
+    SampleRing ring = new SampleRing(4, OverflowPolicy.DROP_OLDEST);
+
+    for (int i = 0; i < 6; i++) {
+      ring.offer(null, LogLevel.CRITICAL, i, i, null);
+    }
+    ring.drain(sink);
+
+    assertEquals(List.of(2.0, 3.0, 4.0, 5.0), drained);
+    assertEquals(2, ring.getDropped());
+  }
+
+  @Test
+  public void dropByPriorityKeepsRoomForCriticalSamples() {
+    SampleRing ring = new SampleRing(8, OverflowPolicy.DROP_BY_PRIORITY);
+
+    for (int i = 0; i < 8; i++) {
+      ring.offer(null, LogLevel.DEBUG, i, i, null);
+    }
+    assertEquals(4, ring.depth());
+
+    assertTrue(ring.offer(null, LogLevel.GENERAL, 0, 0, null));
+    assertTrue(ring.offer(null, LogLevel.GENERAL, 0, 0, null));
+    assertFalse(ring.offer(null, LogLevel.GENERAL, 0, 0, null));
+    assertTrue(ring.offer(null, LogLevel.CRITICAL, 0, 0, null));
+    assertTrue(ring.offer(null, LogLevel.CRITICAL, 0, 0, null));
+    assertFalse(ring.offer(null, LogLevel.CRITICAL, 0, 0, null));
+  }
+
+  @Test
+  public void concurrentProducersLoseNothingThatWasCounted() throws InterruptedException {
+    SampleRing ring = new SampleRing(256, OverflowPolicy.DROP_NEWEST);
+    int producers = 4;
+    int samples = 50_000;
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < samples; i++) {
+          ring.offer(null, LogLevel.GENERAL, i, 1, null);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    long received = 0;
+    while (threads.stream().anyMatch(Thread::isAlive)) {
+      received += ring.drain((slot, time, number, object) -> {});
+    }
+    for (Thread thread : threads) thread.join();
+    received += ring.drain((slot, time, number, object) -> {});
+
+    assertEquals((long) producers * samples, received + ring.getDropped());
+    assertEquals(received, ring.getEnqueued());
+  }
+}
@@ -0,0 +1,96 @@
+package frc.robot.log.recorder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LogReaderTest {
+
+  private static final int BLOCK_BYTES = 2048;
+  private static final int SEGMENT_BYTES = 32768;
+  private static final int SEGMENT_COUNT = 4;
+
+  private File directory;
+
+  @Before
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("bucketlog").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) file.delete();
+    }
+    directory.delete();
+  }
+
+  private long record() throws IOException {
+    try (LogRecorder recorder = new LogRecorder(directory, SEGMENT_BYTES, SEGMENT_COUNT, BLOCK_BYTES)) {
+      int speed = recorder.key("shooter/topShooterActualSpeed", RecordFormat.TYPE_DOUBLE);
+      int climbing = recorder.key("climber/climbing", RecordFormat.TYPE_BOOLEAN);
+      int state = recorder.key("shooter/state", RecordFormat.TYPE_STRING);
+
+      recorder.recordString(state, 0, "SPINNING_UP");
+
+      // 50 loops a second for 20 seconds
+      for (int i = 0; i < 1000; i++) {
+        long time = i * 20_000L;
+        recorder.recordDouble(speed, time, i);
+        recorder.recordBoolean(climbing, time, i >= 500);
+      }
+
+      return recorder.getSessionId();
+    }
+  }
+
+  @Test
+  public void readsOneKeyInATimeRange() throws IOException {
+    long session = record();
+
+    try (LogReader reader = new LogReader(directory)) {
+      assertEquals(session, reader.getLatestSessionId());
+
+      List<Double> values = new ArrayList<>();
+      reader.read(session, "shooter/topShooterActualSpeed", 2_000_000, 3_000_000,
+          (time, key, type, number, text) -> values.add(number));
+
+      // 2s to 3s inclusive is loops 100 to 150
+      assertEquals(51, values.size());
+      assertEquals(100, values.get(0), 0);
+      assertEquals(150, values.get(values.size() - 1), 0);
+    }
+  }
+
+  @Test
+  public void skipsBlocksOutsideTheRangeOrWithoutTheKey() throws IOException {
+    long session = record();
+
+    try (LogReader reader = new LogReader(directory)) {
+      int total = reader.getBlockCount(session);
+      assertTrue(total > 10);
+
+      int blocksRead = reader.read(session, "shooter/topShooterActualSpeed", 10_000_000, 10_100_000,
+          (time, key, type, number, text) -> {});
+      assertTrue(blocksRead <= 2);
+
+      List<String> states = new ArrayList<>();
+      blocksRead = reader.read(session, "shooter/state", 0, Long.MAX_VALUE,
+          (time, key, type, number, text) -> states.add(text));
+
+      assertEquals(1, blocksRead);
+      assertEquals(1, states.size());
+      assertEquals("SPINNING_UP", states.get(0));
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package frc.robot.log.recorder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LogRecorderTest {
+
+  private static final int BLOCK_BYTES = 2048;
+  private static final int SEGMENT_BYTES = 8192;
+  private static final int SEGMENT_COUNT = 3;
+
+  private File directory;
+
+  @Before
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("bucketlog").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void diskUsageStaysWithinBudget() throws IOException {
+    try (LogRecorder recorder = new LogRecorder(directory, SEGMENT_BYTES, SEGMENT_COUNT, BLOCK_BYTES)) {
+      int key = recorder.key("shooter/topShooterActualSpeed", RecordFormat.TYPE_DOUBLE);
+
+      // enough records to wrap around the ring a few times
+      for (int i = 0; i < 10_000; i++) {
+        recorder.recordDouble(key, i * 20_000L, i);
+      }
+
+      assertEquals(10_000, recorder.getRecordsWritten());
+      assertTrue(recorder.getSegmentsStarted() > SEGMENT_COUNT);
+      assertEquals((long) SEGMENT_BYTES * SEGMENT_COUNT, recorder.getBudgetBytes());
+    }
+
+    for (int i = 0; i < SEGMENT_COUNT; i++) {
+      assertEquals(SEGMENT_BYTES, new File(directory, RecordFormat.segmentName(i)).length());
+    }
+  }
+
+  @Test
+  public void firstRecordIsWrittenAfterTheHeaders() throws IOException {
+    try (LogRecorder recorder = new LogRecorder(directory, SEGMENT_BYTES, SEGMENT_COUNT, BLOCK_BYTES)) {
+      int key = recorder.key("climber/climbLeftRevLimitSwitchClosed", RecordFormat.TYPE_BOOLEAN);
+      recorder.recordBoolean(key, 1234, true);
+    }
+
+    try (RandomAccessFile file = new RandomAccessFile(new File(directory, RecordFormat.segmentName(0)), "r")) {
+      assertEquals(RecordFormat.SEGMENT_MAGIC, file.readInt());
+
+      int block = RecordFormat.SEGMENT_HEADER_BYTES;
+      file.seek(block);
+      assertEquals(RecordFormat.BLOCK_MAGIC, file.readInt());
+      assertEquals(1, file.readInt());
+
+      file.seek(block + RecordFormat.BLOCK_HEADER_BYTES);
+      assertEquals(1234, file.readLong());
+      assertEquals(0, file.readShort());
+      assertEquals(RecordFormat.TYPE_BOOLEAN, file.readByte());
+      assertEquals(1, file.readByte());
+    }
+  }
+
+  @Test
+  public void newSessionContinuesAfterTheNewestSegment() throws IOException {
+    try (LogRecorder recorder = new LogRecorder(directory, SEGMENT_BYTES, SEGMENT_COUNT, BLOCK_BYTES)) {
+      assertEquals(1, recorder.getSegmentsStarted());
+    }
+
+    try (LogRecorder recorder = new LogRecorder(directory, SEGMENT_BYTES, SEGMENT_COUNT, BLOCK_BYTES)) {
+      recorder.sync();
+    }
+
+    try (RandomAccessFile file = new RandomAccessFile(new File(directory, RecordFormat.segmentName(1)), "r")) {
+      assertEquals(RecordFormat.SEGMENT_MAGIC, file.readInt());
+      file.seek(RecordFormat.SEGMENT_SEQUENCE_OFFSET);
+      assertEquals(1, file.readLong());
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package frc.robot.profiling;
+
+import frc.robot.config.Config;
+import frc.robot.log.BucketLog;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class JvmMetricsTest {
+
+    @Test
+    public void publishesAtTheConfiguredBaseLevel() throws InterruptedException {
+        BucketLog.setLogLevel(new Config().log.logLevel);
+        JvmMetrics metrics = new JvmMetrics(Thread.currentThread());
+
+        metrics.beginLoop();
+        metrics.endLoop();
+        BucketLog.flush();
+
+        // published on the BucketLog thread
+        long deadline = System.currentTimeMillis() + 2000;
+        while (metrics.gcCount.getSentCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(metrics.loopAllocatedBytes.getSentCount() > 0);
+        assertTrue(metrics.heapUsedMb.getSentCount() > 0);
+        assertTrue(metrics.gcInLoop.getSentCount() > 0);
+        assertTrue(metrics.gcCount.getSentCount() > 0);
+    }
+}
@@ -0,0 +1,72 @@
+package frc.robot.profiling;
+
+import org.junit.Test;
+
+import java.util.function.LongSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LoopProfilerTest {
+
+    private long now;
+    private final LongSupplier clock = () -> now;
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void reportsBiggestPiecesOnOverrun() {
+        LoopProfiler profiler = new LoopProfiler(clock, 0, 8, 2);
+
+        profiler.beginLoop();
+        now += 1 * MS;
+        profiler.mark("small");
+        now += 6 * MS;
+        profiler.mark("big");
+        long start = now;
+        now += 3 * MS;
+        profiler.record("medium", start);
+        profiler.endLoop();
+
+        assertEquals(1, profiler.getOverrunCount());
+        assertEquals("Loop overrun 10.0 ms: big 6.0 ms, medium 3.0 ms", profiler.getLastReport());
+    }
+
+    @Test
+    public void ignoresMarksOutsideOfLoop() {
+        LoopProfiler profiler = new LoopProfiler(clock, Long.MAX_VALUE, 8, 2);
+
+        assertEquals(0, profiler.mark("outside"));
+
+        profiler.beginLoop();
+        profiler.mark("inside");
+        profiler.endLoop();
+
+        assertEquals(0, profiler.getOverrunCount());
+        assertNull(profiler.getLastReport());
+    }
+
+    @Test
+    public void countsOverrunsWithGcApart() {
+        LoopProfiler profiler = new LoopProfiler(clock, 20 * MS, 8, 2);
+
+        profiler.beginLoop();
+        now += 25 * MS;
+        profiler.mark("work");
+        profiler.endLoop(true);
+
+        assertEquals("Loop overrun 25.0 ms with GC: work 25.0 ms", profiler.getLastReport());
+
+        profiler.beginLoop();
+        now += 25 * MS;
+        profiler.mark("work");
+        profiler.endLoop(false);
+
+        profiler.beginLoop();
+        now += 5 * MS;
+        profiler.endLoop(true);
+
+        assertEquals(2, profiler.getOverrunCount());
+        assertEquals(1, profiler.getGcOverrunCount());
+    }
+}
@@ -0,0 +1,121 @@
+package frc.robot.profiling;
+
+import frc.robot.log.LogLevel;
+import frc.robot.log.Put;
+import frc.robot.log.impl.CoalescingPublisher;
+import frc.robot.log.impl.DefaultLoggable;
+import frc.robot.log.impl.LevelFilter;
+import frc.robot.log.recorder.LogReader;
+import frc.robot.log.recorder.LogRecorder;
+import frc.robot.log.recorder.RecordFormat;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StackSamplerTest {
+
+    private static StackTraceElement frame(String className, String method, int line) {
+        return new StackTraceElement(className, method, className + ".java", line);
+    }
+
+    // innermost first, the same as Thread.getStackTrace()
+    private static StackTraceElement[] stack(StackTraceElement... frames) {
+        return frames;
+    }
+
+    private final StackTraceElement main = frame("edu.wpi.first.wpilibj.RobotBase", "main", 1);
+    private final StackTraceElement loop = frame("frc.robot.Robot", "loopFunc", 2);
+    private final StackTraceElement drive = frame("frc.robot.subsystem.DrivetrainSubsystem", "subsystemPeriodic", 3);
+    private final StackTraceElement config = frame("frc.robot.utils.MotorUtils", "motorInit", 4);
+    private final StackTraceElement shooter = frame("frc.robot.subsystem.ShooterSubsystem", "subsystemPeriodic", 5);
+
+    @Test
+    public void treeStartsAtTheLoopAndIsSortedByCount() {
+        StackSampler sampler = new StackSampler(Thread.currentThread(), new LoopProfiler(0, 8, 2), 2, 0);
+
+        sampler.add(stack(config, drive, loop, main));
+        sampler.add(stack(config, drive, loop, main));
+        sampler.add(stack(shooter, loop, main));
+
+        List<String> lines = sampler.dump();
+
+        assertEquals("3 samples of 2 ms in overrunning loops", lines.get(0));
+        assertEquals("3 100% Robot.loopFunc:2", lines.get(1));
+        assertEquals("  2 67% DrivetrainSubsystem.subsystemPeriodic:3", lines.get(2));
+        assertEquals("    2 67% MotorUtils.motorInit:4", lines.get(3));
+        assertEquals("  1 33% ShooterSubsystem.subsystemPeriodic:5", lines.get(4));
+        assertEquals(5, lines.size());
+    }
+
+    @Test
+    public void dumpStartsANewTree() {
+        StackSampler sampler = new StackSampler(Thread.currentThread(), new LoopProfiler(0, 8, 2), 2, 50);
+
+        sampler.add(stack(config, drive, loop, main));
+        sampler.add(stack(shooter, loop, main));
+        sampler.add(stack(shooter, loop, main));
+
+        List<String> lines = sampler.dump();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).endsWith("ShooterSubsystem.subsystemPeriodic:5"));
+
+        assertTrue(sampler.dump().isEmpty());
+    }
+
+    @Test
+    public void bigTreeIsReadBackWhole() throws IOException {
+        CoalescingPublisher publisher = new CoalescingPublisher(Runnable::run);
+        StackSampler sampler = new StackSampler(Thread.currentThread(), new LoopProfiler(0, 8, 2), 2, 0,
+                path -> new DefaultLoggable<>(publisher.slot(path, Put.STRING), LogLevel.CRITICAL, new LevelFilter(LogLevel.DEBUG)));
+
+        for (int i = 0; i < 100; i++) {
+            sampler.add(stack(frame("frc.robot.subsystem.DrivetrainSubsystem", "method" + i, i), loop, main));
+        }
+
+        File directory = Files.createTempDirectory("stalls").toFile();
+        try {
+            List<String> lines;
+            long session;
+            try (LogRecorder recorder = new LogRecorder(directory, 32768, 4, 2048)) {
+                publisher.setRecorder(recorder);
+                lines = sampler.dump();
+                publisher.flush();
+                session = recorder.getSessionId();
+            }
+
+            String tree = String.join("\n", lines);
+            assertTrue(tree.length() > RecordFormat.MAX_STRING_BYTES);
+
+            List<String> chunks = new ArrayList<>();
+            try (LogReader reader = new LogReader(directory)) {
+                while (reader.getKeys(session).containsKey("profiling/stalls/" + chunks.size())) {
+                    reader.read(session, "profiling/stalls/" + chunks.size(), 0, Long.MAX_VALUE,
+                            (time, key, type, number, text) -> chunks.add(text));
+                }
+            }
+
+            assertTrue(chunks.size() > 1);
+            assertEquals(tree, String.join("\n", chunks));
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void chunksKeepLinesWhole() {
+        List<String> chunks = StackSampler.chunk(List.of("aaaa", "bbbb", "cccccccccc", "d"), 9);
+
+        assertEquals(List.of("aaaa\nbbbb", "cccccccccc", "d"), chunks);
+    }
+}
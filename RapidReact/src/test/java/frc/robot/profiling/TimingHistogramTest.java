@@ -0,0 +1,35 @@
+package frc.robot.profiling;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimingHistogramTest {
+
+  @Test
+  public void percentilesAreBucketUpperEdges() {
+    TimingHistogram histogram = new TimingHistogram(100, 20_000);
+
+    // 98 loops of 1.05 ms, one of 4.95 ms and one of 12 ms
+    for (int i = 0; i < 98; i++) histogram.record(1_050_000);
+    histogram.record(4_950_000);
+    histogram.record(12_000_000);
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(1.1, histogram.percentileMillis(50), 1e-9);
+    assertEquals(5.0, histogram.percentileMillis(99), 1e-9);
+    assertEquals(12.0, histogram.maxMillis(), 1e-9);
+  }
+
+  @Test
+  public void overrunsPastTheRangeReportTheMax() {
+    TimingHistogram histogram = new TimingHistogram(100, 20_000);
+
+    histogram.record(35_000_000);
+    assertEquals(35.0, histogram.percentileMillis(50), 1e-9);
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.percentileMillis(99), 0);
+  }
+}
@@ -0,0 +1,44 @@
+package frc.robot.simulator;
+
+import frc.robot.utils.AutonomousPath;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AutonomousEvaluationTest {
+
+    @Test
+    public void scoreSurvivesTheWorkerOutput() {
+        AutonomousEvaluation.Score score = new AutonomousEvaluation.Score(
+            AutonomousPath.MAIN_NO_TERMINAL, 0.12, 3.5, 13.2, 9.1, 4.1, 6.25, null);
+
+        AutonomousEvaluation.Score decoded = AutonomousEvaluation.Score.decode(score.encode());
+
+        assertEquals(AutonomousPath.MAIN_NO_TERMINAL, decoded.path);
+        assertEquals(0.12, decoded.poseErrorMeters, 0);
+        assertEquals(3.5, decoded.headingErrorDegrees, 0);
+        assertEquals(13.2, decoded.completionSeconds, 0);
+        assertEquals(9.1, decoded.drivingSeconds, 0);
+        assertEquals(4.1, decoded.waitingSeconds, 0);
+        assertEquals(6.25, decoded.peakLoopMillis, 0);
+    }
+
+    @Test
+    public void gateFailsLateAndInaccurateRoutines() {
+        AutonomousEvaluation.Score good = new AutonomousEvaluation.Score(
+            AutonomousPath.MAIN_NO_TERMINAL, 0.12, 3.5, 13.2, 9.1, 4.1, 6.25, null);
+        AutonomousEvaluation.Score noPath = new AutonomousEvaluation.Score(
+            AutonomousPath.HARDCODED_SHOOT_DRIVE_BACK, Double.NaN, Double.NaN, 4.6, 1, 3.6, 6.25, null);
+        AutonomousEvaluation.Score late = new AutonomousEvaluation.Score(
+            AutonomousPath.MAIN_WITH_TERMINAL, Double.NaN, Double.NaN, Double.NaN, 12, 3, 6.25, null);
+        AutonomousEvaluation.Score off = new AutonomousEvaluation.Score(
+            AutonomousPath.MAIN_NO_TERMINAL, 0.4, 3.5, 13.2, 9.1, 4.1, 6.25, null);
+
+        assertNull(good.check(0.25));
+        assertNull(noPath.check(0.25));
+        assertEquals("did not finish in 15.0 s", late.check(0.25));
+        assertEquals("ended 0.40 m off", off.check(0.25));
+        assertEquals("crashed", AutonomousEvaluation.Score.failed(AutonomousPath.NOTHING, "crashed").check(0.25));
+    }
+}
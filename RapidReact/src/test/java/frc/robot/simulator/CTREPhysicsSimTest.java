@@ -0,0 +1,97 @@
+package frc.robot.simulator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class CTREPhysicsSimTest {
+
+    /**
+     * Records what the simulator hands a device.
+     */
+    private static class RecordingProfile extends CTREPhysicsSim.SimProfile {
+
+        final List<Double> periods = new ArrayList<>();
+        final List<Double> noise = new ArrayList<>();
+
+        RecordingProfile(Random random) {
+            super(random);
+        }
+
+        @Override
+        public void run(double period) {
+            periods.add(period);
+            noise.add(random(0.95, 1.05));
+        }
+    }
+
+    @Test
+    public void runsOnTheClock() {
+        long[] micros = { 5_000_000 };
+        CTREPhysicsSim sim = new CTREPhysicsSim(1, () -> micros[0]);
+        RecordingProfile profile = new RecordingProfile(sim.getRandom());
+        sim.addProfile(profile);
+
+        sim.run();
+        micros[0] += 20_000;
+        sim.run();
+        micros[0] += 5_500;
+        sim.run();
+
+        assertEquals(0, profile.periods.get(0), 0);
+        assertEquals(20, profile.periods.get(1), 1e-9);
+        assertEquals(5.5, profile.periods.get(2), 1e-9);
+    }
+
+    @Test
+    public void fixedStepsDontBillTheClockTwice() {
+        long[] micros = { 5_000_000 };
+        CTREPhysicsSim sim = new CTREPhysicsSim(1, () -> micros[0]);
+        RecordingProfile profile = new RecordingProfile(sim.getRandom());
+        sim.addProfile(profile);
+
+        sim.run();
+        micros[0] += 20_000;
+        sim.run(0.02);
+        micros[0] += 1_000_000;
+        sim.run();
+        micros[0] += 20_000;
+        sim.run();
+
+        assertEquals(List.of(0.0, 20.0, 0.0, 20.0), profile.periods);
+    }
+
+    @Test
+    public void fixedStepsAreReproducible() {
+        List<Double> first = runFixed(42);
+        List<Double> second = runFixed(42);
+
+        assertEquals(first, second);
+        assertNotEquals(first, runFixed(43));
+        for (double value : first) {
+            assertEquals(1, value, 0.05);
+        }
+    }
+
+    private static List<Double> runFixed(long seed) {
+        CTREPhysicsSim sim = new CTREPhysicsSim(seed, () -> {
+            throw new AssertionError("run(dt) shouldn't read the clock");
+        });
+        RecordingProfile profile = new RecordingProfile(sim.getRandom());
+        sim.addProfile(profile);
+
+        for (int i = 0; i < 10; i++) {
+            sim.run(0.02);
+        }
+
+        for (double period : profile.periods) {
+            assertEquals(20, period, 1e-9);
+        }
+        return profile.noise;
+    }
+}
@@ -0,0 +1,42 @@
+package frc.robot.simulator;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PathGainSweepTest {
+
+    @Test
+    public void gridSkipsFixedGains() {
+        double[][] ranges = { { 0, 2 }, { 0, 0 }, { 1, 3 }, { 0.5, 0.5 } };
+        List<PathGainSweep.Gains> grid = PathGainSweep.grid(ranges, 3);
+
+        assertEquals(9, grid.size());
+        assertEquals(0, grid.get(0).xyP, 1e-9);
+        assertEquals(1, grid.get(0).thetaP, 1e-9);
+        assertEquals(2, grid.get(8).xyP, 1e-9);
+        assertEquals(3, grid.get(8).thetaP, 1e-9);
+        for (PathGainSweep.Gains gains : grid) {
+            assertEquals(0, gains.xyD, 0);
+            assertEquals(0.5, gains.thetaD, 0);
+        }
+    }
+
+    @Test
+    public void samplesStayInRange() {
+        double[][] ranges = { { 0, 2 }, { 0, 0.1 }, { 1, 3 }, { 0, 0 } };
+        List<PathGainSweep.Gains> samples = PathGainSweep.sample(ranges, 100, new Random(1));
+
+        assertEquals(100, samples.size());
+        for (PathGainSweep.Gains gains : samples) {
+            assertTrue(gains.xyP >= 0 && gains.xyP <= 2);
+            assertTrue(gains.xyD >= 0 && gains.xyD <= 0.1);
+            assertTrue(gains.thetaP >= 1 && gains.thetaP <= 3);
+            assertEquals(0, gains.thetaD, 0);
+        }
+    }
+}
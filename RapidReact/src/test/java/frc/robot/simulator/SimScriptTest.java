@@ -0,0 +1,56 @@
+package frc.robot.simulator;
+
+import frc.robot.utils.AutonomousPath;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SimScriptTest {
+
+    @Test
+    public void parsesAndSortsSteps() {
+        SimScript script = SimScript.parse(Arrays.asList(
+            "# comment",
+            "",
+            "16   teleop",
+            "0    path   MAIN_NO_TERMINAL   # trailing comment",
+            "0    auto",
+            "16   axis   0 1 -0.5",
+            "18   BUTTON 1 6 true",
+            "137  end"
+        ));
+
+        List<SimScript.Step> steps = script.getSteps();
+        assertEquals(6, steps.size());
+
+        assertSame(SimScript.Action.PATH, steps.get(0).action);
+        assertSame(AutonomousPath.MAIN_NO_TERMINAL, steps.get(0).path);
+        assertSame(SimScript.Action.AUTO, steps.get(1).action);
+
+        // same time keeps the order of the file
+        assertSame(SimScript.Action.TELEOP, steps.get(2).action);
+        assertSame(SimScript.Action.AXIS, steps.get(3).action);
+        assertEquals(1, steps.get(3).channel);
+        assertEquals(-0.5, steps.get(3).value, 0);
+
+        assertEquals(1, steps.get(4).stick);
+        assertEquals(1, steps.get(4).value, 0);
+
+        assertEquals(137, script.getLengthSeconds(), 0);
+    }
+
+    @Test
+    public void reportsTheBadLine() {
+        try {
+            SimScript.parse(Arrays.asList("0 auto", "5 axis 0 1"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Line 2: axis takes 3 arguments, got 2!", e.getMessage());
+        }
+    }
+}
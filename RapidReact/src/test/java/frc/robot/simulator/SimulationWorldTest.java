@@ -0,0 +1,75 @@
+package frc.robot.simulator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SimulationWorldTest {
+
+    @Test
+    public void carriesTimeBetweenUpdates() {
+        List<Double> steps = new ArrayList<>();
+        SimulationWorld world = new SimulationWorld(0.02, 5, () -> 0).add("model", steps::add);
+
+        assertEquals(0, world.update(0.015));
+        assertEquals(1, world.update(0.015));
+        assertEquals(0, world.update(0.005));
+        assertEquals(2, world.update(0.035));
+
+        assertEquals(3, steps.size());
+        for (double dt : steps) {
+            assertEquals(0.02, dt, 1e-12);
+        }
+    }
+
+    @Test
+    public void stepsModelsInOrderWithSubSteps() {
+        List<String> calls = new ArrayList<>();
+        SimulationWorld world = new SimulationWorld(0.02, 5, () -> 0)
+            .add("slow", dt -> calls.add("slow " + dt))
+            .add("fast", 4, dt -> calls.add("fast " + dt));
+
+        world.update(0.02);
+
+        assertEquals(5, calls.size());
+        assertEquals("slow 0.02", calls.get(0));
+        for (int i = 1; i < 5; i++) {
+            assertEquals("fast 0.005", calls.get(i));
+        }
+
+        List<SimulationWorld.Cost> costs = world.getCosts();
+        assertEquals("fast", costs.get(1).name);
+        assertEquals(4, costs.get(1).subSteps);
+        assertEquals(1, costs.get(1).steps);
+    }
+
+    @Test
+    public void dropsTimeItCantCatchUp() {
+        int[] count = { 0 };
+        SimulationWorld world = new SimulationWorld(0.02, 3, () -> 0).add("model", dt -> count[0]++);
+
+        assertEquals(3, world.update(0.1));
+        assertEquals(2, world.getDroppedSteps());
+
+        // nothing left over for the next loop
+        assertEquals(1, world.update(0.02));
+        assertEquals(4, count[0]);
+    }
+
+    @Test
+    public void followsTheClock() {
+        long[] micros = { 1_000_000 };
+        int[] count = { 0 };
+        SimulationWorld world = new SimulationWorld(0.02, 5, () -> micros[0]).add("model", dt -> count[0]++);
+
+        assertEquals(0, world.update());
+        for (int i = 0; i < 50; i++) {
+            micros[0] += 20_000;
+            world.update();
+        }
+        assertEquals(50, count[0]);
+    }
+}
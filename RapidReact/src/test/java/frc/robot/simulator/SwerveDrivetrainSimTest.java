@@ -0,0 +1,78 @@
+package frc.robot.simulator;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.config.Config;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwerveDrivetrainSimTest {
+
+    // MK4 L2
+    private static final double WHEEL_DIAMETER = 0.10033;
+    private static final double DRIVE_REDUCTION = (14.0 / 50.0) * (27.0 / 17.0) * (15.0 / 45.0);
+    private static final double STEER_REDUCTION = (15.0 / 32.0) * (10.0 / 60.0);
+
+    private SwerveDrivetrainSim sim;
+
+    @Before
+    public void setup() {
+        sim = new SwerveDrivetrainSim(new Config(), WHEEL_DIAMETER, DRIVE_REDUCTION, STEER_REDUCTION);
+    }
+
+    private void run(double seconds) {
+        for (int i = 0; i < Math.round(seconds / 0.02); i++) {
+            sim.update(0.02);
+        }
+    }
+
+    @Test
+    public void drivesForward() {
+        for (int i = 0; i < 4; i++) sim.set(i, 6, 0);
+        run(2);
+
+        assertTrue("x " + sim.getX(), sim.getX() > 3);
+        assertEquals(0, sim.getY(), 0.01);
+        assertEquals(0, sim.getHeadingRadians(), 0.01);
+
+        // at steady speed the wheel encoders agree with how far the robot went
+        double x = sim.getX();
+        run(0.5);
+        for (int i = 0; i < 4; i++) {
+            assertEquals((sim.getX() - x) / 0.5, sim.getWheelSpeedMetersPerSecond(i), 0.05);
+        }
+
+        // less than half of the free speed at half voltage, the gearbox loses some
+        double freeSpeed = 6380.0 / 60 * DRIVE_REDUCTION * WHEEL_DIAMETER * Math.PI;
+        assertTrue(sim.getWheelSpeedMetersPerSecond(0) < freeSpeed / 2);
+        assertTrue(sim.getWheelSpeedMetersPerSecond(0) > freeSpeed / 2 * 0.7);
+    }
+
+    @Test
+    public void steersBeforeDrivingSideways() {
+        for (int i = 0; i < 4; i++) sim.set(i, 6, Math.PI / 2);
+        run(2);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Math.PI / 2, sim.getSteerAngleRadians(i), 0.01);
+        }
+        assertTrue("y " + sim.getY(), sim.getY() > 3);
+        assertEquals(0, sim.getX(), 0.1);
+    }
+
+    @Test
+    public void resetDoesNotMoveTheGyro() {
+        sim.zeroGyro();
+        sim.reset(new Pose2d(1, 2, Rotation2d.fromDegrees(90)));
+
+        assertEquals(1, sim.getX(), 1e-9);
+        assertEquals(Math.PI / 2, sim.getHeadingRadians(), 1e-9);
+        assertEquals(0, sim.getGyroYawDegrees(), 1e-9);
+
+        sim.zeroGyro();
+        assertEquals(0, sim.getGyroYawDegrees(), 1e-9);
+    }
+}
@@ -26,6 +26,7 @@ public class ClimberSubsystemTest extends SubsystemTest {
 
         // create the subsystem without pneumatics
         config.enablePneumatics = false;
+        CTREPhysicsSim.getInstance().setSeed(2022);
         subsystem = new ClimberSubsystem(config);
         subsystem.init();
     }
@@ -48,7 +49,7 @@ public class ClimberSubsystemTest extends SubsystemTest {
 
         // run the simuluation
         subsystem.simulationPeriodic();
-        CTREPhysicsSim.getInstance().run();
+        CTREPhysicsSim.getInstance().run(0.02);
 
         // we should be moving towards our goal
         assertNotEquals(0, subsystem.climberLeft.getSimCollection().getMotorOutputLeadVoltage());
@@ -0,0 +1,69 @@
+package frc.robot.subsystem;
+
+import edu.wpi.first.hal.HAL;
+import frc.robot.commands.DefaultDriveCommand;
+import frc.robot.config.Config;
+import frc.robot.log.BucketLog;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Teleop driving runs every 20 ms for a whole match, garbage from it ends up as GC pauses in
+ * the middle of loops. After warm up the drive command, the drivetrain and its telemetry must
+ * not allocate.
+ */
+public class DrivetrainAllocationTest extends SubsystemTest {
+
+    public static final int LOOPS = 1000;
+
+    // room for the odd lock node or lazily created dashboard entry, not for per loop garbage
+    public static final long BUDGET_BYTES = 16 * 1024;
+
+    DrivetrainSubsystem drivetrain;
+    DefaultDriveCommand command;
+
+    double input = 0.5;
+
+    @Before
+    public void setup() {
+        assert HAL.initialize(500, 0); // initialize the HAL, crash if failed
+
+        drivetrain = new DrivetrainSubsystem(new Config());
+        drivetrain.init();
+
+        command = new DefaultDriveCommand(drivetrain, () -> input, () -> input / 2, () -> input / 5);
+        command.initialize();
+    }
+
+    private void loop(int i) {
+        // alternate between driving and the sticky stop so both paths are covered,
+        // the slew rate limiters take a dozen loops to come back to zero
+        input = i % 100 < 50 ? 0.5 : 0;
+
+        command.execute();
+        drivetrain.periodic();
+        BucketLog.flush();
+    }
+
+    @Test
+    public void teleopDrivingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < LOOPS; i++) {
+            loop(i);
+        }
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < LOOPS; i++) {
+            loop(i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated + " bytes allocated in " + LOOPS + " loops", allocated <= BUDGET_BYTES);
+    }
+}
@@ -4,6 +4,10 @@ public abstract class SubsystemTest {
 
     public static final double BUS_VOLTAGE = 12;
 
+    /**
+     * Give Phoenix's simulated firmware time to pick up the last control frame. It runs on its own
+     * threads, unlike {@link frc.robot.simulator.CTREPhysicsSim}, which tests step with run(dt).
+     */
     protected void waitForCTREUpdate() {
         try {
             com.ctre.phoenix.unmanaged.Unmanaged.feedEnable(500);
@@ -0,0 +1,108 @@
+package frc.robot.utils;
+
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SampledTrajectoryTest {
+
+    public static final double DELTA = 1e-9;
+
+    /**
+     * Drives along x at 1 m/s for 2.005 s, turning the robot from 3 rad through pi to -3 rad.
+     */
+    public static class Line implements PathTrajectory {
+
+        @Override
+        public PathPlannerState sample(double timeSeconds) {
+            double t = Math.max(0, Math.min(timeSeconds, getTotalTimeSeconds()));
+            PathPlannerState state = new PathPlannerState();
+            state.timeSeconds = t;
+            state.poseMeters = new Pose2d(t, 2 * t, new Rotation2d(0.5));
+            state.velocityMetersPerSecond = 1;
+            state.curvatureRadPerMeter = t / 10;
+            state.holonomicRotation = new Rotation2d(3 + (2 * Math.PI - 6) * t / getTotalTimeSeconds());
+            return state;
+        }
+
+        @Override
+        public PathPlannerState getInitialState() {
+            return sample(0);
+        }
+
+        @Override
+        public PathPlannerState getEndState() {
+            return sample(getTotalTimeSeconds());
+        }
+
+        @Override
+        public double getTotalTimeSeconds() {
+            return 2.005;
+        }
+    }
+
+    @Test
+    public void resamplesOnAFixedStep() {
+        SampledTrajectory trajectory = SampledTrajectory.resample(new Line(), 0.01);
+
+        // 0 to 2.00 every 0.01 and the end at 2.005
+        assertEquals(202, trajectory.getSampleCount());
+        assertEquals(2.005, trajectory.getTotalTimeSeconds(), DELTA);
+        assertEquals(2.005, trajectory.getEndState().poseMeters.getX(), DELTA);
+    }
+
+    @Test
+    public void interpolatesLikeTheSource() {
+        Line line = new Line();
+        SampledTrajectory trajectory = SampledTrajectory.resample(line, 0.01);
+
+        for (double t = 0; t <= 2.005; t += 0.0037) {
+            PathPlannerState expected = line.sample(t);
+            PathPlannerState actual = trajectory.sample(t);
+
+            assertEquals(t, actual.timeSeconds, DELTA);
+            assertEquals(expected.poseMeters.getX(), actual.poseMeters.getX(), DELTA);
+            assertEquals(expected.poseMeters.getY(), actual.poseMeters.getY(), DELTA);
+            assertEquals(0.5, actual.poseMeters.getRotation().getRadians(), DELTA);
+            assertEquals(expected.curvatureRadPerMeter, actual.curvatureRadPerMeter, DELTA);
+            assertEquals(expected.holonomicRotation.getCos(), actual.holonomicRotation.getCos(), 1e-6);
+            assertEquals(expected.holonomicRotation.getSin(), actual.holonomicRotation.getSin(), 1e-6);
+        }
+    }
+
+    @Test
+    public void clampsAndReusesTheState() {
+        SampledTrajectory trajectory = SampledTrajectory.resample(new Line(), 0.01);
+        PathPlannerState state = new PathPlannerState();
+
+        assertSame(state, trajectory.sample(-1, state));
+        assertEquals(0, state.poseMeters.getX(), DELTA);
+        assertEquals(0, state.timeSeconds, DELTA);
+
+        assertSame(state, trajectory.sample(5, state));
+        assertEquals(2.005, state.poseMeters.getX(), DELTA);
+        assertEquals(2.005, state.timeSeconds, DELTA);
+    }
+
+    @Test
+    public void pathsWithoutLengthHaveOneSample() {
+        SampledTrajectory trajectory = SampledTrajectory.resample(new Line() {
+            @Override
+            public double getTotalTimeSeconds() {
+                return Double.NaN;
+            }
+
+            @Override
+            public PathPlannerState sample(double timeSeconds) {
+                return super.sample(0);
+            }
+        }, 0.01);
+
+        assertEquals(1, trajectory.getSampleCount());
+        assertEquals(0, trajectory.sample(3).poseMeters.getX(), DELTA);
+    }
+}
@@ -0,0 +1,73 @@
+package frc.robot.utils;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SwerveOdometryTest {
+
+    public static final double DELTA = 1e-9;
+
+    private final Translation2d[] modules = {
+        new Translation2d(0.3, 0.25),
+        new Translation2d(0.3, -0.25),
+        new Translation2d(-0.3, 0.25),
+        new Translation2d(-0.3, -0.25)
+    };
+
+    private final SwerveKinematics kinematics = new SwerveKinematics(modules);
+    private final SwerveDriveKinematics wpiKinematics = new SwerveDriveKinematics(modules);
+
+    @Test
+    public void moduleStatesMatchWpilib() {
+        ModuleStates states = new ModuleStates(4);
+        kinematics.toModuleStates(1.2, -0.4, 2.5, states);
+
+        SwerveModuleState[] expected = wpiKinematics.toSwerveModuleStates(new ChassisSpeeds(1.2, -0.4, 2.5));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i].speedMetersPerSecond, states.speedsMetersPerSecond[i], DELTA);
+            assertEquals(expected[i].angle.getRadians(), states.anglesRadians[i], DELTA);
+        }
+
+        double[] speeds = new double[3];
+        kinematics.toChassisSpeeds(states, speeds);
+        assertEquals(1.2, speeds[0], DELTA);
+        assertEquals(-0.4, speeds[1], DELTA);
+        assertEquals(2.5, speeds[2], DELTA);
+    }
+
+    @Test
+    public void odometryMatchesWpilib() {
+        Pose2d start = new Pose2d(1, 2, Rotation2d.fromDegrees(30));
+        SwerveOdometry odometry = new SwerveOdometry(kinematics, 0.1, start);
+        SwerveDriveOdometry wpiOdometry = new SwerveDriveOdometry(wpiKinematics, new Rotation2d(0.1), start);
+
+        ModuleStates states = new ModuleStates(4);
+        for (int i = 0; i < 200; i++) {
+            double time = i * 0.02;
+            double gyro = 0.1 + 0.8 * time;
+
+            kinematics.toModuleStates(1.5 * Math.cos(time), 0.5, 0.8, states);
+            SwerveModuleState[] wpiStates = new SwerveModuleState[4];
+            for (int j = 0; j < 4; j++) {
+                wpiStates[j] = new SwerveModuleState(states.speedsMetersPerSecond[j], new Rotation2d(states.anglesRadians[j]));
+            }
+
+            odometry.update(time, gyro, states);
+            wpiOdometry.updateWithTime(time, new Rotation2d(gyro), wpiStates);
+        }
+
+        Pose2d expected = wpiOdometry.getPoseMeters();
+        assertEquals(expected.getX(), odometry.getX(), 1e-6);
+        assertEquals(expected.getY(), odometry.getY(), 1e-6);
+        assertEquals(expected.getRotation().getRadians(), odometry.getHeadingRadians(), 1e-6);
+    }
+}
@@ -0,0 +1,77 @@
+package frc.robot.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TrajectoryCacheTest {
+
+    private final List<String> loads = new CopyOnWriteArrayList<>();
+    private final TrajectoryCache cache = new TrajectoryCache((name, velocity, acceleration) -> {
+        loads.add(name + " " + velocity + " " + acceleration);
+        return null;
+    });
+
+    @Test
+    public void preloadedPathsAreNotLoadedAgain() throws Exception {
+        cache.preload(Arrays.asList("A", "B", "C"), 1, 2, 2).get(5, TimeUnit.SECONDS);
+        assertEquals(3, loads.size());
+
+        cache.get("B", 1, 2);
+        cache.get("C", 1, 2);
+
+        assertEquals(3, loads.size());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(3, cache.getLoadedCount());
+    }
+
+    @Test
+    public void constraintsArePartOfTheKey() {
+        cache.get("A", 1, 2);
+        cache.get("A", 0, 0);
+        cache.get("A", 1, 2);
+
+        assertEquals(Arrays.asList("A 1.0 2.0", "A 0.0 0.0"), loads);
+        assertEquals(2, cache.getMissCount());
+        assertTrue(cache.contains("A", 0, 0));
+        assertFalse(cache.contains("A", 1, 1));
+    }
+
+    @Test
+    public void getWaitsForALoadInFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentHashMap<String, Integer> calls = new ConcurrentHashMap<>();
+        TrajectoryCache slow = new TrajectoryCache((name, velocity, acceleration) -> {
+            calls.merge(name, 1, Integer::sum);
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return null;
+        });
+
+        CompletableFuture<Void> preload = slow.preload(Arrays.asList("A"), 1, 1, 1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> get = CompletableFuture.runAsync(() -> slow.get("A", 1, 1));
+        release.countDown();
+        get.get(5, TimeUnit.SECONDS);
+        preload.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, (int) calls.get("A"));
+        assertEquals(0, slow.getMissCount());
+    }
+}
@@ -0,0 +1,81 @@
+package frc.robot.utils;
+
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TrajectoryFileTest {
+
+    public static final double DELTA = 1e-9;
+
+    private final byte[] source = "{\"waypoints\": []}".getBytes(StandardCharsets.UTF_8);
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("trajectory", TrajectoryFile.EXTENSION).toFile();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private SampledTrajectory writeAndOpen() throws IOException {
+        long checksum = TrajectoryFile.checksum(source, 1, 1);
+        TrajectoryFile.write(SampledTrajectory.resample(new SampledTrajectoryTest.Line(), 0.01), checksum, 1, 1, file);
+        return TrajectoryFile.open(file, checksum);
+    }
+
+    @Test
+    public void readsBackWhatItWrote() throws IOException {
+        SampledTrajectory expected = SampledTrajectory.resample(new SampledTrajectoryTest.Line(), 0.01);
+        SampledTrajectory trajectory = writeAndOpen();
+
+        assertNotNull(trajectory);
+        assertEquals(expected.getSampleCount(), trajectory.getSampleCount());
+        assertEquals(0.01, trajectory.getStepSeconds(), 0);
+        assertEquals(2.005, trajectory.getTotalTimeSeconds(), 0);
+        assertArrayEquals(expected.x, trajectory.x, 0);
+        assertArrayEquals(expected.y, trajectory.y, 0);
+        assertArrayEquals(expected.curvature, trajectory.curvature, 0);
+        assertArrayEquals(expected.holonomicRotation, trajectory.holonomicRotation, 0);
+
+        PathPlannerState state = trajectory.sample(1.2345);
+        assertEquals(1.2345, state.poseMeters.getX(), DELTA);
+        assertEquals(2.469, state.poseMeters.getY(), DELTA);
+    }
+
+    @Test
+    public void staleFilesAreRejected() throws IOException {
+        writeAndOpen();
+
+        byte[] edited = "{\"waypoints\": [1]}".getBytes(StandardCharsets.UTF_8);
+        assertNull(TrajectoryFile.open(file, TrajectoryFile.checksum(edited, 1, 1)));
+        // other constraints are another trajectory
+        assertNull(TrajectoryFile.open(file, TrajectoryFile.checksum(source, 2, 1)));
+        assertNotEquals(TrajectoryFile.checksum(source, 1, 2), TrajectoryFile.checksum(source, 2, 1));
+    }
+
+    @Test
+    public void truncatedFilesAreRejected() throws IOException {
+        writeAndOpen();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertNull(TrajectoryFile.open(file, TrajectoryFile.checksum(source, 1, 1)));
+    }
+}
@@ -0,0 +1,42 @@
+package frc.wpiClasses;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class Force2dTest {
+
+    public static final double DELTA = 1e-9;
+
+    @Test
+    public void inPlaceMatchesCopying() {
+        Force2d force = new Force2d(2, -1);
+        Rotation2d angle = Rotation2d.fromDegrees(35);
+
+        Force2d expected = force.rotateBy(angle).times(1.5).plus(new Force2d(0.5, 0.25));
+        Force2d actual = new Force2d(2, -1);
+
+        assertSame(actual, actual.rotateInPlace(angle).scaleInPlace(1.5).accum(0.5, 0.25));
+        assertEquals(expected, actual);
+        assertEquals(new Force2d(2, -1), force);
+    }
+
+    @Test
+    public void torqueMatchesTransform() {
+        Pose2d centerOfRotation = new Pose2d(1, 2, new Rotation2d(0.7));
+        Pose2d pose = new Pose2d(1.5, 1.2, new Rotation2d(-0.4));
+        ForceAtPose2d force = new ForceAtPose2d(new Force2d(3, -1), pose);
+
+        // what getTorque did before it worked on doubles
+        Transform2d transform = new Transform2d(centerOfRotation, pose);
+        Force2d aligned = force.m_force.rotateBy(transform.getRotation());
+        double expected = new Vector2d(transform.getX(), transform.getY()).cross(aligned.getVector2d());
+
+        assertEquals(expected, force.getTorque(centerOfRotation), DELTA);
+        assertEquals(aligned, force.getForceInRefFrame(centerOfRotation));
+    }
+}
@@ -0,0 +1,309 @@
+package frc.wpiClasses;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Twist2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+import org.ejml.simple.SimpleMatrix;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class QuadSwerveSimTest {
+
+    public static final double DELTA = 1e-6;
+
+    private static final double WHEEL_RADIUS_M = 0.0508;
+    private static final double AZIMUTH_GEAR_RATIO = 12.8;
+    private static final double WHEEL_GEAR_RATIO = 6.75;
+    private static final double STATIC_FRICTION = 1.1;
+    private static final double KINETIC_FRICTION = 0.8;
+    private static final double MASS_KG = 50;
+    private static final double MOI = 6;
+    private static final double AZIMUTH_MOI = 0.005;
+
+    private static SwerveModuleSim module() {
+        return new SwerveModuleSim(DCMotor.getFalcon500(1), DCMotor.getFalcon500(1), WHEEL_RADIUS_M,
+            AZIMUTH_GEAR_RATIO, WHEEL_GEAR_RATIO, 1.0, WHEEL_GEAR_RATIO,
+            STATIC_FRICTION, KINETIC_FRICTION, MASS_KG * 9.81 / 4, AZIMUTH_MOI);
+    }
+
+    /**
+     * Feeds both simulations the same recorded voltages, a mix of steps and slow sweeps so the
+     * robot accelerates, turns and slides.
+     */
+    @Test
+    public void matchesThePreviousImplementation() {
+        List<SwerveModuleSim> modules = new ArrayList<>();
+        List<LegacyModule> legacyModules = new ArrayList<>();
+        for (int i = 0; i < QuadSwerveSim.NUM_MODULES; i++) {
+            modules.add(module());
+            legacyModules.add(new LegacyModule());
+        }
+
+        QuadSwerveSim sim = new QuadSwerveSim(0.6, 0.5, MASS_KG, MOI, modules);
+        LegacyQuadSwerveSim legacy = new LegacyQuadSwerveSim(0.6, 0.5, legacyModules);
+
+        Pose2d start = new Pose2d(2, 3, Rotation2d.fromDegrees(20));
+        sim.modelReset(start);
+        legacy.modelReset(start);
+
+        Random random = new Random(2022);
+        double dt = 0.001;
+        for (int step = 0; step < 4000; step++) {
+            if (step % 250 == 0) {
+                for (int i = 0; i < QuadSwerveSim.NUM_MODULES; i++) {
+                    double wheelVoltage = random.nextDouble() * 24 - 12;
+                    double azimuthVoltage = random.nextDouble() * 4 - 2;
+                    modules.get(i).setInputVoltages(wheelVoltage, azimuthVoltage);
+                    legacyModules.get(i).wheelVoltage = wheelVoltage;
+                    legacyModules.get(i).azimuthVoltage = azimuthVoltage;
+                }
+            }
+
+            sim.update(dt);
+            legacy.update(dt);
+
+            Pose2d pose = sim.getCurPose();
+            assertEquals("x at step " + step, legacy.pose.getX(), pose.getX(), DELTA);
+            assertEquals("y at step " + step, legacy.pose.getY(), pose.getY(), DELTA);
+            assertEquals("heading at step " + step, legacy.pose.getRotation().getRadians(), pose.getRotation().getRadians(), DELTA);
+        }
+    }
+
+    /**
+     * SwerveModuleSim and QuadSwerveSim.update as they were before they moved to doubles, on
+     * the matrix backed Force2d and ForceAtPose2d they used.
+     */
+    private static final class LegacyModule {
+
+        final FlywheelSim azimuth = new FlywheelSim(DCMotor.getFalcon500(1), AZIMUTH_GEAR_RATIO, AZIMUTH_MOI);
+        final MotorGearboxWheelSim wheel = new MotorGearboxWheelSim(DCMotor.getFalcon500(1), WHEEL_GEAR_RATIO, WHEEL_RADIUS_M, 0.01);
+        final double staticFriction = STATIC_FRICTION * MASS_KG * 9.81 / 4;
+        final double kineticFriction = KINETIC_FRICTION * MASS_KG * 9.81 / 4;
+
+        double azimuthRev;
+        double wheelVoltage;
+        double azimuthVoltage;
+
+        Pose2d prevPose = new Pose2d();
+        Pose2d curPose = new Pose2d();
+        Rotation2d azimuthAngle = new Rotation2d();
+
+        void reset(Pose2d pose) {
+            prevPose = curPose = pose;
+            azimuthAngle = new Rotation2d();
+        }
+
+        void setPose(Pose2d pose) {
+            prevPose = curPose;
+            curPose = pose;
+        }
+
+        Vector2d relativeVelocity(double dt) {
+            Vector2d velocity = new Vector2d((curPose.getX() - prevPose.getX()) / dt, (curPose.getY() - prevPose.getY()) / dt);
+            velocity.rotate(-1.0 * curPose.getRotation().getDegrees());
+            return velocity;
+        }
+
+        void update(double dt) {
+            Vector2d azimuthUnit = new Vector2d(1, 0);
+            azimuthUnit.rotate(azimuthAngle.getDegrees());
+
+            wheel.update(relativeVelocity(dt).dot(azimuthUnit), wheelVoltage, dt);
+            azimuth.setInputVoltage(azimuthVoltage);
+            azimuth.update(dt);
+            azimuthRev += azimuth.getAngularVelocityRPM() / 60.0 * dt;
+
+            azimuthAngle = Rotation2d.fromDegrees(azimuthRev * 360);
+        }
+
+        LegacyForceAtPose2d crossTreadFriction(LegacyForce2d netForce, double dt) {
+            Vector2d crossTread = new Vector2d(0, 1);
+            crossTread.rotate(azimuthAngle.getDegrees());
+            double velocity = relativeVelocity(dt).dot(crossTread);
+            double force = netForce.getVector2d().dot(crossTread);
+
+            double friction = Math.abs(force) > staticFriction || Math.abs(velocity) > 0.001
+                ? -1.0 * Math.signum(velocity) * kineticFriction
+                : -1.0 * force;
+
+            return new LegacyForceAtPose2d(new LegacyForce2d(crossTread).times(friction), curPose);
+        }
+
+        LegacyForceAtPose2d motiveForce() {
+            return new LegacyForceAtPose2d(new LegacyForce2d(wheel.getGroundForce_N(), azimuthAngle), curPose);
+        }
+    }
+
+    private static final class LegacyQuadSwerveSim {
+
+        final List<LegacyModule> modules;
+        final List<Transform2d> robotToModule = new ArrayList<>();
+
+        Vector2d accelPrev = new Vector2d();
+        Vector2d velPrev = new Vector2d();
+        double rotAccelPrev;
+        double rotVelPrev;
+        Pose2d pose = new Pose2d();
+
+        LegacyQuadSwerveSim(double width, double length, List<LegacyModule> modules) {
+            this.modules = modules;
+            robotToModule.add(new Transform2d(new Translation2d(width / 2, length / 2), new Rotation2d(0.0)));
+            robotToModule.add(new Transform2d(new Translation2d(width / 2, -length / 2), new Rotation2d(0.0)));
+            robotToModule.add(new Transform2d(new Translation2d(-width / 2, length / 2), new Rotation2d(0.0)));
+            robotToModule.add(new Transform2d(new Translation2d(-width / 2, -length / 2), new Rotation2d(0.0)));
+        }
+
+        void modelReset(Pose2d pose) {
+            for (int i = 0; i < modules.size(); i++) {
+                modules.get(i).reset(pose.transformBy(robotToModule.get(i)));
+            }
+            this.pose = pose;
+        }
+
+        void update(double dt) {
+            Pose2d fieldRF = new Pose2d();
+            Transform2d fieldToRobot = new Transform2d(fieldRF, pose);
+
+            for (int i = 0; i < modules.size(); i++) {
+                modules.get(i).setPose(fieldRF.transformBy(fieldToRobot).transformBy(robotToModule.get(i)));
+                modules.get(i).update(dt);
+            }
+
+            List<LegacyForceAtPose2d> motive = new ArrayList<>();
+            LegacyForce2d preFriction = new LegacyForce2d();
+            for (LegacyModule module : modules) {
+                motive.add(module.motiveForce());
+                preFriction.accum(motive.get(motive.size() - 1).getForceInRefFrame(pose));
+            }
+
+            LegacyForceAtPose2d preFrictionRobot = new LegacyForceAtPose2d(preFriction, pose);
+            List<LegacyForceAtPose2d> friction = new ArrayList<>();
+            for (LegacyModule module : modules) {
+                LegacyForce2d moduleForce = preFrictionRobot.getForceInRefFrame(module.curPose).times(1.0 / modules.size());
+                friction.add(module.crossTreadFriction(moduleForce, dt));
+            }
+
+            LegacyForce2d net = preFriction;
+            for (LegacyForceAtPose2d f : friction) {
+                net.accum(f.getForceInRefFrame(pose));
+            }
+            LegacyForce2d netInField = new LegacyForceAtPose2d(net, pose).getForceInRefFrame(fieldRF);
+
+            double torque = 0;
+            for (int i = 0; i < modules.size(); i++) {
+                torque += motive.get(i).getTorque(pose);
+                torque += friction.get(i).getTorque(pose);
+            }
+
+            Vector2d accel = netInField.times(1 / MASS_KG).getVector2d();
+            Vector2d velocity = new Vector2d(velPrev.x + (accel.x + accelPrev.x) / 2 * dt, velPrev.y + (accel.y + accelPrev.y) / 2 * dt);
+            Translation2d posChange = new Translation2d((velocity.x + velPrev.x) / 2 * dt, (velocity.y + velPrev.y) / 2 * dt)
+                .rotateBy(pose.getRotation().unaryMinus());
+            velPrev = velocity;
+            accelPrev = accel;
+
+            double rotAccel = torque / MOI;
+            double rotVel = rotVelPrev + (rotAccel + rotAccelPrev) / 2 * dt;
+            double rotPosChange = (rotVel + rotVelPrev) / 2 * dt;
+            rotVelPrev = rotVel;
+            rotAccelPrev = rotAccel;
+
+            pose = pose.exp(new Twist2d(posChange.getX(), posChange.getY(), rotPosChange));
+        }
+    }
+
+    /**
+     * Force2d before it moved to doubles, the methods the legacy simulation uses.
+     */
+    private static final class LegacyForce2d {
+
+        Matrix<N2, N1> m_matrix;
+
+        LegacyForce2d() {
+            this(0.0, 0.0);
+        }
+
+        LegacyForce2d(double x, double y) {
+            m_matrix = new Matrix<>(new SimpleMatrix(2, 1));
+            m_matrix.set(0, 0, x);
+            m_matrix.set(1, 0, y);
+        }
+
+        LegacyForce2d(double mag, Rotation2d angle) {
+            this(mag * angle.getCos(), mag * angle.getSin());
+        }
+
+        LegacyForce2d(Matrix<N2, N1> m) {
+            m_matrix = m;
+        }
+
+        LegacyForce2d(Vector2d forceVec) {
+            this(forceVec.x, forceVec.y);
+        }
+
+        double getX() {
+            return m_matrix.get(0, 0);
+        }
+
+        double getY() {
+            return m_matrix.get(1, 0);
+        }
+
+        LegacyForce2d rotateBy(Rotation2d angle) {
+            return new LegacyForce2d(
+                this.getX() * angle.getCos() - this.getY() * angle.getSin(),
+                this.getX() * angle.getSin() + this.getY() * angle.getCos()
+            );
+        }
+
+        void accum(LegacyForce2d other) {
+            this.m_matrix = this.m_matrix.plus(other.m_matrix);
+        }
+
+        LegacyForce2d times(double scalar) {
+            return new LegacyForce2d(this.m_matrix.times(scalar));
+        }
+
+        Vector2d getVector2d() {
+            return new Vector2d(this.getX(), this.getY());
+        }
+    }
+
+    /**
+     * ForceAtPose2d before it moved to doubles.
+     */
+    private static final class LegacyForceAtPose2d {
+
+        final LegacyForce2d m_force;
+        final Pose2d m_pos;
+
+        LegacyForceAtPose2d(LegacyForce2d force, Pose2d pos) {
+            m_force = force;
+            m_pos = pos;
+        }
+
+        double getTorque(Pose2d centerOfRotation) {
+            Transform2d transCORtoF = new Transform2d(centerOfRotation, m_pos);
+            LegacyForce2d alignedForce = getForceInRefFrame(centerOfRotation);
+            Vector2d leverArm = new Vector2d(transCORtoF.getX(), transCORtoF.getY());
+            return leverArm.cross(alignedForce.getVector2d());
+        }
+
+        LegacyForce2d getForceInRefFrame(Pose2d refFrame) {
+            Transform2d trans = new Transform2d(refFrame, m_pos);
+            return m_force.rotateBy(trans.getRotation());
+        }
+    }
+}